@@ -1,5 +1,10 @@
 package controllers;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import logic.users.CarManufacturingCompany;
 import logic.users.CustomsManager;
 import logic.users.GarageHolder;
@@ -9,6 +14,10 @@ import logic.users.User;
 
 /**
  * The controller that offers a UI the methods to let a user log in to the AssemAssist system.
+ * Every log in starts a new session with its own user controller, so users that work at the same time never share
+ * the state of a controller, like a half-built order. The sessions are kept in a concurrent registry by their id.
+ * A session that is not used for longer than the session timeout expires, so sessions that are never logged out
+ * do not pile up. Expired sessions are removed whenever a session is registered or looked up.
  */
 public class AssemAssistController {
 	/**
@@ -17,40 +26,51 @@ public class AssemAssistController {
 	private CarManufacturingCompany company;
 	
 	/**
-	 * The controller for garage holders.
+	 * Maps the id of each session to the user controller of that session.
 	 */
-	private GarageHolderController ghController;
+	private ConcurrentMap<String, UserController> sessions;
 	
 	/**
-	 * The controller for managers.
+	 * The default time in milliseconds after which an unused session expires: 30 minutes.
 	 */
-	private ManagerController maController;
+	public static final long DEFAULT_SESSION_TIMEOUT = 30 * 60 * 1000;
 	
 	/**
-	 * The controller for mechanics.
+	 * The time in milliseconds after which an unused session expires.
 	 */
-	private MechanicController meController;
+	private final long sessionTimeout;
 	
 	/**
-	 * The controller for customs shop managers.
+	 * The time in milliseconds at which expired sessions are removed next.
 	 */
-	private CustomsManagerController cuController;
+	private volatile long nextSweep;
 	
 	/**
 	 * Creates a new AssemAssistController with the given car manufacturing company.
+	 * Unused sessions expire after the default session timeout.
 	 * @param company	A car manufacturing company. 
 	 */
 	public AssemAssistController(CarManufacturingCompany company) {
+		this(company, DEFAULT_SESSION_TIMEOUT);
+	}
+	
+	/**
+	 * Creates a new AssemAssistController with the given car manufacturing company and session timeout.
+	 * @param company			A car manufacturing company. 
+	 * @param sessionTimeout	The time in milliseconds after which an unused session expires.
+	 * @throws IllegalArgumentException	If the session timeout is not positive.
+	 */
+	public AssemAssistController(CarManufacturingCompany company, long sessionTimeout) {
+		if(sessionTimeout <= 0)
+			throw new IllegalArgumentException("The session timeout must be positive.");
 		this.company = company;
-		this.ghController = new GarageHolderController();
-		this.maController = new ManagerController();
-		this.meController = new MechanicController();
-		this.cuController = new CustomsManagerController();
+		this.sessions = new ConcurrentHashMap<>();
+		this.sessionTimeout = sessionTimeout;
 	}
 
 	/**
-	 * Checks if the given user is part of the system and returns the controller corresponding
-	 * to the user.
+	 * Checks if the given user is part of the system and returns a new controller corresponding
+	 * to the user, which is registered under a new session id.
 	 * @param userName	The user name of the user who wants to log in.
 	 * @return 	Null if the user name is not in the system.
 	 * 			The controller corresponding to the user otherwise.
@@ -58,21 +78,107 @@ public class AssemAssistController {
 	public UserController logIn(String userName) {
 		User user = company.logIn(userName);
 		if(user instanceof GarageHolder){
-			this.ghController.setGarageHolder((GarageHolder)user);
-			return this.ghController;
+			GarageHolderController ghController = new GarageHolderController();
+			ghController.setGarageHolder((GarageHolder)user);
+			return this.register(ghController);
 		}
 		else if(user instanceof Manager){
-			this.maController.setManager((Manager)user);
-			return this.maController;
+			ManagerController maController = new ManagerController();
+			maController.setManager((Manager)user);
+			return this.register(maController);
 		}
 		else if(user instanceof Mechanic){
-			this.meController.setMechanic((Mechanic)user);
-			return this.meController;
+			MechanicController meController = new MechanicController();
+			meController.setMechanic((Mechanic)user);
+			return this.register(meController);
 		}
 		else if(user instanceof CustomsManager){
-			this.cuController.setCustomsManager((CustomsManager)user);
-			return this.cuController;
+			CustomsManagerController cuController = new CustomsManagerController();
+			cuController.setCustomsManager((CustomsManager)user);
+			return this.register(cuController);
 		}
 		return null;
 	}
+	
+	/**
+	 * Returns the controller of the session with the given id, which counts as a use of the session.
+	 * @param sessionId	The id of the session.
+	 * @return	Null if there is no session with the given id or if the session has expired.
+	 * 			The controller of the session otherwise.
+	 */
+	public UserController getSession(String sessionId) {
+		if(sessionId == null)
+			return null;
+		long now = System.currentTimeMillis();
+		expireSessions(now);
+		UserController controller = this.sessions.get(sessionId);
+		if(controller == null)
+			return null;
+		if(isExpired(controller, now)){
+			this.sessions.remove(sessionId, controller);
+			return null;
+		}
+		controller.setLastAccess(now);
+		return controller;
+	}
+	
+	/**
+	 * Ends the session with the given id.
+	 * @param sessionId	The id of the session that needs to end.
+	 * @return	True if the session has ended.
+	 * 			False if there is no session with the given id.
+	 */
+	public boolean logOut(String sessionId) {
+		if(sessionId == null)
+			return false;
+		return this.sessions.remove(sessionId) != null;
+	}
+	
+	/**
+	 * Returns the number of sessions that have not ended or been removed after expiring.
+	 * @return	The number of sessions.
+	 */
+	public int getNumberOfSessions() {
+		return this.sessions.size();
+	}
+	
+	/**
+	 * Gives the given controller a new session id and registers it under that id.
+	 * @param controller	The controller of the new session.
+	 * @return	The given controller.
+	 */
+	private UserController register(UserController controller) {
+		long now = System.currentTimeMillis();
+		expireSessions(now);
+		String sessionId = UUID.randomUUID().toString();
+		controller.setSessionId(sessionId);
+		controller.setLastAccess(now);
+		this.sessions.put(sessionId, controller);
+		return controller;
+	}
+	
+	/**
+	 * Removes all expired sessions, at most once per session timeout.
+	 * @param now	The current time in milliseconds.
+	 */
+	private void expireSessions(long now) {
+		if(now < this.nextSweep)
+			return;
+		this.nextSweep = now + this.sessionTimeout;
+		for(Map.Entry<String, UserController> session : this.sessions.entrySet()){
+			if(isExpired(session.getValue(), now))
+				this.sessions.remove(session.getKey(), session.getValue());
+		}
+	}
+	
+	/**
+	 * Checks whether the session of the given controller has expired at the given time.
+	 * @param controller	The controller of the session.
+	 * @param now			The current time in milliseconds.
+	 * @return	True if the session has not been used for longer than the session timeout.
+	 * 			False otherwise.
+	 */
+	private boolean isExpired(UserController controller, long now) {
+		return now - controller.getLastAccess() > this.sessionTimeout;
+	}
 }
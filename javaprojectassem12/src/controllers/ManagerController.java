@@ -17,6 +17,8 @@ import logic.workstation.Task;
 
 /**
  * Class used to form a link between the user interface and the Manager class.
+ * The assembly line the manager performs actions on is chosen per controller, so two sessions of the
+ * same manager can work on different assembly lines.
  */
 public class ManagerController extends UserController{
 
@@ -25,6 +27,11 @@ public class ManagerController extends UserController{
 	 */
 	private Manager currentManager;
 	
+	/**
+	 * The representation of the assembly line the current manager performs actions on.
+	 */
+	private Printable<AssemblyLine> activeAssemblyLine;
+	
 	/**
 	 * The current list of orders that are viable to be used by the batch specification 
 	 * scheduling strategy.
@@ -37,6 +44,7 @@ public class ManagerController extends UserController{
 	 */
 	public void setManager(Manager manager) {
 		this.currentManager = manager;
+		this.activeAssemblyLine = null;
 	}
 
 	/**
@@ -69,7 +77,7 @@ public class ManagerController extends UserController{
 		if(currentManager == null)
 			return null;
 		ArrayList<String> strategies = new ArrayList<String>();
-		for(Printable<SchedulingStrategy> s : currentManager.getStrategiesActiveLine()){
+		for(Printable<SchedulingStrategy> s : currentManager.getStrategies(activeAssemblyLine)){
 			strategies.add(s.getStringRepresentation());
 		}
 		return strategies;
@@ -112,7 +120,7 @@ public class ManagerController extends UserController{
 	public ArrayList<String> getBatchListActiveLine() {
 		if(currentManager == null)
 			return null;
-		currentBatchList = currentManager.getBatchListActiveLine();
+		currentBatchList = currentManager.getBatchList(activeAssemblyLine);
 		ArrayList<String> options = new ArrayList<String>();
 		for(int i = 0; i < currentBatchList.size(); i++){
 			String option = "   " + (i+1) + ": Option " + (i+1) + ":\n";
@@ -160,8 +168,8 @@ public class ManagerController extends UserController{
 	 * 			False otherwise.
 	 */
 	public boolean changeToFIFOActiveLine(){
-		if(!currentManager.getStrategiesActiveLine().get(0).toString().equals("FIFO")){
-			currentManager.changeStrategyActiveAssemblyLine(null);
+		if(!currentManager.getStrategies(activeAssemblyLine).get(0).toString().equals("FIFO")){
+			currentManager.changeStrategy(null, activeAssemblyLine);
 			return true;
 		}
 		return false;
@@ -182,7 +190,7 @@ public class ManagerController extends UserController{
 	public void changeStrategyToBatchProcessingActiveLine(int index){
 		if(index+1>currentBatchList.size() || currentBatchList==null)
 			return;
-		currentManager.changeStrategyActiveAssemblyLine(currentBatchList.get(index));
+		currentManager.changeStrategy(currentBatchList.get(index), activeAssemblyLine);
 		currentBatchList.clear();
 	}
 	
@@ -222,10 +230,10 @@ public class ManagerController extends UserController{
 	 * @return a string representation of the status of the current AssemblyLine.
 	 */
 	public String getCurrentAssemblyLineStatus() {
-		if(this.currentManager == null || this.currentManager.getActiveAssemblyLine() == null)
+		if(this.currentManager == null || this.activeAssemblyLine == null)
 			return null;
 		Map<Printable<AssemblyLine>, Printable<OperationalStatus>> assemblyLineStatuses = currentManager.getAssemblyLinesStatuses();
-		Printable<OperationalStatus> currentAssemblyLine = assemblyLineStatuses.get(currentManager.getActiveAssemblyLine());
+		Printable<OperationalStatus> currentAssemblyLine = assemblyLineStatuses.get(activeAssemblyLine);
 		return currentAssemblyLine + "";
 	}
 
@@ -238,7 +246,7 @@ public class ManagerController extends UserController{
 			return;
 		for(Printable<AssemblyLine> line : this.currentManager.getAssemblyLines()){
 			if(line.getStringRepresentation().equals(assemblyLine))
-				this.currentManager.setActiveAssemblyLine(line);
+				this.activeAssemblyLine = line;
 		}	
 	}
 	
@@ -250,7 +258,7 @@ public class ManagerController extends UserController{
 		OperationalStatus[] availableStatuses = OperationalStatus.values();
 		for(OperationalStatus s : availableStatuses){
 			if(s.toString().equals(newStatus)){
-				currentManager.changeAssemblyLineStatus(s);
+				currentManager.changeAssemblyLineStatus(activeAssemblyLine, s);
 			}
 		}
 	}
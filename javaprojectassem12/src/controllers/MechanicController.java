@@ -12,6 +12,8 @@ import logic.workstation.Workstation;
 
 /**
  * Class used to form a link between the user interface and the Mechanic class.
+ * The assembly line and workstation the mechanic works at are chosen per controller, so two sessions of the
+ * same mechanic can work at different workstations.
  */
 public class MechanicController extends UserController{
 	
@@ -20,12 +22,24 @@ public class MechanicController extends UserController{
 	 */
 	private Mechanic currentMechanic;
 	
+	/**
+	 * The representation of the assembly line the current mechanic works on.
+	 */
+	private Printable<AssemblyLine> activeAssemblyLine;
+	
+	/**
+	 * The representation of the workstation the current mechanic works at.
+	 */
+	private Printable<Workstation> activeStation;
+	
 	/**
 	 * Sets the current mechanic to the given mechanic.
 	 * @param mechanic	The new mechanic.
 	 */
 	public void setMechanic(Mechanic mechanic) {
 		this.currentMechanic = mechanic;
+		this.activeAssemblyLine = null;
+		this.activeStation = null;
 	}
 
 	/**
@@ -50,7 +64,7 @@ public class MechanicController extends UserController{
 		if(this.currentMechanic == null)
 			return null;
 		ArrayList<String> workstations = new ArrayList<String>();
-		List<Printable<Workstation>> stations = this.currentMechanic.getWorkstationsFromAssemblyLine();
+		List<Printable<Workstation>> stations = this.currentMechanic.getWorkstationsFromAssemblyLine(this.activeAssemblyLine);
 		int count = 1;
 		for(Printable<Workstation> w : stations){
 			workstations.add(w.getStringRepresentation() + ": " + count);
@@ -89,7 +103,7 @@ public class MechanicController extends UserController{
 			return null;
 		ArrayList<String> tasks = new ArrayList<String>();
 		int count = 1;
-		for(Printable<Task> task : this.currentMechanic.getAvailableTasks()){
+		for(Printable<Task> task : this.currentMechanic.getAvailableTasks(this.activeStation, this.activeAssemblyLine)){
 			tasks.add(task.getStringRepresentation() + ": " + count);
 			count++;
 		}
@@ -107,7 +121,7 @@ public class MechanicController extends UserController{
 	public String getTaskInformation(String taskName){
 		if(this.currentMechanic == null)
 			return null;
-		for(Printable<Task> task : this.currentMechanic.getAvailableTasks()){
+		for(Printable<Task> task : this.currentMechanic.getAvailableTasks(this.activeStation, this.activeAssemblyLine)){
 			if(task.getStringRepresentation().equals(taskName))
 				return task.getExtraInformation();
 		}
@@ -124,9 +138,9 @@ public class MechanicController extends UserController{
 	public boolean doTask(String taskName, int duration){
 		if(this.currentMechanic == null)
 			return false;
-		for(Printable<Task> task : this.currentMechanic.getAvailableTasks()){
+		for(Printable<Task> task : this.currentMechanic.getAvailableTasks(this.activeStation, this.activeAssemblyLine)){
 			if(task.getStringRepresentation().equals(taskName))
-				return currentMechanic.doTask(task, duration);
+				return currentMechanic.doTask(task, this.activeAssemblyLine, duration);
 		}
 		return false;
 	}
@@ -140,7 +154,7 @@ public class MechanicController extends UserController{
 			return;
 		for(Printable<AssemblyLine> line : this.currentMechanic.getAssemblyLines()){
 			if(line.getStringRepresentation().equals(assemblyLine)){
-				this.currentMechanic.setActiveAssemblyLine(line);
+				this.activeAssemblyLine = line;
 			}
 		}	
 	}
@@ -152,9 +166,9 @@ public class MechanicController extends UserController{
 	public void setWorkStation(String workstationName){
 		if(this.currentMechanic == null)
 			return;
-		for(Printable<Workstation> station : this.currentMechanic.getWorkstationsFromAssemblyLine()){
+		for(Printable<Workstation> station : this.currentMechanic.getWorkstationsFromAssemblyLine(this.activeAssemblyLine)){
 			if(station.getStringRepresentation().equals(workstationName))
-				this.currentMechanic.setActiveWorkstation(station);
+				this.activeStation = station;
 		}
 	}
 
@@ -171,14 +185,14 @@ public class MechanicController extends UserController{
 		List<Printable<AssemblyLine>> assemblyLines = this.currentMechanic.getAssemblyLines();
 		for(Printable<AssemblyLine> line : assemblyLines){
 			tasks.add("= " + line.getStringRepresentation() + " [" + line.getStatus() + "] =");
-			this.currentMechanic.setActiveAssemblyLine(line);
-			List<Printable<Workstation>> workStations = this.currentMechanic.getWorkstationsFromAssemblyLine();
+			List<Printable<Workstation>> workStations = this.currentMechanic.getWorkstationsFromAssemblyLine(line);
 			for(Printable<Workstation> stat : workStations){
 				String temp = " " + stat.toString() + ":\n";
-				if(this.currentMechanic.getAllTasks(stat).size() == 0)
+				List<Printable<Task>> stationTasks = this.currentMechanic.getAllTasks(stat, line);
+				if(stationTasks.size() == 0)
 					temp += "   Inactive.\n";
 				else{
-					for(Printable<Task> task : this.currentMechanic.getAllTasks(stat)){
+					for(Printable<Task> task : stationTasks){
 						temp += "   -" + task.toString() + ": " + task.getStatus() + "\n";
 					}
 				}
@@ -2,10 +2,54 @@ package controllers;
 
 /**
  * Class used to form a link between the user interface and the User class.
+ * Each log in gets its own user controller, which is known to the AssemAssistController by its session id.
  */
 public abstract class UserController {
+	/**
+	 * The id of the session of this user controller.
+	 */
+	private String sessionId;
+	
+	/**
+	 * The time in milliseconds at which the session of this user controller was last used.
+	 */
+	private volatile long lastAccess;
+	
 	/**
 	 * Returns the user name of the current user.
 	 */
 	public abstract String getUserName();
+	
+	/**
+	 * Returns the id of the session of this user controller.
+	 * @return	The id of the session of this user controller.
+	 * 			Null if this user controller has not been given a session.
+	 */
+	public String getSessionId(){
+		return this.sessionId;
+	}
+	
+	/**
+	 * Sets the id of the session of this user controller to the given id.
+	 * @param sessionId	The id of the session.
+	 */
+	void setSessionId(String sessionId){
+		this.sessionId = sessionId;
+	}
+	
+	/**
+	 * Returns the time in milliseconds at which the session of this user controller was last used.
+	 * @return	The time in milliseconds at which the session of this user controller was last used.
+	 */
+	long getLastAccess(){
+		return this.lastAccess;
+	}
+	
+	/**
+	 * Sets the time at which the session of this user controller was last used to the given time.
+	 * @param time	The time in milliseconds.
+	 */
+	void setLastAccess(long time){
+		this.lastAccess = time;
+	}
 }
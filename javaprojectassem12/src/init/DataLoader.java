@@ -2,6 +2,9 @@ package init;
 
 import interfaces.Printable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.joda.time.DateTime;
 
 import logic.assemblyline.AssemblyLine;
@@ -69,9 +72,11 @@ public class DataLoader {
 	 */
 	private void advanceDay(){
 		GarageHolder holder = (GarageHolder) this.company.logIn("gar");
+		List<VehicleOrderDetails> details = new ArrayList<>();
 		for(int i = 0; i < 50; i++){
-			holder.placeOrder(buildStandardOrderA());
+			details.add(buildStandardOrderA());
 		}
+		holder.placeOrders(details);
 		performAllTasks();
 	}
 	
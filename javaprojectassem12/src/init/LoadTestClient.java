@@ -0,0 +1,263 @@
+package init;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import logic.assemblyline.RunningStatistics;
+import views.Json;
+
+/**
+ * A client that puts load on the HTTP interface of a running AssemAssist system and reports the throughput and
+ * the latencies. Half of the clients are garage holders that keep placing orders, the other half are managers
+ * that keep reading the statistics and the strategies.
+ */
+public class LoadTestClient {
+
+	/**
+	 * The parts of the order that the garage holders place.
+	 */
+	private static final String[] PARTS = {"Sedan", "Red", "Standard 2l v4", "6 speed manual", "Leather black", "Manual",
+		"Comfort", "No Spoiler", "No Toolstorage", "No Cargo Protection", "No Certification"};
+
+	/**
+	 * The address of the HTTP interface, without a trailing slash.
+	 */
+	private String address;
+
+	/**
+	 * The number of clients that send requests at the same time.
+	 */
+	private int clients;
+
+	/**
+	 * How long the clients send requests, in milliseconds.
+	 */
+	private long duration;
+
+	/**
+	 * The number of requests that have been answered.
+	 */
+	private AtomicInteger requests = new AtomicInteger();
+
+	/**
+	 * The number of requests that failed.
+	 */
+	private AtomicInteger errors = new AtomicInteger();
+
+	/**
+	 * The latencies of the answered requests in microseconds.
+	 */
+	private RunningStatistics latencies = new RunningStatistics();
+
+	/**
+	 * Creates a new load test client.
+	 * @param address	The address of the HTTP interface, like http://localhost:8080.
+	 * @param clients	The number of clients that send requests at the same time.
+	 * @param duration	How long the clients send requests, in milliseconds.
+	 */
+	public LoadTestClient(String address, int clients, long duration){
+		this.address = address.endsWith("/") ? address.substring(0, address.length() - 1) : address;
+		this.clients = clients;
+		this.duration = duration;
+	}
+
+	/**
+	 * Puts load on the HTTP interface. Optional arguments: the address, the number of clients and the number of seconds.
+	 * @param args	The arguments.
+	 * @throws InterruptedException	If the load test is interrupted.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		String address = args.length > 0 ? args[0] : "http://localhost:8080";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		LoadTestClient client = new LoadTestClient(address, clients, seconds * 1000L);
+		client.run();
+		System.out.println(client.getReport());
+	}
+
+	/**
+	 * Sends requests from all clients until the duration has passed.
+	 * @throws InterruptedException	If the load test is interrupted.
+	 */
+	public void run() throws InterruptedException {
+		final long end = System.currentTimeMillis() + duration;
+		List<Thread> threads = new ArrayList<>();
+		for(int i = 0; i < clients; i++){
+			final boolean garageHolder = i % 2 == 0;
+			Thread thread = new Thread(new Runnable(){
+				@Override
+				public void run(){
+					String session = login(garageHolder ? "gar" : "man");
+					if(session == null)
+						return;
+					while(System.currentTimeMillis() < end){
+						if(garageHolder)
+							placeOrder(session);
+						else
+							readStatistics(session);
+					}
+					send("POST", "/logout", "session=" + session);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for(Thread thread : threads){
+			thread.join();
+		}
+	}
+
+	/**
+	 * Returns the number of requests that have been answered.
+	 * @return	The number of answered requests.
+	 */
+	public int getRequests(){
+		return requests.get();
+	}
+
+	/**
+	 * Returns the number of requests that failed.
+	 * @return	The number of failed requests.
+	 */
+	public int getErrors(){
+		return errors.get();
+	}
+
+	/**
+	 * Returns a report of the throughput and the latencies of the load test.
+	 * @return	The report of the load test.
+	 */
+	public String getReport(){
+		String report = "Requests: " + getRequests() + ", errors: " + getErrors() + "\n";
+		report += "Throughput: " + (getRequests() * 1000L / Math.max(1, duration)) + " requests per second\n";
+		synchronized(latencies){
+			report += "Latency (microseconds): average " + latencies.getAverage() + ", median " + latencies.getMedian()
+					+ ", 90th percentile " + latencies.getNinetiethPercentile() + ", 99th percentile "
+					+ latencies.getNinetyNinthPercentile() + ", max " + latencies.getMax();
+		}
+		return report;
+	}
+
+	/**
+	 * Logs in the user with the given name.
+	 * @param user	The name of the user.
+	 * @return	The id of the new session.
+	 * 			Null if the user could not log in.
+	 */
+	private String login(String user){
+		String answer = send("POST", "/login", "user=" + encode(user));
+		if(answer == null)
+			return null;
+		return Json.readString(answer, "session");
+	}
+
+	/**
+	 * Places an order of car model A in the given session of a garage holder.
+	 * @param session	The session of a garage holder.
+	 */
+	private void placeOrder(String session){
+		send("POST", "/garageholder/model", "session=" + session + "&model=" + encode("Car Model A"));
+		for(String part : PARTS){
+			send("POST", "/garageholder/part", "session=" + session + "&part=" + encode(part));
+		}
+		send("POST", "/garageholder/order", "session=" + session);
+	}
+
+	/**
+	 * Reads the statistics and the strategies of all assembly lines in the given session of a manager.
+	 * @param session	The session of a manager.
+	 */
+	private void readStatistics(String session){
+		send("GET", "/manager/statistics", "session=" + session);
+		send("GET", "/manager/strategies/all", "session=" + session);
+	}
+
+	/**
+	 * Sends a request and records its latency.
+	 * @param method		The HTTP method.
+	 * @param path			The path of the operation.
+	 * @param parameters	The URL encoded parameters.
+	 * @return	The answer to the request.
+	 * 			Null if the request failed.
+	 */
+	private String send(String method, String path, String parameters){
+		long start = System.nanoTime();
+		try{
+			HttpURLConnection connection;
+			if(method.equals("GET")){
+				connection = (HttpURLConnection) new URL(address + path + "?" + parameters).openConnection();
+			}else{
+				connection = (HttpURLConnection) new URL(address + path).openConnection();
+				connection.setRequestMethod(method);
+				connection.setDoOutput(true);
+				connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+				OutputStream out = connection.getOutputStream();
+				out.write(parameters.getBytes("UTF-8"));
+				out.close();
+			}
+			int status = connection.getResponseCode();
+			InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+			String answer = readAll(in);
+			record(start);
+			if(status >= 400){
+				errors.incrementAndGet();
+				return null;
+			}
+			return answer;
+		}catch(IOException e){
+			errors.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Records the answer to a request that was sent at the given time.
+	 * @param start	The time at which the request was sent, in nanoseconds.
+	 */
+	private void record(long start){
+		long micros = (System.nanoTime() - start) / 1000;
+		requests.incrementAndGet();
+		synchronized(latencies){
+			latencies.add((int) Math.min(Integer.MAX_VALUE, micros));
+		}
+	}
+
+	/**
+	 * Reads the given stream to its end as text.
+	 * @param in	The stream, or null.
+	 * @return	The text of the stream.
+	 * @throws IOException	If the stream can not be read.
+	 */
+	private static String readAll(InputStream in) throws IOException{
+		if(in == null)
+			return "";
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while((read = in.read(buffer)) > 0)
+			bytes.write(buffer, 0, read);
+		in.close();
+		return bytes.toString("UTF-8");
+	}
+
+	/**
+	 * Returns the given text URL encoded.
+	 * @param text	The text that needs to be encoded.
+	 * @return	The URL encoded text.
+	 */
+	private static String encode(String text){
+		try{
+			return URLEncoder.encode(text, "UTF-8");
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -1,7 +1,11 @@
 package init;
 
 
+import java.io.File;
+import java.io.IOException;
+
 import logic.users.CarManufacturingCompany;
+import views.HttpView;
 import views.UI;
 import controllers.AssemAssistController;
 
@@ -12,13 +16,43 @@ public class Main {
 	
 	/**
 	 * The main method that starts up the AssemAssist system.
-	 * @param args Not used.
+	 * @param args Empty for the command line interface, or --http followed by an optional port for the HTTP interface.
+	 * 			Both can be preceded by --journal and a directory, to keep the company in a journal in that directory.
+	 * @throws IOException	If the HTTP interface can not listen on the port or the journal can not be opened.
 	 */
-	public static void main(String[] args) {
-		CarManufacturingCompany company = new CarManufacturingCompany();
-		DataLoader loader = new DataLoader(company);
-		loader.loadData();
+	public static void main(String[] args) throws IOException {
+		int next = 0;
+		CarManufacturingCompany company;
+		if(args.length > 1 && args[0].equals("--journal")){
+			company = CarManufacturingCompany.open(new File(args[1]));
+			next = 2;
+		}else{
+			company = new CarManufacturingCompany();
+		}
+		if(company.getJournalLength() == 0){
+			DataLoader loader = new DataLoader(company);
+			loader.loadData();
+		}
 		AssemAssistController controller = new AssemAssistController(company);
-		new UI(controller, System.in, System.out);
+		if(args.length > next && args[next].equals("--http")){
+			enableNoDelay();
+			int port = args.length > next + 1 ? Integer.parseInt(args[next + 1]) : 8080;
+			HttpView view = new HttpView(controller, port);
+			view.start();
+			System.out.println("AssemAssist is listening on port " + view.getPort() + ".");
+		}else{
+			new UI(controller, System.in, System.out);
+		}
+	}
+	
+	/**
+	 * Lets the embedded HTTP server send its answers with TCP_NODELAY, unless the sun.net.httpserver.nodelay property
+	 * was given on the command line. Answers are small, so without it most of them wait for the delayed
+	 * acknowledgement of the client. The property holds for every HTTP server in the JVM and is only read when the
+	 * first one is created, so it is set here, before any server is created, and not by the HTTP interface.
+	 */
+	public static void enableNoDelay(){
+		if(System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
 	}
 }
@@ -1,16 +1,22 @@
 package logic.assemblyline;
 import interfaces.Printable;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import logic.order.Order;
+import logic.order.Specification;
 import logic.order.VehicleModel;
 import logic.workstation.Task;
 import logic.workstation.Workstation;
 import logic.workstation.WorkstationChainBuilder;
+import logic.workstation.WorkstationPipeline;
 
 import org.joda.time.DateTime;
 import org.joda.time.Days;
@@ -19,7 +25,12 @@ import org.joda.time.Days;
  * Class handling an assembly line of a car manufacturing company.
  */
 
-public class AssemblyLine implements Printable<AssemblyLine> {
+public class AssemblyLine implements Printable<AssemblyLine>, Serializable {
+
+	/**
+	 * The version of the serialized form of a assembly line.
+	 */
+	private static final long serialVersionUID = 1L;
 
 
 	/**
@@ -38,9 +49,9 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	private boolean newday = false;
 	
 	/**
-	 * The first workstation in a line of workstations.
+	 * The workstations of this assembly line.
 	 */
-	private Workstation firstWorkStation;
+	private WorkstationPipeline workstations;
 
 	/**
 	 * Integer holding the number of work stations.
@@ -50,7 +61,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	/**
 	 * A list holding the pending orders waiting to be processed on this assembly line.
 	 */
-	private LinkedList<Order> queue;
+	private PendingQueue queue;
 
 	/**
 	 * A dateTime object holding the phase start time of this assembly line. 
@@ -77,17 +88,32 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 */
 	private String name;
 
+	/**
+	 * The shift calendar holding the working hours of this assembly line.
+	 */
+	private ShiftCalendar calendar;
+
 	/**
 	 *Initializes this assembly line with the given possible models, the workstation builder, the cycle start time, and the name of this assembly line.
-	 *Also makes the queue for orders and the statistics.
+	 *The assembly line works the standard shift from 6 until 22. Also makes the queue for orders and the statistics.
 	 */
 	public AssemblyLine(Collection<VehicleModel> capabilities, WorkstationChainBuilder builder, DateTime startTime, String name){
+		this(capabilities, builder, startTime, name, ShiftCalendar.STANDARD);
+	}
+
+	/**
+	 *Initializes this assembly line with the given possible models, the workstation builder, the cycle start time, the name of this assembly line
+	 *and the shift calendar holding its working hours.
+	 *Also makes the queue for orders and the statistics.
+	 */
+	public AssemblyLine(Collection<VehicleModel> capabilities, WorkstationChainBuilder builder, DateTime startTime, String name, ShiftCalendar calendar){
 		this.name = name;
+		this.calendar = calendar;
 		this.capabilities = capabilities;
-		queue= new LinkedList<Order>();
+		queue= new PendingQueue();
 		schedule = new Schedule();
-		this.firstWorkStation = builder.getResult();
-		this.numberOfWorkStations = firstWorkStation.countWorkStations();
+		this.workstations = builder.getResult();
+		this.numberOfWorkStations = workstations.size();
 		this.cycleStartTime = startTime;
 		stats = new StatisticsAssemblyLine(this.getStringRepresentation());
 	}
@@ -128,7 +154,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 * If this assembly line is ready for the next day and the cycle start time is at the beginning of the shift, then sets the ready for next day to false.
 	 */
 	public void setNewDay(){
-		if(newday == true && cycleStartTime.getHourOfDay()==schedule.shiftBeginHour){
+		if(newday == true && calendar.isWorkdayStart(Timeline.toMinute(cycleStartTime))){
 			newday = false;
 		}
 	}
@@ -162,7 +188,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 			returnList = schedule.makeCopyOfQueue();
 			queue.clear();
 		}
-		if((status == OperationalStatus.PREMAINTENANCE && firstWorkStation.allIdle()) || status == OperationalStatus.MAINTENANCE){
+		if((status == OperationalStatus.PREMAINTENANCE && workstations.allIdle()) || status == OperationalStatus.MAINTENANCE){
 			this.status = OperationalStatus.MAINTENANCE;
 			cycleTime = this.status.getTime();
 		}
@@ -194,6 +220,18 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 			changeStatus(OperationalStatus.OPERATIONAL);
 			cycleStartTime = realTime;
 			cycleTime=0;
+			schedule.reschedule();
+		}
+	}
+	
+	/**
+	 * If the manager decides that the preparation for maintenance should not continue, then the assembly line scheduler 
+	 * will call this method. The first workstation will accept orders again.
+	 */
+	protected void cancelPreMaintenance(){
+		if(status == OperationalStatus.PREMAINTENANCE){
+			changeStatus(OperationalStatus.OPERATIONAL);
+			schedule.reschedule();
 		}
 	}
 	
@@ -231,7 +269,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 				cycleStartTime = realTime;
 			cycleTime = 0;
 			
-			if(status==OperationalStatus.PREMAINTENANCE && firstWorkStation.allIdle())
+			if(status==OperationalStatus.PREMAINTENANCE && workstations.allIdle())
 				changeStatus(OperationalStatus.MAINTENANCE);
 			return true;
 		}
@@ -247,6 +285,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	protected void setCycleStartTime(DateTime time){
 		this.cycleStartTime = time;
 		this.cycleTime = 0;
+		schedule.reschedule();
 	}
 
 	/**
@@ -267,9 +306,9 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	public boolean doTask(Printable<Task> task, int timeTaken){
 		if(status == OperationalStatus.BROKEN)
 			return false;
-		boolean work = firstWorkStation.doTask(task, timeTaken);
-		if(firstWorkStation.canMoveAssemblyLine()){
-			cycleTime = firstWorkStation.getMaxElapsedTime();
+		boolean work = workstations.doTask(task, timeTaken);
+		if(workstations.canMoveAssemblyLine()){
+			cycleTime = workstations.getMaxElapsedTime();
 		}
 		return work;
 	}
@@ -280,7 +319,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 * @return	A list of tasks that are pending at the given workstation.
 	 */
 	public List<Printable<Task>> getRequiredTasks(Printable<Workstation> station){
-		return this.firstWorkStation.getRequiredTasks(station);
+		return workstations.getRequiredTasks(station);
 	}
 
 	/**
@@ -289,7 +328,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 * @return	A list of tasks at the given workstation.
 	 */
 	public List<Printable<Task>> getAllTasks(Printable<Workstation> station){
-		return this.firstWorkStation.getAllTasks(station);
+		return workstations.getAllTasks(station);
 	}
 
 	/**
@@ -298,7 +337,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 * 			false otherwise.
 	 */
 	public boolean tryMoveAssemblyLine(){
-		return firstWorkStation.canMoveAssemblyLine();
+		return workstations.canMoveAssemblyLine();
 			
 	}
 	
@@ -308,7 +347,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 * 			False otherwise.
 	 */
 	public boolean empty(){
-		return firstWorkStation.allIdle();
+		return workstations.allIdle();
 	}
 	
 	/**
@@ -342,7 +381,7 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	 */
 	public List<Printable<Workstation>> getWorkStations() {
 		LinkedList<Printable<Workstation>> workStations = new LinkedList<>();
-		firstWorkStation.buildWorkstationList(workStations,numberOfWorkStations);
+		workstations.buildWorkstationList(workStations);
 		return workStations;
 	}
 
@@ -361,13 +400,37 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		return false;
 	}
 
+	/**
+	 * Adds the given order to the queue of this assembly line without rescheduling the queue and the workstations.
+	 * The order is placed in the queue like addOrder would place it. The caller is responsible for calling reschedule
+	 * once all orders of a batch have been added.
+	 * @param order The car order to be queued.
+	 * @return		True if the order could be queued.
+	 * 				False otherwise.
+	 */
+	protected boolean queueOrder(Order order){
+		if(order != null && this.accepts(order)){
+			schedule.queueOrder(order);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Reschedules the orders of this assembly line of which the estimated end time may have changed
+	 * since the last time this assembly line was rescheduled.
+	 */
+	protected void reschedule(){
+		schedule.rescheduleDirty();
+	}
+
 	/**
 	 * Returns an estimate for an order if scheduled on this line without mutation of either the order or this line.
 	 * @param order	The order to schedule.
 	 * @return		An estimated assembly time or null if the order cannot be scheduled on this line.
 	 */
 	public DateTime getEstimate(Order order,DateTime realTime) {		
-		return schedule.getEstimate(order, realTime).plusMillis(getBias());
+		return Timeline.toDateTime(schedule.getEstimate(order, realTime)).plusMillis(getBias());
 	}
 
 	/**
@@ -381,17 +444,17 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 
 	/**
 	 * Returns true if the given phase duration does not cause the day to change to 
-	 * the next day after 6 am, false otherwise.
+	 * the next day after the start of its shift, false otherwise.
 	 * @param phaseDuration	The phase duration that needs to be checked.
 	 * @return	True if the given phase duration is allowed.
 	 * 			False otherwise.
 	 */
 	public boolean checkPhaseDuration(int phaseDuration){
 		int difference = 0;
-		if(firstWorkStation.getTotalEstimatedEndTime() != null)
-			difference = schedule.getTimeDifference(firstWorkStation.getTotalEstimatedEndTime(), cycleStartTime);
-		int diff= schedule.shiftBeginHour*60 - difference - 1;
-		int max = 24*60 - cycleStartTime.getMinuteOfDay()+diff;
+		long cycleStart = Timeline.toMinute(cycleStartTime);
+		if(workstations.getTotalEstimatedEndTime() != null)
+			difference = schedule.getTimeDifference(Timeline.toMinute(workstations.getTotalEstimatedEndTime()), cycleStart);
+		int max = calendar.getMinutesUntilNextDay(cycleStart) - difference - 1;
 		if(max>= phaseDuration)
 			return true;
 		return false;
@@ -462,7 +525,12 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 	/**
 	 *A class made to reschedule the assembly line and workstations. Changes the different times from orders appropriately.
 	 */
-	class Schedule {
+	class Schedule implements Serializable {
+
+		/**
+		 * The version of the serialized form of a schedule.
+		 */
+		private static final long serialVersionUID = 1L;
 
 		/**
 		 * The currently used strategy.
@@ -485,30 +553,37 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		}
 
 		/**
-		 * The begin time of the shift, represented in hours.
+		 * A variable holding the overtime made by the mechanics, represented in minutes.
 		 */
-		int shiftBeginHour = 6;
+		int overTime = 0;
 
 		/**
-		 * The end time of the shift, represented in hours.
+		 * The index of the first order in the queue of which the estimated end time may be out of date.
+		 * The orders before this index keep their estimated end time when the queue is rescheduled.
 		 */
-		int shiftEndHour = 22;
+		private int dirtyFrom = 0;
 
 		/**
-		 * A variable holding the overtime made by the mechanics, represented in minutes.
+		 * The cycle start time in minutes since the epoch for which the estimated end times were last calculated.
 		 */
-		int overTime = 0;
+		private long scheduledCycleStart = Order.NO_ESTIMATE;
+
+		/**
+		 * The overtime for which the estimated end times were last calculated.
+		 */
+		private int scheduledOverTime;
+
+		/**
+		 * The status for which the estimated end times were last calculated.
+		 */
+		private OperationalStatus scheduledStatus;
 
 		/**
 		 * Calculates the overtime made at the end of the day. It is possible that the day ends early,
 		 * in that case the overtime is set to 0.
 		 */
 		private void calculateOverTime() {
-			if(cycleStartTime.getHourOfDay()<shiftBeginHour){
-				overTime = (24-shiftEndHour) * 60 + cycleStartTime.getMinuteOfDay();
-			}else{
-				setOverTime((cycleStartTime.getMinuteOfDay()-(shiftEndHour*60)));
-			}
+			overTime = calendar.getOverTime(Timeline.toMinute(cycleStartTime));
 		}
 
 		/**
@@ -520,13 +595,13 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 */
 		private void moveAndReschedule(int phaseDuration) {
 
-			firstWorkStation.adjustDelays(phaseDuration);
+			workstations.adjustDelays(phaseDuration);
 			cycleStartTime = cycleStartTime.plusMinutes(phaseDuration);
-			Integer delayLastOrder= firstWorkStation.getDelayLastOrder();
+			Integer delayLastOrder= workstations.getDelayLastOrder();
 			if(delayLastOrder != null){
 				stats.finishedCarOrder(delayLastOrder, cycleStartTime);
 			}
-			firstWorkStation.advanceOrders(null, cycleStartTime);
+			workstations.advanceOrders(null, cycleStartTime);
 			if(checkEndOfDay()){
 				calculateOverTime();
 				setNextDay();
@@ -542,12 +617,13 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * if there are no more orders which qualify for batch processing. Sets the strategy as necessary.
 		 */
 		private void checkStrategy(){
-			LinkedList<Order> listo = new LinkedList<Order>();
-			listo = makeCopyOfQueue();
-			firstWorkStation.buildOrderList(listo);
 			if(currentStrategy instanceof BatchSpecificationStrategy){
-				for(Order nexto : listo){
-					if(nexto.equals(currentStrategy.example))
+				if(queue.count(currentStrategy.example.getSpecification()) > 0)
+					return;
+				List<Order> stationOrders = new ArrayList<Order>(numberOfWorkStations);
+				workstations.buildOrderList(stationOrders);
+				for(Order next : stationOrders){
+					if(currentStrategy.isExample(next))
 						return;
 				}
 			}
@@ -558,15 +634,17 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 
 		/**
 		 * Returns the difference in minutes between two given times.
-		 * @param estimate	The time for which we need the difference.
-		 * @param current	The current time which is a reference point.
+		 * @param estimate	The time in minutes since the epoch for which we need the difference.
+		 * @param current	The current time in minutes since the epoch which is a reference point.
 		 * @return	An integer containing the difference in minutes between the two given times.
 		 */
-		private int getTimeDifference(DateTime estimate, DateTime current){
-			if(estimate.getMinuteOfDay()>current.getMinuteOfDay()){
-				return estimate.getMinuteOfDay()-current.getMinuteOfDay();
+		private int getTimeDifference(long estimate, long current){
+			int estimateMinute = Timeline.getMinuteOfDay(estimate);
+			int currentMinute = Timeline.getMinuteOfDay(current);
+			if(estimateMinute>currentMinute){
+				return estimateMinute-currentMinute;
 			}else{
-				return estimate.getMinuteOfDay()+ 24*60 -current.getMinuteOfDay();
+				return estimateMinute+ 24*60 -currentMinute;
 			}
 		}
 
@@ -576,60 +654,110 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * and the queue.
 		 */
 		private void reschedule(){
-			if(firstWorkStation.getCurrentOrder()==null && !queue.isEmpty()){
+			dirtyFrom = 0;
+			rescheduleDirty();
+		}
+
+		/**
+		 * Tries to add an order to the first workstation if the first workstation does not 
+		 * have an order and the queue is not empty. Afterwards reschedules the orders of which the
+		 * estimated end time may have changed. If the cycle start time, the overtime or the status
+		 * changed since the last time, the workstations and the whole queue are rescheduled.
+		 * Otherwise only the orders from the first dirty index onward are rescheduled.
+		 */
+		private void rescheduleDirty(){
+			if(workstations.firstIdle() && !queue.isEmpty()){
 				addOrderToFirstWorkstation();
 			}
-			DateTime workstationEET = firstWorkStation.reschedule(getPhaseDurations(), numberOfWorkStations, cycleStartTime, false, true);
-			rescheduleQueue(workstationEET);
+			long cycleStart = Timeline.toMinute(cycleStartTime);
+			if(cycleStart != scheduledCycleStart || overTime != scheduledOverTime || status != scheduledStatus){
+				dirtyFrom = 0;
+			}
+			if(dirtyFrom == 0){
+				long workstationEET = workstations.reschedule(getPhaseDurations(), cycleStart, false, true);
+				rescheduleQueue(workstationEET, 0);
+			}else if(dirtyFrom < queue.size()){
+				rescheduleQueue(queue.get(dirtyFrom-1).getEstimatedEndMinute(), dirtyFrom);
+			}
+			dirtyFrom = Integer.MAX_VALUE;
+			scheduledCycleStart = cycleStart;
+			scheduledOverTime = overTime;
+			scheduledStatus = status;
+		}
+
+		/**
+		 * Marks the estimated end times of the orders in the queue as possibly out of date because the queue 
+		 * changed at the given index. An order's estimate uses the next orders up to the amount of workstations minus one,
+		 * so the orders that far before the given index are marked as well.
+		 * @param index	The index in the queue at which an order was added or removed.
+		 */
+		private void markDirty(int index){
+			dirtyFrom = Math.min(dirtyFrom, Math.max(0, index-(numberOfWorkStations-1)));
 		}
 
 
 		/**
-		 * Builds a list of a list of phase durations from the orders in the queue. The length of the returned list is either
+		 * Builds a list of phase durations from the orders in the queue. The length of the returned list is either
 		 * the amount of workstations or the number of orders in the queue, if there are less orders than workstations.
-		 * @return A list of a list of integers containing the phase durations. 
+		 * @return A list of arrays containing the phase durations. 
 		 */
-		private List<List<Integer>> getPhaseDurations(){
-			ArrayList<List<Integer>> prePhaseDurations = new ArrayList<>();
-			int j = 0;
-			for(int i = 0; i < queue.size(); i++){
-				if(j >= numberOfWorkStations-1)
-					break;
-				j++;
-				ArrayList<Integer> phases = new ArrayList<>();
-				firstWorkStation.buildEstimPhaseList(phases, queue.get(i));
-				prePhaseDurations.add(phases);
+		private List<int[]> getPhaseDurations(){
+			return getPhaseDurations(queue, numberOfWorkStations-1);
+		}
+
+		/**
+		 * Builds a list of phase durations from the first orders of the given list of pending orders.
+		 * @param pending	The list of pending orders.
+		 * @param amount	The maximum number of orders for which the phase durations are needed.
+		 * @return A list of arrays containing the phase durations.
+		 */
+		private List<int[]> getPhaseDurations(List<Order> pending, int amount){
+			ArrayList<int[]> prePhaseDurations = new ArrayList<>();
+			for(int i = 0; i < pending.size() && i < amount; i++){
+				prePhaseDurations.add(workstations.getEstimPhaseDurations(pending.get(i)));
 			}
 			return prePhaseDurations;
 		}
 
 		/**
 		 * Given the start time, calculates the estimated end times of the orders in the 
-		 * pending queue. Every order calculates its own estimated end time using a number 
+		 * pending queue from the given index onward. Every order calculates its own estimated end time using a number 
 		 * of next orders that is, at most, equal to the amount of workstations minus one.
-		 * @param startTime	The time used for scheduling the queue.
-		 */
-		private void rescheduleQueue(DateTime startTime){
-			ArrayList<Integer> phases = new ArrayList<>();
-			for(int i = 0; i < queue.size(); i++){
-				phases.clear();
-				int count = numberOfWorkStations-1;
-				firstWorkStation.buildEstimPhaseList(phases, queue.get(i));
-				int maxPhase = phases.get(count);
-				for(int j = i+1; j < queue.size(); j++){
-					if(count <= 0)
-						break;
-					count--;
-					phases.clear();
-					firstWorkStation.buildEstimPhaseList(phases, queue.get(j));
-					if(phases.get(count) > maxPhase)
-						maxPhase = phases.get(count);
-				}
-				startTime = startTime.plusMinutes(maxPhase+status.getTime());
-				if(startTime.getHourOfDay()<shiftBeginHour || startTime.getMinuteOfDay()>=shiftEndHour*60-overTime)
-					startTime = getEstimatedTime(startTime, queue.get(i));
-				queue.get(i).setEstimatedEndTime(startTime);
+		 * @param startTime	The time in minutes since the epoch used for scheduling the queue, which is the estimated
+		 * 					end time of the order before the given index.
+		 * @param from		The index of the first order that needs to be rescheduled.
+		 */
+		private void rescheduleQueue(long startTime, int from){
+			for(int i = from; i < queue.size(); i++){
+				startTime = getQueueEstimate(queue, i, startTime);
+				queue.get(i).setEstimatedEndMinute(startTime);
+			}
+		}
+
+		/**
+		 * Calculates the estimated end time of the order at the given index of the given list of pending
+		 * orders, using a number of next orders that is, at most, equal to the amount of workstations minus one.
+		 * Neither the orders nor this schedule are changed.
+		 * @param pending	The list of pending orders.
+		 * @param i			The index of the order for which the estimated end time is needed.
+		 * @param startTime	The estimated end time in minutes since the epoch of the order before the order at the given index.
+		 * @return	The estimated end time in minutes since the epoch of the order at the given index.
+		 */
+		private long getQueueEstimate(List<Order> pending, int i, long startTime){
+			int count = numberOfWorkStations-1;
+			int maxPhase = workstations.getEstimPhaseDurations(pending.get(i))[count];
+			for(int j = i+1; j < pending.size(); j++){
+				if(count <= 0)
+					break;
+				count--;
+				int phase = workstations.getEstimPhaseDurations(pending.get(j))[count];
+				if(phase > maxPhase)
+					maxPhase = phase;
 			}
+			startTime += maxPhase+status.getTime();
+			if(!calendar.isWorkingTime(startTime, overTime))
+				startTime = getEstimatedTime(startTime, pending.get(i));
+			return startTime;
 		}
 
 		/**
@@ -638,39 +766,30 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * but the end time is not set even if the order can be scheduled today.
 		 */
 		private void addOrderToFirstWorkstation(){
-			Order order = queue.getFirst();
-			DateTime estimatedEndTime;
-			estimatedEndTime = firstOrderEstimate(order);
-			if(estimatedEndTime.getMinuteOfDay()<shiftEndHour*60-overTime && estimatedEndTime.getHourOfDay()>=shiftBeginHour && status == OperationalStatus.OPERATIONAL){
-				firstWorkStation.setOrder(queue.pop());
+			if(canStartToday(queue.getFirst())){
+				workstations.setFirstOrder(queue.pop());
+				markDirty(0);
 			}
 		}
 
 		/**
-		 * If the hour of the current time is after the hour of the beginning of the shift, 
-		 * the day of the current time is set to the next day, otherwise the day of the current 
-		 * time remains the same. Afterwards, sets the current hour to the beginning of the shift. 
+		 * Checks whether the given order can still be started on the first workstation today.
+		 * @param order	The order that would be added to the first workstation.
+		 * @return	True if the estimated end time of the given order falls within today's shift and
+		 * 			this assembly line is operational.
+		 * 			False otherwise.
 		 */
-		private void setNextDay() {
-			if(cycleStartTime.getHourOfDay()<shiftBeginHour)
-				cycleStartTime = new DateTime(cycleStartTime.getYear(),cycleStartTime.getMonthOfYear(),cycleStartTime.getDayOfMonth(),shiftBeginHour,0);
-			else{
-				cycleStartTime = cycleStartTime.plusDays(1);
-				cycleStartTime = new DateTime(cycleStartTime.getYear(),cycleStartTime.getMonthOfYear(),cycleStartTime.getDayOfMonth(),shiftBeginHour,0);
-			}
-
-			stats.setNextDay();
+		private boolean canStartToday(Order order){
+			return calendar.isWorkingTime(firstOrderEstimate(order), overTime) && status == OperationalStatus.OPERATIONAL;
 		}
 
 		/**
-		 * Sets the overTime to the given overtime if it is higher than 0. Else sets the overtime to 0. 
-		 * @param overtime	The overtime made during this day.
+		 * Sets the current time to the beginning of the next shift after the current time.
 		 */
-		private void setOverTime(int overtime) {
-			if(overtime<=0)
-				overTime = 0;
-			else
-				overTime=overtime;
+		private void setNextDay() {
+			cycleStartTime = Timeline.toDateTime(calendar.getNextWorkdayStart(Timeline.toMinute(cycleStartTime)));
+
+			stats.setNextDay();
 		}
 
 		/**
@@ -680,17 +799,14 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * 			False otherwise.
 		 */
 		private boolean checkEndOfDay() {
-			boolean doneWorking = firstWorkStation.allIdle();
+			boolean doneWorking = workstations.allIdle();
 			if(!doneWorking)
 				return false;
 			int assemblyTime = 150;
 			if(!queue.isEmpty()){
 				assemblyTime = getEstimatedAssemblyTime(queue.getFirst());
 			}
-			if(cycleStartTime.getMinuteOfDay()>=(shiftEndHour * 60-overTime - assemblyTime) || cycleStartTime.getMinuteOfDay()<shiftBeginHour*60){
-				return true;
-			}
-			return false;
+			return calendar.isEndOfWorkday(Timeline.toMinute(cycleStartTime), overTime, assemblyTime);
 		}
 		
 		/**
@@ -702,11 +818,9 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		private int getEstimatedAssemblyTime(Order order){
 			if(order == null)
 				return 0;
-			ArrayList<Integer> phases = new ArrayList<>();
-			firstWorkStation.buildEstimPhaseList(phases, order);
 			int assemblyTime = 0;
-			for(Integer i : phases){
-				assemblyTime += i;
+			for(int phase : workstations.getEstimPhaseDurations(order)){
+				assemblyTime += phase;
 			}
 			return assemblyTime;
 		}
@@ -715,14 +829,14 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * If the days between the given time and the cycle start time of this assembly line differ, then it checks 
 		 * if there is time for a new order without considering the overtime. Else checks if there is time
 		 * for a new order considering the overtime. 
-		 * @param time	The time to check against thcycle start time of this assembly line.
+		 * @param time	The time in minutes since the epoch to check against the cycle start time of this assembly line.
 		 * @return True if there is time for a new order on this day, false otherwise.
 		 */
-		private boolean timeForNewOrder(DateTime time) {
-			if(Days.daysBetween(time, cycleStartTime).getDays()==0){
-				return time.getMinuteOfDay()<(shiftEndHour*60-overTime) && time.getMinuteOfDay()>=shiftBeginHour*60;
+		private boolean timeForNewOrder(long time) {
+			if(Timeline.withinADay(time, Timeline.toMinute(cycleStartTime))){
+				return calendar.isWorkingTime(time, overTime);
 			}else{
-				return time.getMinuteOfDay()<(shiftEndHour*60) && time.getMinuteOfDay()>=shiftBeginHour*60;
+				return calendar.isWorkingTime(time, 0);
 			}
 		}
 
@@ -744,8 +858,21 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * @param order	The order that needs to be scheduled.
 		 */
 		private void scheduleOrder(Order order){
-			currentStrategy.addOrder(order, queue);
-			reschedule();
+			queueOrder(order);
+			rescheduleDirty();
+		}
+
+		/**
+		 * Adds the given order to the queue using the current strategy. If the first workstation is free, 
+		 * the first order of the queue is moved to it like reschedule would, but no estimated end times are updated.
+		 * The orders from the insertion point onward are marked to be rescheduled.
+		 * @param order The order that needs to be added to the queue.
+		 */
+		private void queueOrder(Order order){
+			markDirty(currentStrategy.addOrder(order, queue));
+			if(workstations.firstIdle()){
+				addOrderToFirstWorkstation();
+			}
 		}
 
 		/**
@@ -762,27 +889,19 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 				currentStrategy = stratList.getLast();
 				currentStrategy.setExample(order);
 			}
-			LinkedList<Order> copy = makeCopyOfQueue();
-			queue.clear();
-			currentStrategy.refactorQueue(queue,copy);
-			reschedule();
+			markDirty(currentStrategy.refactorQueue(queue));
+			rescheduleDirty();
 		}
 
 		/**
 		 * Returns the right estimated end time from the given possibly wrong estimated end time.
-		 * @param estimatedEndTime The estimated end time that needs to be scheduled.
+		 * @param estimatedEndTime The estimated end time in minutes since the epoch that needs to be scheduled.
 		 * @param order The order for which the estimated end time possibly needs to change.
-		 * @return	The renewed estimated end time if it was scheduled wrong before. 
+		 * @return	The renewed estimated end time in minutes since the epoch if it was scheduled wrong before. 
 		 */
-		private DateTime getEstimatedTime(DateTime estimatedEndTime, Order order) {
+		private long getEstimatedTime(long estimatedEndTime, Order order) {
 			if(!timeForNewOrder(estimatedEndTime)){
-				if(estimatedEndTime.getHourOfDay()<=shiftBeginHour){
-					return new DateTime(estimatedEndTime.getYear(),estimatedEndTime.getMonthOfYear(),estimatedEndTime.getDayOfMonth(),shiftBeginHour,0).plusMinutes(getEstimatedAssemblyTime(order));
-
-				}else{
-					estimatedEndTime =  new DateTime(estimatedEndTime.getYear(),estimatedEndTime.getMonthOfYear(),estimatedEndTime.getDayOfMonth(),shiftBeginHour,0).plusMinutes(getEstimatedAssemblyTime(order));
-					return estimatedEndTime.plusDays(1);
-				}
+				return calendar.getEarliestCompletion(calendar.getNextShiftStart(estimatedEndTime), getEstimatedAssemblyTime(order));
 			}else{
 				return estimatedEndTime;
 			}
@@ -807,73 +926,94 @@ public class AssemblyLine implements Printable<AssemblyLine> {
 		 * @return A list of orders for which batch processing can be used.
 		 */
 		private List<Order> getBatchList(){
-			LinkedList<Order> returnList = new LinkedList<Order>();
-			LinkedList<Order> allOrdersList = new LinkedList<Order>();
-			firstWorkStation.buildOrderList(allOrdersList);
-			for(Order next: queue){
-				allOrdersList.add(next.getRawCopy());
-			}
-			LinkedList<Order> allOrdersList2 = new LinkedList<Order>(allOrdersList);
-			for(Order order: allOrdersList){
-				int count = 0;
-				for(Order next : allOrdersList2){
-					if(order.equals(next))
-						count++;
+			ArrayList<Order> allOrdersList = new ArrayList<Order>();
+			workstations.buildOrderList(allOrdersList);
+			int stationOrders = allOrdersList.size();
+			allOrdersList.addAll(queue);
+			Map<Specification, Integer> firstIndices = new LinkedHashMap<>();
+			Map<Specification, Integer> counts = new HashMap<>();
+			for(int i = 0; i < allOrdersList.size(); i++){
+				Specification specification = allOrdersList.get(i).getSpecification();
+				Integer count = counts.get(specification);
+				if(count == null){
+					firstIndices.put(specification, i);
+					count = 0;
 				}
-				if(count>=3 && !returnList.contains(order))
+				counts.put(specification, count+1);
+			}
+			LinkedList<Order> returnList = new LinkedList<Order>();
+			for(Map.Entry<Specification, Integer> entry : firstIndices.entrySet()){
+				if(counts.get(entry.getKey()) < 3)
+					continue;
+				Order order = allOrdersList.get(entry.getValue());
+				if(entry.getValue() < stationOrders)
 					returnList.add(order);
-				allOrdersList2.removeFirst();
+				else
+					returnList.add(order.getRawCopy());
 			}
 			return returnList;
 		}
 		
 		/**
-		 * Returns the estimated end time of a given order, sets the start time of the given order because it will be scheduled afterwards.
+		 * Returns the estimated end time of a given order as if it were scheduled on this assembly line.
+		 * Neither the queue, the orders nor the workstations are changed.
 		 * @param order The order for which we want to calculate the estimated end time.
 		 * @param realTime	The current time of the system.
-		 * @return An estimated date time object which is the estimated end time of the given order.
+		 * @return The estimated end time of the given order in minutes since the epoch.
 		 */
-		private DateTime getEstimate(Order order, DateTime realTime){
-			DateTime returnTime = null;
-			LinkedList<Order> copyqueue = makeCopyOfQueue();
-			
-			if(firstWorkStation.getCurrentOrder()==null && queue.isEmpty()){
-				returnTime = firstOrderEstimate(order);
-				returnTime = getEstimatedTime(returnTime, order);
-				return returnTime;
-			}else{
-				if(!queue.isEmpty()){
-					if(queue.getFirst().equals(order) && order.equals(currentStrategy.example) && getEstimatedAssemblyTime(queue.getFirst()) > getEstimatedAssemblyTime(order) && !checkDeadline(queue.getFirst(), order) && firstWorkStation.getCurrentOrder()==null){
-						returnTime = firstOrderEstimate(order);
-						return returnTime;
-					}
-					
+		private long getEstimate(Order order, DateTime realTime){
+			if(workstations.firstIdle() && queue.isEmpty()){
+				return getEstimatedTime(firstOrderEstimate(order), order);
+			}
+			if(!queue.isEmpty()){
+				if(queue.getFirst().equals(order) && order.equals(currentStrategy.example) && getEstimatedAssemblyTime(queue.getFirst()) > getEstimatedAssemblyTime(order) && !checkDeadline(queue.getFirst(), order) && workstations.firstIdle()){
+					return firstOrderEstimate(order);
 				}
-					scheduleOrder(order);
-					returnTime = order.getEstimatedEndTime();
-					queue = copyqueue;
-					reschedule();
-					return returnTime;
 			}
-			
+			int index = currentStrategy.getInsertionIndex(order, queue);
+			return getEstimate(queue.withOrderAt(order, index), index);
+		}
 
+		/**
+		 * Returns the estimated end time the order at the given index of the given snapshot of the queue
+		 * would receive if the snapshot were rescheduled. The snapshot is only read.
+		 * @param pending	A snapshot of the queue, possibly containing orders that are not scheduled yet.
+		 * @param index		The index of the order for which the estimated end time is needed.
+		 * @return	The estimated end time in minutes since the epoch of the order at the given index.
+		 */
+		private long getEstimate(List<Order> pending, int index){
+			int first = 0;
+			long cycleStart = Timeline.toMinute(cycleStartTime);
+			long startTime;
+			if(workstations.firstIdle() && canStartToday(pending.get(0))){
+				first = 1;
+				startTime = workstations.reschedule(getPhaseDurations(pending, numberOfWorkStations), cycleStart, true, false);
+				if(index == 0)
+					return startTime;
+			}else{
+				startTime = workstations.reschedule(getPhaseDurations(pending, numberOfWorkStations-1), cycleStart, false, false);
+			}
+			List<Order> remaining = pending.subList(first, pending.size());
+			for(int i = 0; i <= index-first; i++){
+				startTime = getQueueEstimate(remaining, i, startTime);
+			}
+			return startTime;
 		}
-		
+
 		/**
 		 * Calculates the estimated end time for a given order possibly scheduled in the first workstation.
 		 * @param order	The order for which we want an estimated end time.
-		 * @return	The estimated end time for the given order.
+		 * @return	The estimated end time for the given order in minutes since the epoch.
 		 */
-		private DateTime firstOrderEstimate(Order order){
-			ArrayList<List<Integer>> phaseList = new ArrayList<>();
-			ArrayList<Integer> orderPhases = new ArrayList<>();
-			firstWorkStation.buildEstimPhaseList(orderPhases, order);
+		private long firstOrderEstimate(Order order){
+			ArrayList<int[]> phaseList = new ArrayList<>();
+			int[] orderPhases = workstations.getEstimPhaseDurations(order);
 			phaseList.add(orderPhases);
-			DateTime scheduleTime = firstWorkStation.reschedule(phaseList, numberOfWorkStations, cycleStartTime, true, false);
-			if(firstWorkStation.idle()){
+			long scheduleTime = workstations.reschedule(phaseList, Timeline.toMinute(cycleStartTime), true, false);
+			if(workstations.firstIdle()){
 				return scheduleTime;
 			}
-			return scheduleTime.plusMinutes(orderPhases.get(orderPhases.size()-1));
+			return scheduleTime + orderPhases[orderPhases.length-1];
 		}
 		
 		/**
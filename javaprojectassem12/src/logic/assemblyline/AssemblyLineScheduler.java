@@ -2,12 +2,22 @@ package logic.assemblyline;
 
 import interfaces.Printable;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
 import logic.order.Order;
 import logic.order.VehicleModel;
@@ -22,8 +32,20 @@ import org.joda.time.DateTime;
 
 /**
  * A class which is responsible for scheduling orders on the different assembly lines.
+ * The scheduler can be used by several threads at once. All work on an assembly line is sent as a message to the
+ * line executor of that assembly line, which never runs two messages at once, so tasks on different assembly lines
+ * are done in parallel. By default each message runs in the thread that sends it while holding the lock of its
+ * assembly line. In actor mode each assembly line is an actor which runs its messages from a mailbox on a shared pool.
+ * The current time, the overflow queue, the cycle-end events and the decision which assembly line moves next are
+ * guarded by one coordination lock. A thread may send messages while holding the coordination lock, and such a message
+ * may bring the cycle-end event of its assembly line up to date, but a message never takes the coordination lock.
  */
-public class AssemblyLineScheduler {
+public class AssemblyLineScheduler implements Serializable {
+	
+	/**
+	 * The version of the serialized form of a assembly line scheduler.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * The list of all the assembly lines.
@@ -33,7 +55,7 @@ public class AssemblyLineScheduler {
 	/**
 	 * The current time of the system.
 	 */
-	private DateTime currentTime;
+	private volatile DateTime currentTime;
 	
 	/**
 	 * The queue which holds orders if all the assembly lines are broken.
@@ -46,14 +68,55 @@ public class AssemblyLineScheduler {
 	private StatisticsGeneral stats;
 	
 	/**
-	 * Initializes the current time, the assembly lines, the overflow queue and the statistics.
+	 * The pool on which the estimates of the eligible assembly lines are calculated in parallel and, in actor mode, the
+	 * messages of the assembly lines are run. The pool is shared by all schedulers, so making a scheduler, or reading
+	 * one back from a snapshot, does not start threads that are never stopped. Its threads are daemon threads.
+	 */
+	private static final ForkJoinPool estimator = new ForkJoinPool();
+	
+	/**
+	 * Maps each assembly line to the line executor which runs all work on it.
+	 */
+	private transient Map<AssemblyLine, LineExecutor> executors;
+	
+	/**
+	 * Whether each assembly line runs its messages as an actor.
+	 */
+	private boolean actors;
+	
+	/**
+	 * The pending cycle-end events of the assembly lines, used to find the next assembly line to move.
+	 */
+	private CycleEndQueue cycleEnds;
+	
+	/**
+	 * The lock guarding the current time, the overflow queue, the cycle-end events and the statistics.
+	 */
+	private final ReentrantLock coordination = new ReentrantLock();
+	
+	/**
+	 * Initializes the current time, the assembly lines, the cycle-end events, the overflow queue and the statistics.
+	 * Each message to an assembly line runs in the thread that sends it while holding the lock of the assembly line.
 	 */
 	public AssemblyLineScheduler(){
+		this(false);
+	}
+	
+	/**
+	 * Initializes the current time, the assembly lines, the cycle-end events, the overflow queue and the statistics.
+	 * @param actors	True if each assembly line has to run as an actor, with the messages to it
+	 * 					run from a mailbox on the estimator pool.
+	 * 					False if each message has to run in the thread that sends it while holding the lock of the assembly line.
+	 */
+	public AssemblyLineScheduler(boolean actors){
+		this.actors = actors;
 		currentTime = new DateTime(2014, 1, 1, 6, 0);
 		assemblyLines = new ArrayList<>();
+		executors = new HashMap<>();
+		cycleEnds = new CycleEndQueue();
 		overflowQueue = new LinkedList<>();
-		initializeAssemblylines();
 		stats = new StatisticsGeneral("Generality");
+		initializeAssemblylines();
 	}
 	
 	/**
@@ -70,30 +133,160 @@ public class AssemblyLineScheduler {
 	 * If no assembly lines are available for queuing then the order is placed on the overflow queue.
 	 * @param	order	The order that needs to be scheduled.
 	 */
-	public void addOrder(Order order){
-		//choose the best estimate
-		AssemblyLine best = null;
-		
-		for(AssemblyLine is : getNonBrokenLines()){
-			if(best == null && is.accepts(order)){
-				best = is;
+	public void addOrder(final Order order){
+		coordination.lock();
+		try{
+			final AssemblyLine best = getBestLine(order);
+			order.setStartTime(getCurrentTime());
+			if(best == null){
+				overflowQueue.add(order);
 			}else{
-				if(is.accepts(order) && is.getEstimate(order, currentTime).isBefore(best.getEstimate(order, currentTime))){
-					best = is;
+				executorOf(best).call(new Callable<Void>(){
+					@Override
+					public Void call(){
+						best.addOrder(order);
+						cycleEnds.update(best);
+						return null;
+					}
+				});
+			}
+		}finally{
+			coordination.unlock();
+		}
+	}
+	
+	/**
+	 * Accepts a batch of orders and distributes each of them to the best assembly line, in the order of the given collection.
+	 * Every order is placed as addOrder would place it, but each assembly line that received orders is only
+	 * rescheduled once, after the whole batch has been distributed.
+	 * If no assembly lines are available for queuing an order then it is placed on the overflow queue.
+	 * @param orders	The orders that need to be scheduled.
+	 */
+	public void addOrders(Collection<? extends Order> orders){
+		coordination.lock();
+		try{
+			Set<AssemblyLine> affected = new LinkedHashSet<>();
+			for(final Order order : orders){
+				if(order == null)
+					continue;
+				final AssemblyLine best = getBestLine(order);
+				order.setStartTime(getCurrentTime());
+				if(best == null){
+					overflowQueue.add(order);
+				}else{
+					executorOf(best).call(new Callable<Boolean>(){
+						@Override
+						public Boolean call(){
+							return best.queueOrder(order);
+						}
+					});
+					affected.add(best);
 				}
 			}
+			for(final AssemblyLine al : affected){
+				executorOf(al).call(new Callable<Void>(){
+					@Override
+					public Void call(){
+						al.reschedule();
+						cycleEnds.update(al);
+						return null;
+					}
+				});
+			}
+		}finally{
+			coordination.unlock();
 		}
-		order.setStartTime(getCurrentTime());
-		if(best == null){
-			overflowQueue.add(order);
-		}else{
-			best.addOrder(order);
+	}
+	
+	/**
+	 * Returns the eligible assembly line with the earliest estimated completion time for the given order.
+	 * The estimate of every eligible assembly line is calculated exactly once. If there is more than one
+	 * eligible assembly line, the estimates are calculated in parallel.
+	 * If several assembly lines share the earliest estimate, the first of them in the order of 
+	 * getNonBrokenLines() is chosen.
+	 * @param order	The order that needs to be scheduled.
+	 * @return	The best assembly line for the given order.
+	 * 			Null if no assembly line accepts the given order.
+	 */
+	private AssemblyLine getBestLine(Order order){
+		List<AssemblyLine> eligible = new ArrayList<>();
+		for(AssemblyLine al : getNonBrokenLines()){
+			if(al.accepts(order)){
+				eligible.add(al);
+			}
+		}
+		if(eligible.isEmpty()){
+			return null;
+		}
+		if(eligible.size() == 1){
+			return eligible.get(0);
+		}
+		List<DateTime> estimates = getEstimates(eligible, order);
+		AssemblyLine best = null;
+		DateTime bestEstimate = null;
+		for(int i = 0; i < eligible.size(); i++){
+			if(best == null || estimates.get(i).isBefore(bestEstimate)){
+				best = eligible.get(i);
+				bestEstimate = estimates.get(i);
+			}
 		}
+		return best;
+	}
+	
+	/**
+	 * Calculates the estimated completion time of the given order on each of the given assembly lines in parallel.
+	 * Calculating an estimate does not change the assembly line, so the assembly lines can be estimated concurrently.
+	 * Each estimate is a message to the line executor of its assembly line.
+	 * @param lines	The assembly lines for which an estimate is needed.
+	 * @param order	The order for which the estimates are needed.
+	 * @return	A list with the estimate of each assembly line, in the same order as the given list of assembly lines.
+	 */
+	private List<DateTime> getEstimates(List<AssemblyLine> lines, final Order order){
+		final DateTime time = currentTime;
+		List<Future<DateTime>> futures = new ArrayList<>();
+		for(final AssemblyLine al : lines){
+			futures.add(executorOf(al).submit(new Callable<DateTime>(){
+				@Override
+				public DateTime call(){
+					return al.getEstimate(order, time);
+				}
+			}));
+		}
+		List<DateTime> estimates = new ArrayList<>();
+		for(Future<DateTime> estimate : futures){
+			estimates.add(LineExecutor.await(estimate));
+		}
+		return estimates;
+	}
+	
+	/**
+	 * Brings the cycle-end event of the given assembly line up to date in a message to the assembly line.
+	 * The caller has to hold the coordination lock.
+	 * @param al	The assembly line that has changed.
+	 */
+	private void update(final AssemblyLine al){
+		executorOf(al).call(new Callable<Void>(){
+			@Override
+			public Void call(){
+				cycleEnds.update(al);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Returns the line executor which runs all work on the given assembly line.
+	 * @param al	The assembly line of which the line executor is needed.
+	 * @return	The line executor of the given assembly line.
+	 */
+	private LineExecutor executorOf(AssemblyLine al){
+		return executors.get(al);
 	}
 	
 	/**
 	 * Repeatedly looks at the state of all the assembly lines and determines which assembly lines can be moved forwards.
 	 * When moving, the current time is synchronized with the last known time information from the assembly lines. 
+	 * The caller has to hold the coordination lock.
 	 */
 	private void advance(){
 		while(advanceOnce());
@@ -101,62 +294,85 @@ public class AssemblyLineScheduler {
 	
 	/**
 	 * Looks at the state of all the assembly lines and determines which assembly lines can be moved forward.
-	 * Will move exactly one or no assembly lines.
+	 * Will move exactly one or no assembly lines. The assembly line that is moved is the one with the earliest
+	 * pending cycle-end event.
 	 * @return	True if a line was moved
 	 * 			False if no lines were moved
 	 */
 	private boolean advanceOnce(){
-		List<AssemblyLine> emptyLines = new ArrayList<AssemblyLine>();		
-		if(linesReadyToMove()){
-			AssemblyLine bestLine = null;
-			for(AssemblyLine al :  getNonBrokenLines()){
-				if(al.empty() && al.getOperationalStatus() != OperationalStatus.MAINTENANCE){
-					emptyLines.add(al);
-				}
-				else{
-					if(bestLine == null && al.ready()){
-						bestLine = al;
-					}
-					if(al.ready() && al.getCycleEnd().isBefore(bestLine.getCycleEnd())){
-						bestLine = al;
+		if(!linesReadyToMove())
+			return false;
+		final AssemblyLine bestLine = cycleEnds.peek();
+		if(bestLine == null){
+			return false;
+		}
+		List<AssemblyLine> emptyLines = cycleEnds.getIdleLines();
+		this.currentTime = executorOf(bestLine).call(new Callable<DateTime>(){
+			@Override
+			public DateTime call(){
+				DateTime cycleEnd = bestLine.getCycleEnd();
+				bestLine.moveAssemblyLine(cycleEnd);
+				cycleEnds.update(bestLine);
+				return cycleEnd;
+			}
+		});
+		checkDayEnds();
+		final DateTime time = currentTime;
+		for(final AssemblyLine al : emptyLines){
+			executorOf(al).call(new Callable<Void>(){
+				@Override
+				public Void call(){
+					if(al.getcycleStartTime().getDayOfYear()==time.getDayOfYear()){
+						al.setCycleStartTime(time);
+						cycleEnds.update(al);
 					}
+					return null;
 				}
-			}
-			if(bestLine == null){
-				return false;
-			}
-			this.currentTime = bestLine.getCycleEnd();
-			bestLine.moveAssemblyLine(this.currentTime);
-			checkDayEnds();
-			for(AssemblyLine al : emptyLines){
-				if(al.getcycleStartTime().getDayOfYear()==currentTime.getDayOfYear())
-					al.setCycleStartTime(currentTime);
-			}
-			return true;
-		}return false;
+			});
+		}
+		return true;
 	}
 	
 	/**
 	 * Checks whether all assembly lines are ready to start a new day. If so the current time is progressed and the assembly lines are informed. 
 	 */
 	private void checkDayEnds() {
-		for(AssemblyLine al : this.assemblyLines){
-			if(!al.readyForNextDay()){
+		for(final AssemblyLine al : this.assemblyLines){
+			boolean ready = executorOf(al).call(new Callable<Boolean>(){
+				@Override
+				public Boolean call(){
+					return al.readyForNextDay();
+				}
+			});
+			if(!ready){
 				return;
 			}
 		}
 		
 		//Inform assembly lines
-		for (AssemblyLine al : this.assemblyLines){
-			al.setNewDay();
+		for (final AssemblyLine al : this.assemblyLines){
+			executorOf(al).call(new Callable<Void>(){
+				@Override
+				public Void call(){
+					al.setNewDay();
+					return null;
+				}
+			});
 		}
 		
-		this.currentTime = assemblyLines.get(0).getcycleStartTime();
+		final AssemblyLine first = assemblyLines.get(0);
+		this.currentTime = executorOf(first).call(new Callable<DateTime>(){
+			@Override
+			public DateTime call(){
+				return first.getcycleStartTime();
+			}
+		});
 	}
 	
 	/**
 	 * Will attempt to redistribute orders from the overflow queue to the assembly lines. 
 	 * If this fails the orders will remain in the overflow queue.
+	 * The caller has to hold the coordination lock.
 	 */
 	private void scheduleOverflowQueue(){
 		LinkedList<Order> toAdd = new LinkedList<>(this.overflowQueue);
@@ -169,6 +385,7 @@ public class AssemblyLineScheduler {
 
 	/**
 	 * Returns all non-broken assembly lines.
+	 * The caller has to hold the coordination lock, under which the status of an assembly line changes.
 	 * @return All the non-broken assembly lines.
 	 */
 	private List<AssemblyLine> getNonBrokenLines(){
@@ -184,15 +401,28 @@ public class AssemblyLineScheduler {
 	/**
 	 * Do the task corresponding to the given task on the given assembly line.
 	 * Try to advance the assembly lines.
+	 * The task is done in a message to the given assembly line without holding the coordination lock, so tasks on
+	 * different assembly lines are done in parallel. Only advancing the assembly lines takes the coordination lock.
 	 * @param Task				The task that needs to be completed wrapped in the printable interface.
 	 * @param assemblyLine		The assembly line that the task is on wrapped in the printable interface.
 	 * @return	True if the task has been performed succesfully.
 	 * 			False otherwise.
 	 */
-	public boolean doTask(Printable<Task> Task, Printable<AssemblyLine> assemblyLine, int minutes){
-		AssemblyLine line = this.getLineFromPrintable(assemblyLine);
-		boolean completed = line.doTask(Task, minutes);
-		this.advance();
+	public boolean doTask(final Printable<Task> Task, Printable<AssemblyLine> assemblyLine, final int minutes){
+		final AssemblyLine line = this.getLineFromPrintable(assemblyLine);
+		boolean completed = executorOf(line).call(new Callable<Boolean>(){
+			@Override
+			public Boolean call(){
+				return line.doTask(Task, minutes);
+			}
+		});
+		coordination.lock();
+		try{
+			update(line);
+			this.advance();
+		}finally{
+			coordination.unlock();
+		}
 		return completed;
 	}
 	
@@ -204,20 +434,7 @@ public class AssemblyLineScheduler {
 	 * 			False otherwise.
 	 */
 	private boolean linesReadyToMove(){		
-		int brokenLines = 0;
-		for(AssemblyLine al : assemblyLines){
-			if(al.getOperationalStatus() != OperationalStatus.BROKEN){
-				if(!al.tryMoveAssemblyLine()){
-					return false;
-				}
-			}else{
-				brokenLines ++;
-			}
-		}
-		if(brokenLines >= assemblyLines.size()){
-			return false;
-		}
-		return true;
+		return cycleEnds.allReadyToMove();
 	}
 	
 	/**
@@ -241,6 +458,32 @@ public class AssemblyLineScheduler {
 	 */
 	private void addLine(AssemblyLine line){
 		assemblyLines.add(line);
+		executors.put(line, newExecutor());
+		cycleEnds.addLine(line);
+		stats.addLine(line.getStatistics());
+	}
+	
+	/**
+	 * Returns a new line executor for an assembly line of this scheduler, running on the estimator pool.
+	 * @return	A new line actor in actor mode.
+	 * 			A new locked line executor otherwise.
+	 */
+	private LineExecutor newExecutor(){
+		return actors ? new LineActor(estimator) : new LockedLineExecutor(estimator);
+	}
+	
+	/**
+	 * Reads this scheduler back from a snapshot and makes new line executors for it.
+	 * @param in	The stream from which the scheduler is read.
+	 * @throws IOException	If the scheduler can not be read.
+	 * @throws ClassNotFoundException	If a class of the snapshot is unknown.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		executors = new HashMap<>();
+		for(AssemblyLine al : assemblyLines){
+			executors.put(al, newExecutor());
+		}
 	}
 
 	/**
@@ -294,7 +537,13 @@ public class AssemblyLineScheduler {
 	 * @return		A list of workstations wrapped in the printable interface
 	 */
 	public List<Printable<Workstation>> getWorkStationsFromAssemblyLine(Printable<AssemblyLine> assemblyLine) {
-		return this.getLineFromPrintable(assemblyLine).getWorkStations();
+		final AssemblyLine al = this.getLineFromPrintable(assemblyLine);
+		return executorOf(al).call(new Callable<List<Printable<Workstation>>>(){
+			@Override
+			public List<Printable<Workstation>> call(){
+				return al.getWorkStations();
+			}
+		});
 	}
 	
 	/**
@@ -303,9 +552,21 @@ public class AssemblyLineScheduler {
 	 * @param line	The line which status needs to go to broken.
 	 */
 	public void breakAssemblyLine(Printable<AssemblyLine> line){
-		AssemblyLine al = getLineFromPrintable(line);
-		this.overflowQueue.addAll(al.changeStatus(OperationalStatus.BROKEN));
-		this.scheduleOverflowQueue();
+		final AssemblyLine al = getLineFromPrintable(line);
+		coordination.lock();
+		try{
+			this.overflowQueue.addAll(executorOf(al).call(new Callable<List<Order>>(){
+				@Override
+				public List<Order> call(){
+					List<Order> queue = al.changeStatus(OperationalStatus.BROKEN);
+					cycleEnds.update(al);
+					return queue;
+				}
+			}));
+			this.scheduleOverflowQueue();
+		}finally{
+			coordination.unlock();
+		}
 	}
 	
 	/**
@@ -314,10 +575,23 @@ public class AssemblyLineScheduler {
 	 * @param line	The line that needs to be fixed.
 	 */
 	public void fixAssemAssemblyLine(Printable<AssemblyLine> line){
-		AssemblyLine al = getLineFromPrintable(line);
-		if(al.getOperationalStatus() == OperationalStatus.BROKEN){
-			al.fix(currentTime);
-			this.scheduleOverflowQueue();
+		final AssemblyLine al = getLineFromPrintable(line);
+		coordination.lock();
+		try{
+			if(al.getOperationalStatus() == OperationalStatus.BROKEN){
+				final DateTime time = currentTime;
+				executorOf(al).call(new Callable<Void>(){
+					@Override
+					public Void call(){
+						al.fix(time);
+						cycleEnds.update(al);
+						return null;
+					}
+				});
+				this.scheduleOverflowQueue();
+			}
+		}finally{
+			coordination.unlock();
 		}
 	}
 	
@@ -328,9 +602,21 @@ public class AssemblyLineScheduler {
 	 * @param line	The line for which maintenance needs to start.
 	 */
 	public void startMaintenace(Printable<AssemblyLine> line){
-		AssemblyLine al = this.getLineFromPrintable(line);
-		this.overflowQueue.addAll(al.changeStatus(OperationalStatus.PREMAINTENANCE));
-		this.scheduleOverflowQueue();
+		final AssemblyLine al = this.getLineFromPrintable(line);
+		coordination.lock();
+		try{
+			this.overflowQueue.addAll(executorOf(al).call(new Callable<List<Order>>(){
+				@Override
+				public List<Order> call(){
+					List<Order> queue = al.changeStatus(OperationalStatus.PREMAINTENANCE);
+					cycleEnds.update(al);
+					return queue;
+				}
+			}));
+			this.scheduleOverflowQueue();
+		}finally{
+			coordination.unlock();
+		}
 	}
 
 	/**
@@ -339,8 +625,13 @@ public class AssemblyLineScheduler {
 	 */
 	public List<Printable<Workstation>> getAllWorkstations() {
 		List<Printable<Workstation>> retval = new LinkedList<>();
-		for(AssemblyLine al : this.assemblyLines){
-			retval.addAll(al.getWorkStations());
+		for(final AssemblyLine al : this.assemblyLines){
+			retval.addAll(executorOf(al).call(new Callable<List<Printable<Workstation>>>(){
+				@Override
+				public List<Printable<Workstation>> call(){
+					return al.getWorkStations();
+				}
+			}));
 		}
 		return retval;
 	}
@@ -364,9 +655,14 @@ public class AssemblyLineScheduler {
 	 * @return 	True if the duration is allowed.
 	 * 			False otherwise
 	 */
-	public boolean checkPhaseDuration(int duration, Printable<AssemblyLine> assemblyLine) {
-		AssemblyLine al = this.getLineFromPrintable(assemblyLine);
-		return al.checkPhaseDuration(duration);
+	public boolean checkPhaseDuration(final int duration, Printable<AssemblyLine> assemblyLine) {
+		final AssemblyLine al = this.getLineFromPrintable(assemblyLine);
+		return executorOf(al).call(new Callable<Boolean>(){
+			@Override
+			public Boolean call(){
+				return al.checkPhaseDuration(duration);
+			}
+		});
 	}
 
 	/**
@@ -375,8 +671,13 @@ public class AssemblyLineScheduler {
 	 */
 	public Map<Printable<AssemblyLine>, Printable<OperationalStatus>> getAssemblyLinesStatuses() {
 		Map<Printable<AssemblyLine>, Printable<OperationalStatus>> retval = new HashMap<>();
-		for(AssemblyLine al : this.assemblyLines){
-			retval.put(al, al.getOperationalStatus());
+		for(final AssemblyLine al : this.assemblyLines){
+			retval.put(al, executorOf(al).call(new Callable<OperationalStatus>(){
+				@Override
+				public OperationalStatus call(){
+					return al.getOperationalStatus();
+				}
+			}));
 		}
 		return retval;
 	}
@@ -387,8 +688,14 @@ public class AssemblyLineScheduler {
 	 * @param assemblyLine		The assembly line of the workstation. 
 	 * @return	A list of tasks at the given workstation.
 	 */
-	public List<Printable<Task>> getAllTasksAt(Printable<Workstation> station, Printable<AssemblyLine> assemblyLine) {
-		return this.getLineFromPrintable(assemblyLine).getAllTasks(station);
+	public List<Printable<Task>> getAllTasksAt(final Printable<Workstation> station, Printable<AssemblyLine> assemblyLine) {
+		final AssemblyLine al = this.getLineFromPrintable(assemblyLine);
+		return executorOf(al).call(new Callable<List<Printable<Task>>>(){
+			@Override
+			public List<Printable<Task>> call(){
+				return al.getAllTasks(station);
+			}
+		});
 	}
 
 	/**
@@ -397,8 +704,14 @@ public class AssemblyLineScheduler {
 	 * @param assemblyLine		The assembly line of the workstation. 
 	 * @return	A list of tasks at the given workstation.
 	 */
-	public List<Printable<Task>> getRequiredTasks(Printable<Workstation> station, Printable<AssemblyLine> assemblyLine) {
-		return this.getLineFromPrintable(assemblyLine).getRequiredTasks(station);
+	public List<Printable<Task>> getRequiredTasks(final Printable<Workstation> station, Printable<AssemblyLine> assemblyLine) {
+		final AssemblyLine al = this.getLineFromPrintable(assemblyLine);
+		return executorOf(al).call(new Callable<List<Printable<Task>>>(){
+			@Override
+			public List<Printable<Task>> call(){
+				return al.getRequiredTasks(station);
+			}
+		});
 	}
 
 	/**
@@ -408,15 +721,17 @@ public class AssemblyLineScheduler {
 	 * assembly line scheduler.
 	 */
 	public String getStatistics() {
-		String returnValue = "";
-		ArrayList<StatisticsAssemblyLine> statsList = new ArrayList<StatisticsAssemblyLine>();
-		for(AssemblyLine line : assemblyLines){
-			returnValue += line.getStatistics() +"\n";
-			statsList.add(line.getStatistics());
+		coordination.lock();
+		try{
+			String returnValue = "";
+			for(AssemblyLine line : assemblyLines){
+				returnValue += line.getStatistics() +"\n";
+			}
+			returnValue += stats.toString();
+			return returnValue;
+		}finally{
+			coordination.unlock();
 		}
-		stats.updateRecords(statsList);
-		returnValue += stats.toString();
-		return returnValue;
 	}
 
 	/**
@@ -425,10 +740,15 @@ public class AssemblyLineScheduler {
 	 * @return the strategies list from the given assembly line.
 	 */
 	public List<Printable<SchedulingStrategy>> getStrategies(Printable<AssemblyLine> activeAssemblyLine) {
-		AssemblyLine active = getLineFromPrintable(activeAssemblyLine);
+		final AssemblyLine active = getLineFromPrintable(activeAssemblyLine);
 		if(active == null)
 			return new ArrayList<Printable<SchedulingStrategy>>();
-		return active.getStrategies();
+		return executorOf(active).call(new Callable<List<Printable<SchedulingStrategy>>>(){
+			@Override
+			public List<Printable<SchedulingStrategy>> call(){
+				return active.getStrategies();
+			}
+		});
 	}
 	
 	
@@ -438,8 +758,13 @@ public class AssemblyLineScheduler {
 	 */
 	public Map<Printable<AssemblyLine>, List<Printable<SchedulingStrategy>>> getAssemblyLinesStrategies() {
 		Map<Printable<AssemblyLine>, List<Printable<SchedulingStrategy>>> retval = new HashMap<>();
-		for(AssemblyLine al : this.assemblyLines){
-			retval.put(al, al.getStrategies());
+		for(final AssemblyLine al : this.assemblyLines){
+			retval.put(al, executorOf(al).call(new Callable<List<Printable<SchedulingStrategy>>>(){
+				@Override
+				public List<Printable<SchedulingStrategy>> call(){
+					return al.getStrategies();
+				}
+			}));
 		}
 		return retval;
 	}
@@ -450,7 +775,13 @@ public class AssemblyLineScheduler {
 	 * @return the batch list for the given assembly line.
 	 */
 	public List<Order> getBatchList(Printable<AssemblyLine> assemblyline){
-		return this.getLineFromPrintable(assemblyline).getBachList();
+		final AssemblyLine al = this.getLineFromPrintable(assemblyline);
+		return executorOf(al).call(new Callable<List<Order>>(){
+			@Override
+			public List<Order> call(){
+				return al.getBachList();
+			}
+		});
 	}
 	
 	/**
@@ -459,10 +790,13 @@ public class AssemblyLineScheduler {
 	 */
 	public List<Order> getBatchList(){
 		ArrayList<Order> returnValue = new ArrayList<Order>();
-		for(AssemblyLine al : assemblyLines){
-			for(Order order : al.getBachList()){
-				returnValue.add(order);
-			}
+		for(final AssemblyLine al : assemblyLines){
+			returnValue.addAll(executorOf(al).call(new Callable<List<Order>>(){
+				@Override
+				public List<Order> call(){
+					return al.getBachList();
+				}
+			}));
 		}
 		return returnValue;
 	}
@@ -472,17 +806,42 @@ public class AssemblyLineScheduler {
 	 * @param order	The order that has to be used as a template for the strategy.
 	 * @param assemblyLine	The assembly line of which the strategy needs to be changed.
 	 */
-	public void changeStrategy(Order order, Printable<AssemblyLine> assemblyline){
-		this.getLineFromPrintable(assemblyline).changeStrategy(order);
+	public void changeStrategy(final Order order, Printable<AssemblyLine> assemblyline){
+		final AssemblyLine al = this.getLineFromPrintable(assemblyline);
+		coordination.lock();
+		try{
+			executorOf(al).call(new Callable<Void>(){
+				@Override
+				public Void call(){
+					al.changeStrategy(order);
+					cycleEnds.update(al);
+					return null;
+				}
+			});
+		}finally{
+			coordination.unlock();
+		}
 	}
 	
 	/**
 	 * Changes the strategy of all assembly lines according to the given order.
 	 * @param order	The order that has to be used as a template for the strategy.
 	 */
-	public void changeStrategyAllLines(Order order) {
-		for(AssemblyLine al : assemblyLines){
-			al.changeStrategy(order);
+	public void changeStrategyAllLines(final Order order) {
+		coordination.lock();
+		try{
+			for(final AssemblyLine al : assemblyLines){
+				executorOf(al).call(new Callable<Void>(){
+					@Override
+					public Void call(){
+						al.changeStrategy(order);
+						cycleEnds.update(al);
+						return null;
+					}
+				});
+			}
+		}finally{
+			coordination.unlock();
 		}
 	}
 
@@ -496,36 +855,56 @@ public class AssemblyLineScheduler {
 	public boolean changeAssemblyLineStatus(Printable<AssemblyLine> activeAssemblyLine,
 			OperationalStatus newStatus) {
 		boolean retval = false;
-		AssemblyLine al = this.getLineFromPrintable(activeAssemblyLine);
-		if(al.getOperationalStatus() == OperationalStatus.OPERATIONAL){
-			if(newStatus == OperationalStatus.BROKEN){
-				this.breakAssemblyLine(activeAssemblyLine);
-				retval = true;
-			}else if(newStatus == OperationalStatus.PREMAINTENANCE || newStatus == OperationalStatus.MAINTENANCE){
-				this.startMaintenace(activeAssemblyLine);
-				retval = true;
-			}
-		}else if(al.getOperationalStatus() == OperationalStatus.BROKEN){
-			if(newStatus == OperationalStatus.OPERATIONAL){
-				this.fixAssemAssemblyLine(activeAssemblyLine);
-				retval = true;
-			}else if(newStatus == OperationalStatus.MAINTENANCE){
-				this.fixAssemAssemblyLine(activeAssemblyLine);
-				this.startMaintenace(activeAssemblyLine);
-				retval = true;
-			}
-		}else if(al.getOperationalStatus() == OperationalStatus.PREMAINTENANCE){
-			if(newStatus == OperationalStatus.OPERATIONAL){
-				al.changeStatus(OperationalStatus.OPERATIONAL);
-			}
-		}else if(al.getOperationalStatus() == OperationalStatus.MAINTENANCE){
-			if(newStatus == OperationalStatus.OPERATIONAL){
-				al.abortMaintenance(this.getCurrentTime());
-				this.scheduleOverflowQueue();
-				retval = true;
+		final AssemblyLine al = this.getLineFromPrintable(activeAssemblyLine);
+		coordination.lock();
+		try{
+			if(al.getOperationalStatus() == OperationalStatus.OPERATIONAL){
+				if(newStatus == OperationalStatus.BROKEN){
+					this.breakAssemblyLine(activeAssemblyLine);
+					retval = true;
+				}else if(newStatus == OperationalStatus.PREMAINTENANCE || newStatus == OperationalStatus.MAINTENANCE){
+					this.startMaintenace(activeAssemblyLine);
+					retval = true;
+				}
+			}else if(al.getOperationalStatus() == OperationalStatus.BROKEN){
+				if(newStatus == OperationalStatus.OPERATIONAL){
+					this.fixAssemAssemblyLine(activeAssemblyLine);
+					retval = true;
+				}else if(newStatus == OperationalStatus.MAINTENANCE){
+					this.fixAssemAssemblyLine(activeAssemblyLine);
+					this.startMaintenace(activeAssemblyLine);
+					retval = true;
+				}
+			}else if(al.getOperationalStatus() == OperationalStatus.PREMAINTENANCE){
+				if(newStatus == OperationalStatus.OPERATIONAL){
+					executorOf(al).call(new Callable<Void>(){
+						@Override
+						public Void call(){
+							al.cancelPreMaintenance();
+							cycleEnds.update(al);
+							return null;
+						}
+					});
+				}
+			}else if(al.getOperationalStatus() == OperationalStatus.MAINTENANCE){
+				if(newStatus == OperationalStatus.OPERATIONAL){
+					final DateTime time = currentTime;
+					executorOf(al).call(new Callable<Void>(){
+						@Override
+						public Void call(){
+							al.abortMaintenance(time);
+							cycleEnds.update(al);
+							return null;
+						}
+					});
+					this.scheduleOverflowQueue();
+					retval = true;
+				}
 			}
+			this.advance();
+		}finally{
+			coordination.unlock();
 		}
-		this.advance();
 		return retval;
 
 	}
@@ -1,7 +1,5 @@
 package logic.assemblyline;
 
-import java.util.LinkedList;
-
 import logic.order.Order;
 
 /**
@@ -9,6 +7,11 @@ import logic.order.Order;
  */
 public class BatchSpecificationStrategy extends SchedulingStrategy{
 
+	/**
+	 * The version of the serialized form of a batch specification strategy.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * A protected empty constructor.
 	 */
@@ -21,31 +24,36 @@ public class BatchSpecificationStrategy extends SchedulingStrategy{
 	 * the example order, otherwise added using the FIFO strategy.
 	 * @param order	The order that needs to be added.
 	 * @param queue	The queue where the order needs to be added.
+	 * @return	The index at which the given order was inserted in the given queue.
 	 */
 	@Override
-	protected void addOrder(Order order, LinkedList<Order> queue) {
+	protected int addOrder(Order order, PendingQueue queue) {
+		int index = getInsertionIndex(order, queue);
+		queue.add(index, order);
+		return index;
+	}
+	
+	/**
+	 * Returns the index at the end of the orders at the front of the given queue that are the same as
+	 * the example order if the given order is the same as the example order, otherwise the index the
+	 * FIFO strategy would use among the other orders.
+	 * The orders that are the same as the example order are always at the front of the queue.
+	 * @param order	The order that would be added.
+	 * @param queue	The queue where the order would be added.
+	 * @return	The index at which the given order would be inserted in the given queue.
+	 */
+	@Override
+	protected int getInsertionIndex(Order order, PendingQueue queue) {
+		int batchSize = example == null ? 0 : queue.count(example.getSpecification());
+		if(!isExample(order) || queue.isEmpty())
+			return queue.getDeadlineIndex(order, batchSize);
+		if(order.getDeadLine() == null)
+			return batchSize;
 		int index = 0;
-		if(!order.equals(example) || queue.isEmpty()){
-			for(Order next : queue){
-				if(!next.equals(example)){
-					if(checkDeadline(order, next))
-						break;
-				}
-				index++;
-			}
+		while(index < batchSize && !checkDeadline(order, queue.get(index))){
+			index++;
 		}
-		else{
-			for(Order next : queue){
-				if(!next.equals(example)){
-					break;
-				}else{
-					if(checkDeadline(order, next))
-						break;
-				}
-				index++;
-			}
-		}
-		queue.add(index, order);
+		return index;
 	}
 
 	
@@ -53,22 +61,14 @@ public class BatchSpecificationStrategy extends SchedulingStrategy{
 	 * Refactors a given queue using batch processing and the example order variable. 
 	 * Places all orders that are equal to the example order at the front of the queue.
 	 * @param queue	The queue that needs to be refactored.
-	 * @param copy	The copy of the queue that needs to be refactored, used to build the given queue.
+	 * @return	The first index at which the order in the given queue has changed,
+	 * 			the size of the queue if no order has changed.
 	 */
 	@Override
-	protected void refactorQueue(LinkedList<Order> queue, LinkedList<Order> copy) {
-		if(copy.isEmpty())
-			return;
-		LinkedList<Order> otherQueue = new LinkedList<Order>();
-		for(Order next : copy){
-			if(next.equals(example))
-				queue.add(next);
-			else
-				otherQueue.add(next);
-		}		
-		for(Order next : otherQueue){
-			queue.add(next);
-		}
+	protected int refactorQueue(PendingQueue queue) {
+		if(example == null)
+			return queue.size();
+		return queue.moveToFront(example.getSpecification());
 	}
 	
 	/**
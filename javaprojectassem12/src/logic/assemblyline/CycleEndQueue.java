@@ -0,0 +1,188 @@
+package logic.assemblyline;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.joda.time.DateTime;
+
+/**
+ * A class which keeps the pending cycle-end events of the assembly lines of an assembly line scheduler,
+ * ordered on the time at which they occur.
+ * An assembly line has a pending cycle-end event if it is not broken and it either has orders on its
+ * workstations or is in maintenance. A non-broken assembly line without a pending event is idle.
+ * The queue also keeps the non-broken assembly lines that can not move yet, so it is known without looking at
+ * every assembly line whether they are all ready to move.
+ * The assembly line scheduler has to call update each time it changes an assembly line.
+ */
+class CycleEndQueue implements Serializable {
+
+	/**
+	 * The version of the serialized form of a cycle end queue.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The pending cycle-end events, ordered on time.
+	 */
+	private TreeSet<CycleEnd> events;
+
+	/**
+	 * Maps each assembly line with a pending cycle-end event to that event.
+	 */
+	private Map<AssemblyLine, CycleEnd> scheduled;
+
+	/**
+	 * The non-broken assembly lines that have no pending cycle-end event.
+	 */
+	private Set<AssemblyLine> idle;
+
+	/**
+	 * The assembly lines that are not broken.
+	 */
+	private Set<AssemblyLine> operational;
+
+	/**
+	 * The non-broken assembly lines of which the workstations still have pending tasks.
+	 */
+	private Set<AssemblyLine> working;
+
+	/**
+	 * Maps each assembly line to its priority, used when several cycles end at the same time.
+	 */
+	private Map<AssemblyLine, Integer> priorities;
+
+	/**
+	 * Makes a new empty cycle-end queue.
+	 */
+	protected CycleEndQueue(){
+		events = new TreeSet<>();
+		scheduled = new HashMap<>();
+		idle = new LinkedHashSet<>();
+		operational = new HashSet<>();
+		working = new HashSet<>();
+		priorities = new HashMap<>();
+	}
+
+	/**
+	 * Registers the given assembly line. If several cycles end at the same time, the cycle of the
+	 * assembly line that was added last ends first.
+	 * @param line	The assembly line that needs to be added.
+	 */
+	protected void addLine(AssemblyLine line){
+		priorities.put(line, priorities.size());
+		update(line);
+	}
+
+	/**
+	 * Brings the cycle-end event of the given assembly line up to date with its status, its workstations
+	 * and its cycle end.
+	 * @param line	The assembly line that has changed.
+	 */
+	protected void update(AssemblyLine line){
+		CycleEnd old = scheduled.remove(line);
+		if(old != null)
+			events.remove(old);
+		idle.remove(line);
+		operational.remove(line);
+		working.remove(line);
+		if(line.getOperationalStatus() == OperationalStatus.BROKEN)
+			return;
+		operational.add(line);
+		if(!line.tryMoveAssemblyLine())
+			working.add(line);
+		if(line.empty() && line.getOperationalStatus() != OperationalStatus.MAINTENANCE){
+			idle.add(line);
+		}else{
+			CycleEnd event = new CycleEnd(line, line.getCycleEnd(), priorities.get(line));
+			scheduled.put(line, event);
+			events.add(event);
+		}
+	}
+
+	/**
+	 * Returns the assembly line of which the cycle ends first.
+	 * @return	The assembly line with the earliest pending cycle-end event.
+	 * 			Null if there are no pending cycle-end events.
+	 */
+	protected AssemblyLine peek(){
+		if(events.isEmpty())
+			return null;
+		return events.first().line;
+	}
+
+	/**
+	 * Checks whether all non-broken assembly lines are ready to move.
+	 * @return	True if there is a non-broken assembly line and all non-broken assembly lines can move.
+	 * 			False otherwise.
+	 */
+	protected boolean allReadyToMove(){
+		return !operational.isEmpty() && working.isEmpty();
+	}
+
+	/**
+	 * Returns a copy of the list of idle assembly lines.
+	 * @return	A list of the non-broken assembly lines without a pending cycle-end event.
+	 */
+	protected List<AssemblyLine> getIdleLines(){
+		return new ArrayList<>(idle);
+	}
+
+	/**
+	 * A class which describes the moment at which the current cycle of an assembly line ends.
+	 */
+	private static class CycleEnd implements Comparable<CycleEnd>, Serializable {
+
+		/**
+		 * The version of the serialized form of a cycle-end event.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The assembly line of which the cycle ends.
+		 */
+		private final AssemblyLine line;
+
+		/**
+		 * The time at which the cycle ends.
+		 */
+		private final DateTime time;
+
+		/**
+		 * The priority of the assembly line if several cycles end at the same time.
+		 */
+		private final int priority;
+
+		/**
+		 * Makes a new cycle-end event.
+		 * @param line		The assembly line of which the cycle ends.
+		 * @param time		The time at which the cycle ends.
+		 * @param priority	The priority of the given assembly line.
+		 */
+		private CycleEnd(AssemblyLine line, DateTime time, int priority){
+			this.line = line;
+			this.time = time;
+			this.priority = priority;
+		}
+
+		/**
+		 * Compares this event to the given event on time, earlier events first.
+		 * Events at the same time are ordered on descending priority.
+		 * @param other	The event that needs to be compared to this event.
+		 * @return	A negative number if this event comes first, a positive number if the given event comes first.
+		 */
+		@Override
+		public int compareTo(CycleEnd other) {
+			int result = time.compareTo(other.time);
+			if(result != 0)
+				return result;
+			return other.priority - priority;
+		}
+	}
+}
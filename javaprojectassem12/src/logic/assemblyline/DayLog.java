@@ -0,0 +1,147 @@
+package logic.assemblyline;
+
+import java.io.Serializable;
+
+/**
+ * A log of the number of finished orders on the most recent days, in a ring of primitive integers.
+ * Days are numbered from 0, the first day of the log. The log keeps at least a given number of days; older days
+ * are dropped once they are final, so the log does not grow beyond its retention while days keep being finished.
+ */
+class DayLog implements Serializable {
+
+	/**
+	 * The version of the serialized form of a day log.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The initial length of the array, which grows when more days need to be kept.
+	 */
+	private static final int INITIAL_LENGTH = 8;
+
+	/**
+	 * The number of days this log keeps.
+	 */
+	private final int retention;
+
+	/**
+	 * The number of finished orders on each day in this log.
+	 */
+	private int[] counts;
+
+	/**
+	 * The position in the array of the oldest day in this log.
+	 */
+	private int start;
+
+	/**
+	 * The number of days in this log.
+	 */
+	private int size;
+
+	/**
+	 * The number of the oldest day in this log.
+	 */
+	private int firstDay;
+
+	/**
+	 * Makes a new empty day log that keeps the given number of days.
+	 * @param retention	The number of days the log keeps.
+	 * @throws IllegalArgumentException	If the retention is less than one.
+	 */
+	protected DayLog(int retention){
+		if(retention < 1)
+			throw new IllegalArgumentException("A day log has to keep at least one day.");
+		this.retention = retention;
+		counts = new int[Math.min(retention, INITIAL_LENGTH)];
+		start = 0;
+		size = 0;
+		firstDay = 0;
+	}
+
+	/**
+	 * Returns the number of the oldest day in this log.
+	 * @return	The number of the oldest day that is kept.
+	 */
+	protected int getFirstDay(){
+		return firstDay;
+	}
+
+	/**
+	 * Returns the number of the day after the last day in this log.
+	 * @return	The number of days that have been added to this log, including the dropped ones.
+	 */
+	protected int getEndDay(){
+		return firstDay + size;
+	}
+
+	/**
+	 * Returns the number of days in this log.
+	 * @return	The number of days that are kept.
+	 */
+	protected int size(){
+		return size;
+	}
+
+	/**
+	 * Returns the number of finished orders on the given day.
+	 * @param day	The number of the day.
+	 * @return	The number of finished orders on the given day.
+	 * @throws IndexOutOfBoundsException	If the given day is not kept in this log.
+	 */
+	protected int get(int day){
+		return counts[position(day)];
+	}
+
+	/**
+	 * Sets the number of finished orders on the given day.
+	 * @param day		The number of the day.
+	 * @param finished	The number of finished orders on the given day.
+	 * @throws IndexOutOfBoundsException	If the given day is not kept in this log.
+	 */
+	protected void set(int day, int finished){
+		counts[position(day)] = finished;
+	}
+
+	/**
+	 * Adds a day with the given number of finished orders after the last day in this log.
+	 * @param finished	The number of finished orders on the new day.
+	 */
+	protected void add(int finished){
+		if(size == counts.length){
+			int[] longer = new int[2 * counts.length];
+			for(int i = 0; i < size; i++){
+				longer[i] = counts[(start + i) % counts.length];
+			}
+			counts = longer;
+			start = 0;
+		}
+		counts[(start + size) % counts.length] = finished;
+		size++;
+	}
+
+	/**
+	 * Drops the oldest days from this log while it keeps more days than its retention and the oldest day
+	 * is before the given day.
+	 * @param finalDay	The number of the first day that may still change.
+	 */
+	protected void trim(int finalDay){
+		while(size > retention && firstDay < finalDay){
+			start = (start + 1) % counts.length;
+			size--;
+			firstDay++;
+		}
+	}
+
+	/**
+	 * Returns the position in the array of the given day.
+	 * @param day	The number of the day.
+	 * @return	The position of the day in the array.
+	 * @throws IndexOutOfBoundsException	If the given day is not kept in this log.
+	 */
+	private int position(int day){
+		if(day < firstDay || day >= firstDay + size)
+			throw new IndexOutOfBoundsException("Day: " + day + ", Days kept: " + firstDay + " to " + (firstDay + size - 1));
+		return (start + day - firstDay) % counts.length;
+	}
+}
@@ -0,0 +1,228 @@
+package logic.assemblyline;
+
+import java.io.Serializable;
+
+import org.joda.time.DateTime;
+
+/**
+ * A log of the most recent delays of finished orders, ordered on the time at which the orders were finished.
+ * The log keeps at most a given number of delays in a ring of primitive arrays, so recording a delay takes
+ * a few bytes of memory and the log never grows beyond its capacity. When the log is full, the oldest delay
+ * is dropped for each new one.
+ * Delays are almost always recorded in time order and then they are appended in constant time.
+ * A delay that is earlier than the last one is inserted after the delays that are not later than it.
+ * Each delay has the number of its source, so delays of several sources at the same time are ordered on their source.
+ */
+class DelayLog implements Serializable {
+
+	/**
+	 * The version of the serialized form of a delay log.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The initial length of the arrays, which grow up to the capacity of the log.
+	 */
+	private static final int INITIAL_LENGTH = 16;
+
+	/**
+	 * The maximum number of delays in this log.
+	 */
+	private final int capacity;
+
+	/**
+	 * The times, in minutes since the epoch, at which the delays occurred.
+	 */
+	private int[] minutes;
+
+	/**
+	 * The delays in minutes, parallel to the times.
+	 */
+	private int[] delays;
+
+	/**
+	 * The numbers of the sources of the delays, parallel to the times.
+	 */
+	private int[] sources;
+
+	/**
+	 * The position in the arrays of the oldest delay in this log.
+	 */
+	private int start;
+
+	/**
+	 * The number of delays in this log.
+	 */
+	private int size;
+
+	/**
+	 * Makes a new empty delay log that keeps at most the given number of delays.
+	 * @param capacity	The maximum number of delays in the log.
+	 * @throws IllegalArgumentException	If the capacity is less than one.
+	 */
+	protected DelayLog(int capacity){
+		if(capacity < 1)
+			throw new IllegalArgumentException("A delay log has to keep at least one delay.");
+		this.capacity = capacity;
+		int length = Math.min(capacity, INITIAL_LENGTH);
+		minutes = new int[length];
+		delays = new int[length];
+		sources = new int[length];
+		start = 0;
+		size = 0;
+	}
+
+	/**
+	 * Adds the given delay, which occurred at the given minute, to this log. The delay is added after
+	 * all delays that did not occur later, except the delays at the same time of a source with a higher number.
+	 * If the log is full, the oldest delay is dropped, which is the given delay if it is older than all delays
+	 * in the log.
+	 * @param delay		The delay in minutes.
+	 * @param minute	The time the delay took place in minutes since the epoch.
+	 * @param source	The number of the source of the delay.
+	 * @throws IllegalArgumentException	If the given minute does not fit in the log.
+	 */
+	protected void add(int delay, long minute, int source){
+		if(minute < Integer.MIN_VALUE || minute > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The time of the delay does not fit in the log.");
+		if(size == capacity){
+			if(isBefore(minute, source, 0))
+				return;
+			start = (start + 1) % minutes.length;
+			size--;
+		}else if(size == minutes.length){
+			grow();
+		}
+		int index = size;
+		while(index > 0 && isBefore(minute, source, index-1)){
+			set(index, getDelayTime(index-1), getMinute(index-1), getSource(index-1));
+			index--;
+		}
+		size++;
+		set(index, delay, minute, source);
+	}
+
+	/**
+	 * Returns the number of delays in this log.
+	 * @return	The number of delays in this log.
+	 */
+	protected int size(){
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of delays in this log.
+	 * @return	The capacity of this log.
+	 */
+	protected int getCapacity(){
+		return capacity;
+	}
+
+	/**
+	 * Returns the delay at the given index.
+	 * @param index	The index of the delay, the oldest delay at index 0.
+	 * @return	The delay in minutes.
+	 */
+	protected int getDelayTime(int index){
+		return delays[position(index)];
+	}
+
+	/**
+	 * Returns the time at which the delay at the given index occurred.
+	 * @param index	The index of the delay, the oldest delay at index 0.
+	 * @return	The time of the delay in minutes since the epoch.
+	 */
+	protected long getMinute(int index){
+		return minutes[position(index)];
+	}
+
+	/**
+	 * Returns the number of the source of the delay at the given index.
+	 * @param index	The index of the delay, the oldest delay at index 0.
+	 * @return	The number of the source of the delay.
+	 */
+	protected int getSource(int index){
+		return sources[position(index)];
+	}
+
+	/**
+	 * Returns the delay at the given index as a Delay.
+	 * @param index	The index of the delay, the oldest delay at index 0.
+	 * @return	The delay at the given index.
+	 */
+	protected Delay getDelay(int index){
+		return new Delay(getDelayTime(index), getDateOfDelay(index));
+	}
+
+	/**
+	 * Returns the time of the delay at the given index as a date.
+	 * @param index	The index of the delay, the oldest delay at index 0.
+	 * @return	The date the delay took place.
+	 */
+	protected DateTime getDateOfDelay(int index){
+		return Timeline.toDateTime(getMinute(index));
+	}
+
+	/**
+	 * Checks whether a delay at the given minute of the given source comes before the delay at the given index.
+	 * @param minute	The time of the delay in minutes since the epoch.
+	 * @param source	The number of the source of the delay.
+	 * @param index		The index of the delay it is compared to.
+	 * @return	True if the given delay comes before the delay at the given index.
+	 * 			False otherwise.
+	 */
+	private boolean isBefore(long minute, int source, int index){
+		return getMinute(index) > minute || getMinute(index) == minute && getSource(index) > source;
+	}
+
+	/**
+	 * Stores the given delay, minute and source at the given index, which may be the first free index.
+	 * @param index		The index of the record.
+	 * @param delay		The delay in minutes.
+	 * @param minute	The time the delay took place in minutes since the epoch.
+	 * @param source	The number of the source of the delay.
+	 */
+	private void set(int index, int delay, long minute, int source){
+		int position = (start + index) % minutes.length;
+		minutes[position] = (int) minute;
+		delays[position] = delay;
+		sources[position] = source;
+	}
+
+	/**
+	 * Returns the position in the arrays of the delay at the given index.
+	 * @param index	The index of the delay, the oldest delay at index 0.
+	 * @return	The position of the delay in the arrays.
+	 * @throws IndexOutOfBoundsException	If there is no delay at the given index.
+	 */
+	private int position(int index){
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return (start + index) % minutes.length;
+	}
+
+	/**
+	 * Makes the arrays longer, up to the capacity of this log, with the oldest delay at position 0.
+	 */
+	private void grow(){
+		int length = (int) Math.min(capacity, 2L * minutes.length);
+		minutes = unwrap(minutes, length);
+		delays = unwrap(delays, length);
+		sources = unwrap(sources, length);
+		start = 0;
+	}
+
+	/**
+	 * Copies the records in the given array to a new array of the given length, with the oldest record at position 0.
+	 * @param array		The array that needs to be copied.
+	 * @param length	The length of the new array.
+	 * @return	The new array.
+	 */
+	private int[] unwrap(int[] array, int length){
+		int[] result = new int[length];
+		for(int i = 0; i < size; i++){
+			result[i] = array[(start + i) % array.length];
+		}
+		return result;
+	}
+}
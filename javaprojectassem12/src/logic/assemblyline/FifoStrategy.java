@@ -1,7 +1,5 @@
 package logic.assemblyline;
 
-import java.util.LinkedList;
-
 import logic.order.Order;
 
 /**
@@ -9,35 +7,45 @@ import logic.order.Order;
  */
 public class FifoStrategy extends SchedulingStrategy{
 
+	/**
+	 * The version of the serialized form of a fifo strategy.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Adds an order to the given queue and places it at the end of the queue if it has no deadline,
 	 * else places it in between orders so the deadline can be achieved.
 	 * @param order	The order that needs to be added.
 	 * @param queue	The queue where the order needs to be added.
+	 * @return	The index at which the given order was inserted in the given queue.
 	 */
 	@Override
-	protected void addOrder(Order order, LinkedList<Order> queue) {
-		int index = 0;
-		for(Order next:queue){
-			if(checkDeadline(order, next))
-				break;
-			
-			index++;
-		}
+	protected int addOrder(Order order, PendingQueue queue) {
+		int index = getInsertionIndex(order, queue);
 		queue.add(index,order);
-		
+		return index;
+	}
+	
+	/**
+	 * Returns the index at the end of the given queue if the given order has no deadline,
+	 * else the index in between orders so the deadline can be achieved.
+	 * @param order	The order that would be added.
+	 * @param queue	The queue where the order would be added.
+	 * @return	The index at which the given order would be inserted in the given queue.
+	 */
+	@Override
+	protected int getInsertionIndex(Order order, PendingQueue queue) {
+		return queue.getDeadlineIndex(order);
 	}
 
 	/**
-	 * Refactors a given queue using FIFO strategy. Just copies all orders from the copy queue into the given first queue.
+	 * Refactors a given queue using FIFO strategy. The orders keep their place in the queue.
 	 * @param queue	The queue that needs to be refactored.
-	 * @param copy	The copy of the queue that needs to be refactored, used to build the given queue.
+	 * @return	The size of the given queue, as no order changes.
 	 */
 	@Override
-	protected void refactorQueue(LinkedList<Order> queue, LinkedList<Order> copy) {
-		for(Order next:copy){
-			queue.add(next);
-		}
+	protected int refactorQueue(PendingQueue queue) {
+		return queue.size();
 	}
 	
 	/**
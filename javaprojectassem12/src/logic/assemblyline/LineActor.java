@@ -0,0 +1,105 @@
+package logic.assemblyline;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A line executor which runs the messages of an assembly line one by one, in the order in which they were sent,
+ * from a mailbox. The mailbox is emptied by one task at a time on a shared pool, so an assembly line does not need
+ * a thread of its own and a few threads can serve many assembly lines. No lock is held while a message runs, so
+ * assembly lines never wait for each other.
+ */
+class LineActor extends LineExecutor {
+
+	/**
+	 * The maximum number of messages that are run before the pool is given to the mailboxes of other actors.
+	 */
+	private static final int BATCH_SIZE = 32;
+
+	/**
+	 * The messages that have been sent and have not been run yet.
+	 */
+	private final Queue<FutureTask<?>> mailbox = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Whether a task that empties the mailbox has been given to the pool and has not ended yet.
+	 */
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+	/**
+	 * The pool on which the mailbox is emptied.
+	 */
+	private final Executor pool;
+
+	/**
+	 * The thread that is running the messages of this actor, or null if no messages are being run.
+	 */
+	private volatile Thread runner;
+
+	/**
+	 * Makes a new actor which empties its mailbox on the given pool.
+	 * @param pool	The pool on which the mailbox is emptied.
+	 */
+	protected LineActor(Executor pool){
+		this.pool = pool;
+	}
+
+	/**
+	 * Sends the given message and waits for its result. A message that is sent while this actor runs a message
+	 * is run right away, because the actor could not run it before the running message ends.
+	 */
+	@Override
+	protected <T> T call(Callable<T> message){
+		if(runner == Thread.currentThread())
+			return run(message);
+		return await(submit(message));
+	}
+
+	@Override
+	protected <T> Future<T> submit(Callable<T> message){
+		FutureTask<T> task = new FutureTask<>(message);
+		mailbox.add(task);
+		schedule();
+		return task;
+	}
+
+	/**
+	 * Gives a task that empties the mailbox to the pool, unless such a task has been given already.
+	 */
+	private void schedule(){
+		if(scheduled.compareAndSet(false, true)){
+			pool.execute(new Runnable(){
+				@Override
+				public void run(){
+					drain();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Runs the messages in the mailbox, at most a batch of them. If messages are left, or are sent after the
+	 * mailbox has been found empty, a new task is given to the pool.
+	 */
+	private void drain(){
+		runner = Thread.currentThread();
+		try{
+			for(int i = 0; i < BATCH_SIZE; i++){
+				FutureTask<?> task = mailbox.poll();
+				if(task == null)
+					break;
+				task.run();
+			}
+		}finally{
+			runner = null;
+			scheduled.set(false);
+		}
+		if(!mailbox.isEmpty())
+			schedule();
+	}
+}
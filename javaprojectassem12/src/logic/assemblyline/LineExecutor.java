@@ -0,0 +1,86 @@
+package logic.assemblyline;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A class which runs the work of the assembly line scheduler on one assembly line, so that the work on an assembly
+ * line is never done by two threads at once while the work on different assembly lines can be done in parallel.
+ * The work is given as messages. A message is a callable that reads or changes the assembly line. It only uses
+ * state that is shared with other assembly lines if its sender holds the lock of that state and waits for the result.
+ */
+abstract class LineExecutor {
+
+	/**
+	 * Runs the given message on the assembly line and waits for its result.
+	 * @param message	The message that needs to be run.
+	 * @return	The result of the message.
+	 */
+	protected abstract <T> T call(Callable<T> message);
+
+	/**
+	 * Runs the given message on the assembly line without waiting for it.
+	 * @param message	The message that needs to be run.
+	 * @return	The future result of the message.
+	 */
+	protected abstract <T> Future<T> submit(Callable<T> message);
+
+	/**
+	 * Waits for the given future result of a message and returns it. If the waiting thread is interrupted, it keeps
+	 * waiting and is interrupted again once the result is there.
+	 * @param result	The future result of a message.
+	 * @return	The result of the message.
+	 * @throws RuntimeException	If the message threw this runtime exception.
+	 * @throws Error	If the message threw this error.
+	 * @throws IllegalStateException	If the message threw a checked exception.
+	 */
+	protected static <T> T await(Future<T> result){
+		boolean interrupted = false;
+		try{
+			while(true){
+				try{
+					return result.get();
+				}catch(InterruptedException e){
+					interrupted = true;
+				}catch(ExecutionException e){
+					throw unwrap(e.getCause());
+				}
+			}
+		}finally{
+			if(interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Runs the given message in the current thread.
+	 * @param message	The message that needs to be run.
+	 * @return	The result of the message.
+	 * @throws RuntimeException	If the message threw this runtime exception.
+	 * @throws Error	If the message threw this error.
+	 * @throws IllegalStateException	If the message threw a checked exception.
+	 */
+	protected static <T> T run(Callable<T> message){
+		try{
+			return message.call();
+		}catch(Exception e){
+			throw unwrap(e);
+		}
+	}
+
+	/**
+	 * Returns the given exception of a message as an unchecked exception, or throws it if it is an error.
+	 * @param cause	The exception thrown by a message.
+	 * @return	The given exception if it is a runtime exception.
+	 * 			An illegal state exception caused by the given exception otherwise.
+	 * @throws Error	If the given exception is an error.
+	 */
+	private static RuntimeException unwrap(Throwable cause){
+		if(cause instanceof RuntimeException)
+			return (RuntimeException) cause;
+		if(cause instanceof Error)
+			throw (Error) cause;
+		return new IllegalStateException(cause);
+	}
+}
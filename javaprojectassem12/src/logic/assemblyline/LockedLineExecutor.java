@@ -0,0 +1,51 @@
+package logic.assemblyline;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A line executor which runs each message in the thread that sends it, while holding the lock of the assembly line.
+ * Messages of which the result is not awaited right away run on a shared pool, also while holding the lock.
+ */
+class LockedLineExecutor extends LineExecutor {
+
+	/**
+	 * The lock that is held while a message runs.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The pool on which submitted messages run.
+	 */
+	private final ExecutorService pool;
+
+	/**
+	 * Makes a new locked line executor which runs submitted messages on the given pool.
+	 * @param pool	The pool on which submitted messages run.
+	 */
+	protected LockedLineExecutor(ExecutorService pool){
+		this.pool = pool;
+	}
+
+	@Override
+	protected <T> T call(Callable<T> message){
+		lock.lock();
+		try{
+			return run(message);
+		}finally{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	protected <T> Future<T> submit(final Callable<T> message){
+		return pool.submit(new Callable<T>(){
+			@Override
+			public T call(){
+				return LockedLineExecutor.this.call(message);
+			}
+		});
+	}
+}
@@ -0,0 +1,286 @@
+package logic.assemblyline;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import logic.order.Order;
+import logic.order.Specification;
+
+import org.joda.time.DateTime;
+
+/**
+ * A class representing the queue of pending orders of an assembly line, with constant time access by position.
+ * The queue keeps count of the neighbouring orders of which the deadlines are out of order, orders without
+ * a deadline counting as the latest. As long as there are none, the place of an order in deadline order
+ * is found with a binary search instead of a scan of the queue.
+ * The queue also counts its orders per specification.
+ */
+public class PendingQueue extends AbstractList<Order> implements RandomAccess, Serializable {
+
+	/**
+	 * The version of the serialized form of a pending queue.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The orders in this queue.
+	 */
+	private ArrayList<Order> orders;
+
+	/**
+	 * The number of neighbouring orders in this queue of which the first has a later deadline than the second.
+	 */
+	private int descents;
+
+	/**
+	 * Maps each specification of the orders in this queue to the number of orders with that specification.
+	 */
+	private Map<Specification, Integer> counts;
+
+	/**
+	 * Makes a new empty queue.
+	 */
+	public PendingQueue(){
+		orders = new ArrayList<>();
+		descents = 0;
+		counts = new HashMap<>();
+	}
+
+	/**
+	 * Returns the order at the given position in this queue.
+	 * @param index	The position of the order.
+	 * @return	The order at the given position.
+	 */
+	@Override
+	public Order get(int index) {
+		return orders.get(index);
+	}
+
+	/**
+	 * Returns the number of orders in this queue.
+	 * @return	The number of orders in this queue.
+	 */
+	@Override
+	public int size() {
+		return orders.size();
+	}
+
+	/**
+	 * Inserts the given order at the given position in this queue.
+	 * @param index	The position at which the order needs to be inserted.
+	 * @param order	The order that needs to be inserted.
+	 */
+	@Override
+	public void add(int index, Order order) {
+		descents -= descent(index-1, index);
+		orders.add(index, order);
+		descents += descent(index-1, index) + descent(index, index+1);
+		changeCount(order.getSpecification(), 1);
+		modCount++;
+	}
+
+	/**
+	 * Removes the order at the given position from this queue.
+	 * @param index	The position of the order that needs to be removed.
+	 * @return	The removed order.
+	 */
+	@Override
+	public Order remove(int index) {
+		descents -= descent(index-1, index) + descent(index, index+1);
+		Order order = orders.remove(index);
+		descents += descent(index-1, index);
+		changeCount(order.getSpecification(), -1);
+		modCount++;
+		return order;
+	}
+
+	/**
+	 * Removes all orders from this queue.
+	 */
+	@Override
+	public void clear() {
+		orders.clear();
+		descents = 0;
+		counts.clear();
+		modCount++;
+	}
+
+	/**
+	 * Returns the first order of this queue.
+	 * @return	The first order of this queue.
+	 * @throws NoSuchElementException	If this queue is empty.
+	 */
+	public Order getFirst(){
+		if(orders.isEmpty())
+			throw new NoSuchElementException();
+		return orders.get(0);
+	}
+
+	/**
+	 * Removes and returns the first order of this queue.
+	 * @return	The first order of this queue.
+	 * @throws NoSuchElementException	If this queue is empty.
+	 */
+	public Order pop(){
+		if(orders.isEmpty())
+			throw new NoSuchElementException();
+		return remove(0);
+	}
+
+	/**
+	 * Returns the number of orders in this queue with the given specification.
+	 * @param specification	The specification of which the orders need to be counted.
+	 * @return	The number of orders in this queue with the given specification.
+	 */
+	public int count(Specification specification){
+		Integer count = counts.get(specification);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Returns the first position in this queue at which the order has a later deadline than the given order.
+	 * Orders without a deadline have a later deadline than any order with a deadline.
+	 * @param order	The order that needs to be placed in deadline order.
+	 * @return	The size of this queue if the given order has no deadline or no order has a later deadline.
+	 * 			The first position at which the order has a later deadline than the given order otherwise.
+	 */
+	public int getDeadlineIndex(Order order){
+		return getDeadlineIndex(order, 0);
+	}
+
+	/**
+	 * Returns the first position from the given position onward at which the order in this queue has a later
+	 * deadline than the given order. Orders without a deadline have a later deadline than any order with a deadline.
+	 * @param order	The order that needs to be placed in deadline order.
+	 * @param from	The first position that is considered.
+	 * @return	The size of this queue if the given order has no deadline or no order from the given position
+	 * 			onward has a later deadline.
+	 * 			The first position from the given position onward at which the order has a later deadline
+	 * 			than the given order otherwise.
+	 */
+	public int getDeadlineIndex(Order order, int from){
+		DateTime deadline = order.getDeadLine();
+		if(deadline == null)
+			return orders.size();
+		if(descents - descent(from-1, from) == 0){
+			int low = from;
+			int high = orders.size();
+			while(low < high){
+				int middle = (low + high) >>> 1;
+				if(isBefore(deadline, orders.get(middle)))
+					high = middle;
+				else
+					low = middle + 1;
+			}
+			return low;
+		}
+		for(int i = from; i < orders.size(); i++){
+			if(isBefore(deadline, orders.get(i)))
+				return i;
+		}
+		return orders.size();
+	}
+
+	/**
+	 * Moves the orders with the given specification to the front of this queue. The orders with the given
+	 * specification and the other orders both keep their order.
+	 * @param specification	The specification of the orders that need to be moved.
+	 * @return	The first position at which an order has changed, the size of this queue if no order has moved.
+	 */
+	public int moveToFront(Specification specification){
+		int count = count(specification);
+		int first = 0;
+		while(first < count && orders.get(first).getSpecification() == specification){
+			first++;
+		}
+		if(first == count)
+			return orders.size();
+		ArrayList<Order> moved = new ArrayList<>(orders.size());
+		ArrayList<Order> others = new ArrayList<>();
+		for(Order order : orders){
+			if(order.getSpecification() == specification)
+				moved.add(order);
+			else
+				others.add(order);
+		}
+		moved.addAll(others);
+		orders = moved;
+		descents = 0;
+		for(int i = 1; i < orders.size(); i++){
+			descents += descent(i-1, i);
+		}
+		modCount++;
+		return first;
+	}
+
+	/**
+	 * Returns a read-only view of this queue with the given order inserted at the given position.
+	 * This queue is not changed and the view reflects later changes to this queue.
+	 * @param order	The order that is inserted in the view.
+	 * @param index	The position of the given order in the view.
+	 * @return	A view of this queue with the given order at the given position.
+	 */
+	public List<Order> withOrderAt(final Order order, final int index){
+		return new AbstractList<Order>(){
+			@Override
+			public Order get(int i) {
+				if(i < index)
+					return orders.get(i);
+				if(i == index)
+					return order;
+				return orders.get(i-1);
+			}
+
+			@Override
+			public int size() {
+				return orders.size()+1;
+			}
+		};
+	}
+
+	/**
+	 * Checks whether the order at the first given position has a later deadline than the order at the second given position.
+	 * @param first		The position of the first order.
+	 * @param second	The position of the second order.
+	 * @return	1 if both positions are in this queue and the first order has a later deadline than the second order.
+	 * 			0 otherwise.
+	 */
+	private int descent(int first, int second){
+		if(first < 0 || second >= orders.size())
+			return 0;
+		DateTime deadline = orders.get(second).getDeadLine();
+		if(deadline == null)
+			return 0;
+		return isBefore(deadline, orders.get(first)) ? 1 : 0;
+	}
+
+	/**
+	 * Adds the given amount to the number of orders with the given specification.
+	 * @param specification	The specification of which the number of orders changes.
+	 * @param amount		The amount that needs to be added.
+	 */
+	private void changeCount(Specification specification, int amount){
+		int count = count(specification) + amount;
+		if(count == 0)
+			counts.remove(specification);
+		else
+			counts.put(specification, count);
+	}
+
+	/**
+	 * Checks whether the given deadline is before the deadline of the given order.
+	 * @param deadline	The deadline that needs to be checked.
+	 * @param order		The order against which the given deadline is checked.
+	 * @return	True if the given order has no deadline or a deadline after the given deadline.
+	 * 			False otherwise.
+	 */
+	private boolean isBefore(DateTime deadline, Order order){
+		return order.getDeadLine() == null || deadline.isBefore(order.getDeadLine());
+	}
+}
@@ -0,0 +1,305 @@
+package logic.assemblyline;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A class which keeps the aggregates of a collection of integers, so they can be read without
+ * going over the collection. Each value is counted once in a sorted map of distinct values, and a cursor into
+ * that map is kept for the median and for each percentile, so the median and the percentiles are exact.
+ * Adding or removing a value takes logarithmic time in the number of distinct values, reading an aggregate
+ * constant time.
+ */
+public class RunningStatistics implements Serializable {
+
+	/**
+	 * The version of the serialized form of a running statistics.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of times each distinct value has been added.
+	 */
+	private TreeMap<Integer, Integer> counts;
+
+	/**
+	 * The number of values that have been added.
+	 */
+	private int count;
+
+	/**
+	 * The sum of the values that have been added.
+	 */
+	private long sum;
+
+	/**
+	 * The smallest value that has been added.
+	 */
+	private int min;
+
+	/**
+	 * The largest value that has been added.
+	 */
+	private int max;
+
+	/**
+	 * The cursor at the lower middle value, which is the median if the number of values is odd.
+	 */
+	private RankCursor lowerMiddle;
+
+	/**
+	 * The cursor at the upper middle value, which is the median if the number of values is odd.
+	 */
+	private RankCursor upperMiddle;
+
+	/**
+	 * The cursor at the 90th percentile.
+	 */
+	private RankCursor ninetieth;
+
+	/**
+	 * The cursor at the 99th percentile.
+	 */
+	private RankCursor ninetyNinth;
+
+	/**
+	 * Makes new statistics without values.
+	 */
+	public RunningStatistics(){
+		counts = new TreeMap<>();
+		lowerMiddle = new RankCursor(-1);
+		upperMiddle = new RankCursor(0);
+		ninetieth = new RankCursor(90);
+		ninetyNinth = new RankCursor(99);
+	}
+
+	/**
+	 * Adds the given value to these statistics.
+	 * @param value	The value that needs to be added.
+	 */
+	public void add(int value){
+		Integer old = counts.get(value);
+		counts.put(value, old == null ? 1 : old + 1);
+		if(count == 0 || value < min)
+			min = value;
+		if(count == 0 || value > max)
+			max = value;
+		count++;
+		sum += value;
+		lowerMiddle.added(value);
+		upperMiddle.added(value);
+		ninetieth.added(value);
+		ninetyNinth.added(value);
+	}
+
+	/**
+	 * Removes one occurrence of the given value from these statistics.
+	 * @param value	The value that needs to be removed.
+	 * @throws IllegalArgumentException	If the given value is not in these statistics.
+	 */
+	public void remove(int value){
+		Integer old = counts.get(value);
+		if(old == null)
+			throw new IllegalArgumentException("The value " + value + " is not in these statistics.");
+		if(old == 1)
+			counts.remove(value);
+		else
+			counts.put(value, old - 1);
+		count--;
+		sum -= value;
+		if(count == 0){
+			min = 0;
+			max = 0;
+			return;
+		}
+		min = counts.firstKey();
+		max = counts.lastKey();
+		lowerMiddle.removed(value);
+		upperMiddle.removed(value);
+		ninetieth.removed(value);
+		ninetyNinth.removed(value);
+	}
+
+	/**
+	 * Returns the number of values in these statistics.
+	 * @return	The number of values that have been added.
+	 */
+	public int getCount(){
+		return count;
+	}
+
+	/**
+	 * Returns the sum of the values in these statistics.
+	 * @return	The sum of the values that have been added.
+	 */
+	public long getSum(){
+		return sum;
+	}
+
+	/**
+	 * Returns the average of the values in these statistics, rounded towards zero.
+	 * @return	The average of the values.
+	 * 			0 if there are no values.
+	 */
+	public int getAverage(){
+		if(count == 0)
+			return 0;
+		return (int) (sum / count);
+	}
+
+	/**
+	 * Returns the median of the values in these statistics. If the number of values is even, the median is the
+	 * average of the two middle values, rounded towards zero.
+	 * @return	The median of the values.
+	 * 			0 if there are no values.
+	 */
+	public int getMedian(){
+		if(count == 0)
+			return 0;
+		if(count % 2 == 1)
+			return lowerMiddle.value;
+		return (lowerMiddle.value + upperMiddle.value) / 2;
+	}
+
+	/**
+	 * Returns the 90th percentile of the values in these statistics, which is the smallest value that is not
+	 * smaller than 90 percent of the values.
+	 * @return	The 90th percentile of the values.
+	 * 			0 if there are no values.
+	 */
+	public int getNinetiethPercentile(){
+		if(count == 0)
+			return 0;
+		return ninetieth.value;
+	}
+
+	/**
+	 * Returns the 99th percentile of the values in these statistics, which is the smallest value that is not
+	 * smaller than 99 percent of the values.
+	 * @return	The 99th percentile of the values.
+	 * 			0 if there are no values.
+	 */
+	public int getNinetyNinthPercentile(){
+		if(count == 0)
+			return 0;
+		return ninetyNinth.value;
+	}
+
+	/**
+	 * Returns the smallest value in these statistics.
+	 * @return	The smallest value.
+	 * 			0 if there are no values.
+	 */
+	public int getMin(){
+		return min;
+	}
+
+	/**
+	 * Returns the largest value in these statistics.
+	 * @return	The largest value.
+	 * 			0 if there are no values.
+	 */
+	public int getMax(){
+		return max;
+	}
+
+	/**
+	 * A cursor at the value with a certain rank among the values of these statistics. The rank depends on the
+	 * number of values, and the cursor only moves a few distinct values for each added or removed value.
+	 */
+	private class RankCursor implements Serializable {
+
+		/**
+		 * The version of the serialized form of a rank cursor.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The percentile of which this cursor holds the value, or -1 for the lower middle value and 0 for
+		 * the upper middle value.
+		 */
+		private final int percentile;
+
+		/**
+		 * The value at the cursor.
+		 */
+		private int value;
+
+		/**
+		 * The number of values that are not larger than the value at the cursor.
+		 */
+		private int notAbove;
+
+		/**
+		 * Makes a new cursor for the given percentile.
+		 * @param percentile	The percentile of which the cursor holds the value,
+		 * 						-1 for the lower middle value and 0 for the upper middle value.
+		 */
+		private RankCursor(int percentile){
+			this.percentile = percentile;
+		}
+
+		/**
+		 * Returns the rank, starting from 1, of the value this cursor has to be at.
+		 * @return	The rank of the value of this cursor for the current number of values.
+		 */
+		private int getRank(){
+			if(percentile < 0)
+				return (count + 1) / 2;
+			if(percentile == 0)
+				return count / 2 + 1;
+			return Math.max(1, (int) (((long) percentile * count + 99) / 100));
+		}
+
+		/**
+		 * Moves this cursor after the given value has been added.
+		 * @param added	The value that has been added.
+		 */
+		private void added(int added){
+			if(count == 1){
+				value = added;
+				notAbove = 1;
+				return;
+			}
+			if(added <= value)
+				notAbove++;
+			move();
+		}
+
+		/**
+		 * Moves this cursor after the given value has been removed, while there are values left.
+		 * @param removed	The value that has been removed.
+		 */
+		private void removed(int removed){
+			if(removed <= value)
+				notAbove--;
+			if(!counts.containsKey(value)){
+				Integer lower = counts.lowerKey(value);
+				if(lower != null){
+					value = lower;
+				}else{
+					value = counts.firstKey();
+					notAbove = counts.get(value);
+				}
+			}
+			move();
+		}
+
+		/**
+		 * Moves this cursor to the value with its rank.
+		 */
+		private void move(){
+			int rank = getRank();
+			while(rank > notAbove){
+				Map.Entry<Integer, Integer> next = counts.higherEntry(value);
+				value = next.getKey();
+				notAbove += next.getValue();
+			}
+			while(rank <= notAbove - counts.get(value)){
+				notAbove -= counts.get(value);
+				value = counts.lowerKey(value);
+			}
+		}
+	}
+}
@@ -2,14 +2,19 @@ package logic.assemblyline;
 
 import interfaces.Printable;
 
-import java.util.LinkedList;
+import java.io.Serializable;
 
 import logic.order.Order;
 
 /**
  * A class which adds an order to a queue in a specific way and refactors queue in some way.
  */
-public abstract class SchedulingStrategy implements Printable<SchedulingStrategy>{
+public abstract class SchedulingStrategy implements Printable<SchedulingStrategy>, Serializable{
+	
+	/**
+	 * The version of the serialized form of a scheduling strategy.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * The example order used for batch processing, null if batch processing is not used.
@@ -20,15 +25,25 @@ public abstract class SchedulingStrategy implements Printable<SchedulingStrategy
 	 * Adds an order to the given queue and places it in the right spot.
 	 * @param order	The order that needs to be added.
 	 * @param queue	The queue where the order needs to be added.
+	 * @return	The index at which the given order was inserted in the given queue.
+	 */
+	protected abstract int addOrder(Order order, PendingQueue queue);
+	
+	/**
+	 * Returns the index at which the given order would be placed in the given queue, without changing the queue.
+	 * @param order	The order that would be added.
+	 * @param queue	The queue where the order would be added.
+	 * @return	The index at which the given order would be inserted in the given queue.
 	 */
-	protected abstract void addOrder(Order order, LinkedList<Order> queue);
+	protected abstract int getInsertionIndex(Order order, PendingQueue queue);
 
 	/**
-	 * Refactors a given queue and a copy of it so it matches the requirements.
+	 * Refactors the given queue so it matches the requirements.
 	 * @param queue	The queue that needs to be refactored.
-	 * @param copy	The copy of the queue that needs to be refactored, used to build the given queue.
+	 * @return	The first index at which the order in the given queue has changed,
+	 * 			the size of the queue if no order has changed.
 	 */
-	protected abstract void refactorQueue(LinkedList<Order> queue, LinkedList<Order> copy);
+	protected abstract int refactorQueue(PendingQueue queue);
 	
 	/**
 	 * Returns true if the deadline of the given order is earlier than the deadline of the given next order.
@@ -54,6 +69,16 @@ public abstract class SchedulingStrategy implements Printable<SchedulingStrategy
 			this.example = order;
 	}
 	
+	/**
+	 * Checks whether the given order has the same specification as the example order.
+	 * @param order	The order that needs to be checked.
+	 * @return	True if there is an example order and the given order has the same specification.
+	 * 			False otherwise.
+	 */
+	protected boolean isExample(Order order){
+		return example != null && order.getSpecification() == example.getSpecification();
+	}
+	
 	/**
 	 * Returns a raw copy of this scheduling strategy.
 	 * @return A raw copy of this scheduling strategy.
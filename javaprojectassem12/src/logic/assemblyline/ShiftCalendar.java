@@ -0,0 +1,342 @@
+package logic.assemblyline;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.DateTimeConstants;
+
+/**
+ * A class describing the working hours of an assembly line. The working hours are given as one or more shifts,
+ * which are the same on each working day of the week, and the days of the week on which nobody works.
+ * Shifts that follow each other without a break form one working period, also over midnight. If there is no
+ * break at all, the assembly line works day and night and there is no end of the working day.
+ *
+ * The working periods of a whole week are computed when the calendar is made, so every question about a
+ * time is answered by looking up its minute of the week instead of doing date arithmetic.
+ * Times are given in minutes since the epoch, the hours of the shifts are those of the default time zone.
+ */
+public class ShiftCalendar implements Serializable {
+
+	/**
+	 * The version of the serialized form of a shift calendar.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of minutes in a week.
+	 */
+	private static final int MINUTES_PER_WEEK = DateTimeConstants.DAYS_PER_WEEK * DateTimeConstants.MINUTES_PER_DAY;
+
+	/**
+	 * The calendar with one shift from 6 until 22 on every day of the week, shared by all assembly lines that do not
+	 * get a calendar of their own. A calendar never changes, so sharing it is safe.
+	 */
+	public static final ShiftCalendar STANDARD = new ShiftCalendar(6, 22);
+
+	/**
+	 * True if there is no break between the working periods.
+	 */
+	private final boolean continuous;
+
+	/**
+	 * For each minute of the week, the begin of the working period containing that minute or, if nobody
+	 * works at that minute, the begin of the next working period. Counted from the start of the week,
+	 * so values can be negative or past the end of the week.
+	 */
+	private final int[] periodBegin;
+
+	/**
+	 * For each minute of the week, the end of the working period of which periodBegin holds the begin.
+	 */
+	private final int[] periodEnd;
+
+	/**
+	 * For each minute of the week at which nobody works, the end of the previous working period.
+	 */
+	private final int[] previousEnd;
+
+	/**
+	 * The number of working periods in a week.
+	 */
+	private final int periods;
+
+	/**
+	 * Makes a new calendar with one shift from the given begin hour until the given end hour on every day of the week.
+	 * @param beginHour	The hour at which the shift begins.
+	 * @param endHour	The hour at which the shift ends.
+	 * @throws IllegalArgumentException	If the end hour is not after the begin hour or the hours are not in a day.
+	 */
+	public ShiftCalendar(int beginHour, int endHour){
+		this(Collections.singletonList(new int[]{beginHour * DateTimeConstants.MINUTES_PER_HOUR, endHour * DateTimeConstants.MINUTES_PER_HOUR}), Collections.<Integer>emptyList());
+	}
+
+	/**
+	 * Makes a new calendar with the given shifts on every day of the week except the given days.
+	 * @param shifts			The shifts of a working day, each given as its begin and end minute of the day.
+	 * @param nonWorkingDays	The days of the week on which nobody works, as in DateTimeConstants.
+	 * @throws IllegalArgumentException	If a shift does not end after its begin or is not in a day,
+	 * 									or if nobody works at all.
+	 */
+	public ShiftCalendar(List<int[]> shifts, Collection<Integer> nonWorkingDays){
+		int length = 3 * MINUTES_PER_WEEK;
+		boolean[] working = new boolean[length];
+		int workingMinutes = 0;
+		for(int day = 0; day < 3 * DateTimeConstants.DAYS_PER_WEEK; day++){
+			if(nonWorkingDays.contains(day % DateTimeConstants.DAYS_PER_WEEK + DateTimeConstants.MONDAY))
+				continue;
+			for(int[] shift : shifts){
+				if(shift.length != 2 || shift[0] < 0 || shift[0] >= shift[1] || shift[1] > DateTimeConstants.MINUTES_PER_DAY)
+					throw new IllegalArgumentException("Invalid shift.");
+				for(int minute = shift[0]; minute < shift[1]; minute++){
+					if(!working[day * DateTimeConstants.MINUTES_PER_DAY + minute]){
+						working[day * DateTimeConstants.MINUTES_PER_DAY + minute] = true;
+						workingMinutes++;
+					}
+				}
+			}
+		}
+		if(workingMinutes == 0)
+			throw new IllegalArgumentException("A shift calendar needs working hours.");
+		continuous = workingMinutes == length;
+		if(continuous){
+			periodBegin = null;
+			periodEnd = null;
+			previousEnd = null;
+			periods = 1;
+			return;
+		}
+		// The periods of the middle week are computed from three weeks, so periods over the edges of the week are whole.
+		int[] begins = new int[length];
+		int[] previous = new int[length];
+		for(int i = 1; i < length; i++){
+			begins[i] = working[i] && working[i-1] ? begins[i-1] : i;
+			previous[i] = !working[i] && working[i-1] ? i : previous[i-1];
+		}
+		int[] ends = new int[length];
+		int[] nexts = new int[length];
+		ends[length-1] = length;
+		nexts[length-1] = length;
+		for(int i = length-2; i >= 0; i--){
+			ends[i] = working[i] && working[i+1] ? ends[i+1] : i+1;
+			nexts[i] = working[i+1] ? i+1 : nexts[i+1];
+		}
+		periodBegin = new int[MINUTES_PER_WEEK];
+		periodEnd = new int[MINUTES_PER_WEEK];
+		previousEnd = new int[MINUTES_PER_WEEK];
+		int count = 0;
+		for(int minute = 0; minute < MINUTES_PER_WEEK; minute++){
+			int i = MINUTES_PER_WEEK + minute;
+			int next = working[i] ? i : nexts[i];
+			periodBegin[minute] = begins[next] - MINUTES_PER_WEEK;
+			periodEnd[minute] = ends[next] - MINUTES_PER_WEEK;
+			previousEnd[minute] = previous[i] - MINUTES_PER_WEEK;
+			if(working[i] && !working[i-1])
+				count++;
+		}
+		periods = count;
+	}
+
+	/**
+	 * Checks whether the given time is in a working period and not in the given overtime at the end of that period.
+	 * @param time		The time in minutes since the epoch.
+	 * @param overTime	The minutes at the end of the working period that were already worked the day before.
+	 * @return	True if the given time is in a working period, before its end minus the given overtime.
+	 * 			False otherwise.
+	 */
+	public boolean isWorkingTime(long time, int overTime){
+		if(continuous)
+			return true;
+		long local = Timeline.toLocal(time);
+		long weekStart = getWeekStart(local);
+		int minute = (int) (local - weekStart);
+		return weekStart + periodBegin[minute] <= local && local < weekStart + periodEnd[minute] - overTime;
+	}
+
+	/**
+	 * Returns the first begin of a working period at or after the start of the hour of the given time.
+	 * @param time	The time in minutes since the epoch.
+	 * @return	The begin of the first working period that does not begin before the hour of the given time.
+	 */
+	public long getNextShiftStart(long time){
+		if(continuous)
+			return time;
+		long local = Timeline.toLocal(time);
+		return Timeline.fromLocal(getNextBegin(local - Timeline.floorMod(local, DateTimeConstants.MINUTES_PER_HOUR)));
+	}
+
+	/**
+	 * Returns the earliest time at which a job of the given duration that starts at or after the given time is
+	 * finished, if the job has to be done within one working period. A job that is longer than every working
+	 * period is started at the first working period.
+	 * @param time		The earliest time in minutes since the epoch at which the job can start.
+	 * @param duration	The duration of the job in minutes.
+	 * @return	The earliest time at which the job is finished in minutes since the epoch.
+	 */
+	public long getEarliestCompletion(long time, int duration){
+		if(continuous)
+			return time + duration;
+		long local = Timeline.toLocal(time);
+		long weekStart = getWeekStart(local);
+		int minute = (int) (local - weekStart);
+		long start = Math.max(local, weekStart + periodBegin[minute]);
+		long end = weekStart + periodEnd[minute];
+		long first = start;
+		for(int i = 0; i <= periods; i++){
+			if(start + duration <= end)
+				return Timeline.fromLocal(start) + duration;
+			start = getNextBegin(end);
+			end = getPeriodEnd(start);
+		}
+		return Timeline.fromLocal(first) + duration;
+	}
+
+	/**
+	 * Returns the overtime made if work stops at the given time: the minutes since the end of the last working period.
+	 * @param time	The time in minutes since the epoch.
+	 * @return	0 if the given time is in a working period.
+	 * 			The minutes between the end of the last working period and the given time otherwise.
+	 */
+	public int getOverTime(long time){
+		if(continuous)
+			return 0;
+		long local = Timeline.toLocal(time);
+		long weekStart = getWeekStart(local);
+		int minute = (int) (local - weekStart);
+		if(weekStart + periodBegin[minute] <= local)
+			return 0;
+		return (int) (local - weekStart - previousEnd[minute]);
+	}
+
+	/**
+	 * Returns the begin of the first working period after the given time.
+	 * @param time	The time in minutes since the epoch.
+	 * @return	The begin in minutes since the epoch of the first working period that begins after the given time.
+	 */
+	public long getNextWorkdayStart(long time){
+		if(continuous)
+			return time;
+		return Timeline.fromLocal(getNextBegin(Timeline.toLocal(time) + 1));
+	}
+
+	/**
+	 * Checks whether a job of the given duration can no longer be done in the working period of the given time.
+	 * @param time			The time in minutes since the epoch.
+	 * @param overTime		The minutes at the end of the working period that were already worked the day before.
+	 * @param assemblyTime	The duration of the job in minutes.
+	 * @return	True if the given time is not in a working period or the job would not be done before the end of
+	 * 			the working period minus the given overtime.
+	 * 			False otherwise.
+	 */
+	public boolean isEndOfWorkday(long time, int overTime, int assemblyTime){
+		if(continuous)
+			return false;
+		long local = Timeline.toLocal(time);
+		long weekStart = getWeekStart(local);
+		int minute = (int) (local - weekStart);
+		if(weekStart + periodBegin[minute] > local)
+			return true;
+		return local + assemblyTime >= weekStart + periodEnd[minute] - overTime;
+	}
+
+	/**
+	 * Checks whether the given time is in the first hour of a working period.
+	 * @param time	The time in minutes since the epoch.
+	 * @return	True if the given time is in a working period that began in the same hour of the day.
+	 * 			False otherwise.
+	 */
+	public boolean isWorkdayStart(long time){
+		if(continuous)
+			return false;
+		long local = Timeline.toLocal(time);
+		long weekStart = getWeekStart(local);
+		int minute = (int) (local - weekStart);
+		long begin = weekStart + periodBegin[minute];
+		return begin <= local && local - begin < DateTimeConstants.MINUTES_PER_HOUR
+				&& Timeline.floorDiv(local, DateTimeConstants.MINUTES_PER_HOUR) == Timeline.floorDiv(begin, DateTimeConstants.MINUTES_PER_HOUR);
+	}
+
+	/**
+	 * Returns the number of minutes from the given time until the first working period of the next days begins.
+	 * @param time	The time in minutes since the epoch.
+	 * @return	The number of minutes until the first working period that begins on a later day than the given time.
+	 * 			Integer.MAX_VALUE if there is no break between the working periods.
+	 */
+	public int getMinutesUntilNextDay(long time){
+		if(continuous)
+			return Integer.MAX_VALUE;
+		long local = Timeline.toLocal(time);
+		long nextDay = local - Timeline.floorMod(local, DateTimeConstants.MINUTES_PER_DAY) + DateTimeConstants.MINUTES_PER_DAY;
+		return (int) (getNextBegin(nextDay) - local);
+	}
+
+	/**
+	 * Returns the first begin of a working period at or after the given local minute.
+	 * @param local	The local minute.
+	 * @return	The local minute at which the first working period at or after the given minute begins.
+	 */
+	private long getNextBegin(long local){
+		long weekStart = getWeekStart(local);
+		int minute = (int) (local - weekStart);
+		long begin = weekStart + periodBegin[minute];
+		if(begin >= local)
+			return begin;
+		long end = weekStart + periodEnd[minute];
+		weekStart = getWeekStart(end);
+		return weekStart + periodBegin[(int) (end - weekStart)];
+	}
+
+	/**
+	 * Returns the end of the working period containing the given local minute, or of the next one.
+	 * @param local	The local minute.
+	 * @return	The local minute at which the working period ends.
+	 */
+	private long getPeriodEnd(long local){
+		long weekStart = getWeekStart(local);
+		return weekStart + periodEnd[(int) (local - weekStart)];
+	}
+
+	/**
+	 * Returns the local minute at which the week of the given local minute starts, on monday at midnight.
+	 * @param local	The local minute.
+	 * @return	The local minute at which the week starts.
+	 */
+	private static long getWeekStart(long local){
+		long day = Timeline.floorDiv(local, DateTimeConstants.MINUTES_PER_DAY);
+		// The epoch was on a thursday.
+		long dayOfWeek = Timeline.floorMod(day + 3, DateTimeConstants.DAYS_PER_WEEK);
+		return (day - dayOfWeek) * DateTimeConstants.MINUTES_PER_DAY;
+	}
+
+	/**
+	 * Replaces the standard calendar by a marker when it is serialized, so a snapshot does not hold its tables and
+	 * reading it back gives the shared standard calendar again.
+	 * @return	A marker for the standard calendar if this is the standard calendar.
+	 * 			This calendar otherwise.
+	 */
+	private Object writeReplace(){
+		if(this == STANDARD)
+			return new Standard();
+		return this;
+	}
+
+	/**
+	 * The serialized form of the standard calendar.
+	 */
+	private static class Standard implements Serializable {
+
+		/**
+		 * The version of the serialized form of the standard calendar.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Returns the shared standard calendar.
+		 * @return	The standard calendar.
+		 */
+		private Object readResolve(){
+			return STANDARD;
+		}
+	}
+}
@@ -1,7 +1,7 @@
 package logic.assemblyline;
 
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
@@ -9,17 +9,45 @@ import org.joda.time.format.DateTimeFormatter;
 
 /**
  * Class handling the statistics of a car manufacturing company.
+ * Only the most recent delays and days are kept, the averages, medians and percentiles are
+ * kept up to date over all delays and days in running aggregates.
  */
-public class Statistics {
+public class Statistics implements Serializable {
+	
+	/**
+	 * The version of the serialized form of a statistics.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * The number of most recent delays that are kept by default.
+	 */
+	public static final int DEFAULT_DELAY_RETENTION = 1000;
+	
+	/**
+	 * The number of most recent days that are kept by default.
+	 */
+	public static final int DEFAULT_DAY_RETENTION = 28;
+	
+	/**
+	 * Log of the most recent delays of the orders, ordered on time.
+	 */
+	protected DelayLog delays;
+	
 	/**
-	 * List of delays of the orders.
+	 * Log of the number of finished cars on the most recent days.
 	 */
-	protected ArrayList<Delay> delays;
+	protected DayLog finishedCarOrdersPerDay;
 	
 	/**
-	 * List of the number of finished cars per day.
+	 * Running aggregates of the delays of all orders.
 	 */
-	protected ArrayList<Integer> finishedCarOrdersPerDay;
+	protected RunningStatistics delayStatistics;
+	
+	/**
+	 * Running aggregates of the number of finished cars on all days.
+	 */
+	protected RunningStatistics carsProducedStatistics;
 	
 	/**
 	 * Name to identify these statistics.
@@ -27,26 +55,65 @@ public class Statistics {
 	protected String name;
 	
 	/**
-	 * Creates statistics object.
+	 * Creates statistics object that keeps the default number of recent delays and days.
 	 * @param name Name to identify these statistics.
 	 */
 	public Statistics(String name) {
+		this(name, DEFAULT_DELAY_RETENTION, DEFAULT_DAY_RETENTION);
+	}
+	
+	/**
+	 * Creates statistics object that keeps the given number of recent delays and days.
+	 * @param name				Name to identify these statistics.
+	 * @param delayRetention	The number of most recent delays that are kept.
+	 * @param dayRetention		The number of most recent days that are kept.
+	 * @throws IllegalArgumentException	If a retention is less than one.
+	 */
+	public Statistics(String name, int delayRetention, int dayRetention) {
 		this.name = name;
+		this.delays = new DelayLog(delayRetention);
+		this.finishedCarOrdersPerDay = new DayLog(dayRetention);
+		this.delayStatistics = new RunningStatistics();
+		this.carsProducedStatistics = new RunningStatistics();
 	}
 	
 	/**
-	 * Returns the list of all the delays.
-	 * @return the list of all the delays.
+	 * Returns the list of the most recent delays.
+	 * @return the list of the most recent delays, ordered on time.
 	 */
 	public ArrayList<Delay> getDelays(){
+		ArrayList<Delay> list = new ArrayList<Delay>(delays.size());
+		for(int i = 0; i < delays.size(); i++){
+			list.add(delays.getDelay(i));
+		}
+		return list;
+	}
+	
+	/**
+	 * Returns the log of the most recent delays.
+	 * @return the log of the most recent delays, ordered on time.
+	 */
+	protected DelayLog getDelayLog(){
 		return delays;
 	}
 	
 	/**
-	 * Returns the list of the number of finished cars per day.
-	 * @return the list of the number of finished cars per day.
+	 * Returns the list of the number of finished cars on each of the most recent days.
+	 * @return the list of the number of finished cars on each of the most recent days, the last day at the end.
 	 */
 	public ArrayList<Integer> getFinishedCarOrdersPerDay(){
+		ArrayList<Integer> list = new ArrayList<Integer>(finishedCarOrdersPerDay.size());
+		for(int day = finishedCarOrdersPerDay.getFirstDay(); day < finishedCarOrdersPerDay.getEndDay(); day++){
+			list.add(finishedCarOrdersPerDay.get(day));
+		}
+		return list;
+	}
+	
+	/**
+	 * Returns the log of the number of finished cars on the most recent days.
+	 * @return the log of the number of finished cars on the most recent days.
+	 */
+	protected DayLog getDayLog(){
 		return finishedCarOrdersPerDay;
 	}
 	
@@ -55,7 +122,7 @@ public class Statistics {
 	 * @return the average number of cars produced.
 	 */
 	protected int getAverageCarsProduced(){
-		return getAverage(finishedCarOrdersPerDay);
+		return carsProducedStatistics.getAverage();
 	}
 
 	/**
@@ -63,95 +130,55 @@ public class Statistics {
 	 * @return the median number of cars produced.
 	 */
 	protected int getMedianCarsProduced(){
-		return getMedian(finishedCarOrdersPerDay);
+		return carsProducedStatistics.getMedian();
 	}
 	
 	/**
-	 * Returns the average delay on an order.
-	 * @return the average delay on an order.
+	 * Returns the 90th percentile of the number of cars produced.
+	 * @return the 90th percentile of the number of cars produced.
 	 */
-	protected int getAverageDelay(){
-		ArrayList<Integer> delaysTimes = getDelaysTimes();
-		return getAverage(delaysTimes);
+	protected int getNinetiethPercentileCarsProduced(){
+		return carsProducedStatistics.getNinetiethPercentile();
 	}
 	
 	/**
-	 * Returns the median delay on an order.
-	 * @return the median delay on an order.
+	 * Returns the 99th percentile of the number of cars produced.
+	 * @return the 99th percentile of the number of cars produced.
 	 */
-	protected int getMedianDelay(){
-		ArrayList<Integer> delaysTimes = getDelaysTimes();
-		return getMedian(delaysTimes);
+	protected int getNinetyNinthPercentileCarsProduced(){
+		return carsProducedStatistics.getNinetyNinthPercentile();
 	}
 	
 	/**
-	 * Returns a list of all the delay times.
-	 * @return a list of all the delay times.
+	 * Returns the average delay on an order.
+	 * @return the average delay on an order.
 	 */
-	protected ArrayList<Integer> getDelaysTimes() {
-		ArrayList<Integer> delaysTimes = new ArrayList<Integer>();
-		for(Delay d : delays){
-			delaysTimes.add(d.getDelayTime());
-		}
-		return delaysTimes;
+	protected int getAverageDelay(){
+		return delayStatistics.getAverage();
 	}
 	
 	/**
-	 * Returns the average of the given list of integers.
-	 * @param list	The list of integers of which the average needs to be calculated.
-	 * @return	The average of the given list of integers.
+	 * Returns the median delay on an order.
+	 * @return the median delay on an order.
 	 */
-	protected int getAverage(ArrayList<Integer> list){
-		int total = 0;
-		for(int i : list){
-			total += i;
-		}
-		int average;
-		if(total == 0){
-			average = 0;
-		}
-		else{
-			average = total/list.size();
-		}
-		return average;
+	protected int getMedianDelay(){
+		return delayStatistics.getMedian();
 	}
 	
 	/**
-	 * Returns the median of the given list of integers.
-	 * @param list	The list of integers of which the median needs to be calculated.
-	 * @return	The median of the given list of integers.
+	 * Returns the 90th percentile of the delay on an order.
+	 * @return the 90th percentile of the delay on an order.
 	 */
-	protected int getMedian(ArrayList<Integer> list){
-		int median;
-		if(list.size() == 0){
-			median = 0;
-		}
-		else{
-			ArrayList<Integer> sortedList = makeCopy(list);
-			Collections.sort(sortedList);
-			int middle = sortedList.size()/2;
-			if(sortedList.size()%2 == 1){
-				median = sortedList.get(middle);
-			} 
-			else{
-				median = (sortedList.get(middle-1) + sortedList.get(middle))/2;
-			}
-		}
-	    return median;
+	protected int getNinetiethPercentileDelay(){
+		return delayStatistics.getNinetiethPercentile();
 	}
 	
 	/**
-	 * Returns a copy of the given list by making a new list and adding all object from the
-	 * given list to the new list.
-	 * @param list	The list to be copied.
-	 * @return	A copy of the given list.
+	 * Returns the 99th percentile of the delay on an order.
+	 * @return the 99th percentile of the delay on an order.
 	 */
-	protected ArrayList<Integer> makeCopy(ArrayList<Integer> list) {
-		ArrayList<Integer> copy = new ArrayList<Integer>();
-		for(int i : list){
-			copy.add(i);
-		}
-		return copy;
+	protected int getNinetyNinthPercentileDelay(){
+		return delayStatistics.getNinetyNinthPercentile();
 	}
 
 	/**
@@ -178,18 +205,19 @@ public class Statistics {
 	 */
 	protected String carsProducedXLastDays(int days){
 		String statistics = "";
+		int endDay = finishedCarOrdersPerDay.getEndDay();
 		if(finishedCarOrdersPerDay.size() > 0){
 			int numberOfCars;
 			for(int i = days; i > 1 ; i--){
-				if(finishedCarOrdersPerDay.size()-i >= 0){
-					numberOfCars = finishedCarOrdersPerDay.get(finishedCarOrdersPerDay.size()-i);
+				if(endDay-i >= finishedCarOrdersPerDay.getFirstDay()){
+					numberOfCars = finishedCarOrdersPerDay.get(endDay-i);
 					statistics += "   " + i + " days ago: " + numberOfCars + "\n";
 				}
 				else{
 					statistics += "   " + i + " days ago: No records.\n";
 				}
 			}
-			numberOfCars = finishedCarOrdersPerDay.get(finishedCarOrdersPerDay.size()-1);
+			numberOfCars = finishedCarOrdersPerDay.get(endDay-1);
 			statistics += "   1 day ago: " + numberOfCars + "\n";
 		}
 		else{
@@ -210,8 +238,8 @@ public class Statistics {
 			DateTime dateOfDelay = null;
 			for(int i = number; i > 1 ; i--){
 				if(delays.size() - i >= 0){
-					delayTime = delays.get(delays.size()-i).getDelayTime();
-					dateOfDelay = delays.get(delays.size()-i).getDateOfDelay();
+					delayTime = delays.getDelayTime(delays.size()-i);
+					dateOfDelay = delays.getDateOfDelay(delays.size()-i);
 					statistics += "   " + i + ") " + delayTime + " minutes on " + prettyPrintDate(dateOfDelay) + "\n";
 				}
 				else{
@@ -219,8 +247,8 @@ public class Statistics {
 					break;
 				}
 			}
-			delayTime = delays.get(delays.size()-1).getDelayTime();
-			dateOfDelay = delays.get(delays.size()-1).getDateOfDelay();
+			delayTime = delays.getDelayTime(delays.size()-1);
+			dateOfDelay = delays.getDateOfDelay(delays.size()-1);
 			statistics += "   1) " + delayTime + " minutes on " + prettyPrintDate(dateOfDelay) + "\n";
 		}
 		else{
@@ -1,7 +1,7 @@
 package logic.assemblyline;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.List;
 
 import org.joda.time.DateTime;
 
@@ -9,41 +9,80 @@ import org.joda.time.DateTime;
  * Class handling the statistics of an assembly line car manufacturing company.
  */
 public class StatisticsAssemblyLine extends Statistics{
+	
+	/**
+	 * The version of the serialized form of a statistics assembly line.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * Number of cars finished today.
 	 */
 	private int finishedCarOrdersToday;
 	
+	/**
+	 * The listeners that are informed when these statistics change.
+	 */
+	private List<StatisticsListener> listeners;
 	
 	/**
 	 * Creates statistics object for an assembly line by initializing the number of
-	 * finished car orders today to 0.
+	 * finished car orders today to 0. The default number of recent delays and days are kept.
 	 * @param name Name to identify these statistics.
 	 */
 	public StatisticsAssemblyLine(String name){
-		super(name);
-		delays = new ArrayList<Delay>();
-		finishedCarOrdersPerDay = new ArrayList<Integer>();
+		this(name, DEFAULT_DELAY_RETENTION, DEFAULT_DAY_RETENTION);
+	}
+	
+	/**
+	 * Creates statistics object for an assembly line that keeps the given number of recent delays and days,
+	 * by initializing the number of finished car orders today to 0.
+	 * @param name				Name to identify these statistics.
+	 * @param delayRetention	The number of most recent delays that are kept.
+	 * @param dayRetention		The number of most recent days that are kept.
+	 * @throws IllegalArgumentException	If a retention is less than one.
+	 */
+	public StatisticsAssemblyLine(String name, int delayRetention, int dayRetention){
+		super(name, delayRetention, dayRetention);
 		this.finishedCarOrdersToday = 0;
+		this.listeners = new ArrayList<StatisticsListener>();
+	}
+	
+	/**
+	 * Adds the given listener, which is informed of each finished order and each finished day from now on.
+	 * @param listener	The listener that needs to be added.
+	 */
+	protected void addListener(StatisticsListener listener){
+		listeners.add(listener);
 	}
 	
 	/**
-	 * Adds the given order to the list of finished orders and adds one to the number
-	 * of finished car orders for today.
-	 * @param delay	The delay of the finished order.
+	 * Adds the delay of the given order to the log of delays and adds one to the number
+	 * of finished car orders for today. The listeners are informed of the finished order.
+	 * @param delay			The delay of the finished order.
+	 * @param dateOfDelay	The date the order was finished.
 	 */
 	public void finishedCarOrder(int delay, DateTime dateOfDelay){
-		delays.add(new Delay(delay, dateOfDelay));
-		Collections.sort(delays);
+		long minute = Timeline.toMinute(dateOfDelay);
+		delays.add(delay, minute, 0);
+		delayStatistics.add(delay);
 		finishedCarOrdersToday++;
+		for(StatisticsListener listener : listeners){
+			listener.finishedCarOrder(this, delay, minute);
+		}
 	}
 	
 	/**
-	 * Adds the number of finished car orders for today to the list of finished car orders
-	 * per day. Sets the number of finished car orders for today to zero.
+	 * Adds the number of finished car orders for today to the log of finished car orders
+	 * per day and informs the listeners. Sets the number of finished car orders for today to zero.
 	 */
 	public void setNextDay(){
 		finishedCarOrdersPerDay.add(finishedCarOrdersToday);
+		finishedCarOrdersPerDay.trim(finishedCarOrdersPerDay.getEndDay());
+		carsProducedStatistics.add(finishedCarOrdersToday);
+		for(StatisticsListener listener : listeners){
+			listener.finishedDay(this, finishedCarOrdersPerDay.getEndDay()-1, finishedCarOrdersToday);
+		}
 		finishedCarOrdersToday = 0;
 	}
 }
\ No newline at end of file
@@ -1,44 +1,108 @@
 package logic.assemblyline;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Class handling the statistics of multiple assembly lines of a car manufacturing company.
+ * The statistics listen to the statistics of the assembly lines, so they are kept up to date
+ * each time an order or a day is finished on one of the assembly lines.
  */
-public class StatisticsGeneral extends Statistics{
+public class StatisticsGeneral extends Statistics implements StatisticsListener{
+	
+	/**
+	 * The version of the serialized form of a statistics general.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Maps the statistics of each assembly line to the order in which it was added, so delays at the same
+	 * time are ordered on their assembly line.
+	 */
+	private Map<StatisticsAssemblyLine, Integer> lines;
+	
+	/**
+	 * Maps the statistics of each assembly line to the number of days it has finished. A day is only dropped
+	 * when all assembly lines have finished it, because until then its number of finished cars can change.
+	 */
+	private Map<StatisticsAssemblyLine, Integer> finishedDays;
 	
 	/**
 	 * Creates statistics object to analyze the statistics for multiple assembly lines.
+	 * The default number of recent delays and days are kept.
 	 * @param name Name to identify these statistics.
 	 */
 	public StatisticsGeneral(String name){
-		super(name);
+		this(name, DEFAULT_DELAY_RETENTION, DEFAULT_DAY_RETENTION);
+	}
+	
+	/**
+	 * Creates statistics object to analyze the statistics for multiple assembly lines, which keeps
+	 * the given number of recent delays and days.
+	 * @param name				Name to identify these statistics.
+	 * @param delayRetention	The number of most recent delays that are kept.
+	 * @param dayRetention		The number of most recent days that are kept.
+	 * @throws IllegalArgumentException	If a retention is less than one.
+	 */
+	public StatisticsGeneral(String name, int delayRetention, int dayRetention){
+		super(name, delayRetention, dayRetention);
+		lines = new HashMap<StatisticsAssemblyLine, Integer>();
+		finishedDays = new HashMap<StatisticsAssemblyLine, Integer>();
 	}
 
 	/**
-	 * Updates the records with the given statistics of assembly lines.
-	 * @param stats	The statistics of the assembly lines that are needed for the update.
-	 */
-	public void updateRecords(List<StatisticsAssemblyLine> stats){
-		delays = new ArrayList<Delay>();
-		finishedCarOrdersPerDay = new ArrayList<Integer>();
-		for(StatisticsAssemblyLine s : stats){
-			for(Delay d : s.getDelays()){
-				delays.add(d);
-			}
-			for(int i = 0; i < s.getFinishedCarOrdersPerDay().size(); i++){
-				int temp = s.getFinishedCarOrdersPerDay().get(i);
-				if(this.finishedCarOrdersPerDay.size() <= i){
-					this.finishedCarOrdersPerDay.add(temp);
-				}
-				else{
-					temp += this.finishedCarOrdersPerDay.get(i);
-					finishedCarOrdersPerDay.set(i, temp);
-				}
-			}
+	 * Adds the kept records of the given statistics of an assembly line to these statistics and keeps
+	 * them up to date with the statistics of that assembly line from now on.
+	 * @param stats	The statistics of the assembly line that need to be added.
+	 */
+	protected void addLine(StatisticsAssemblyLine stats){
+		lines.put(stats, lines.size());
+		finishedDays.put(stats, stats.getDayLog().getFirstDay());
+		DelayLog log = stats.getDelayLog();
+		for(int i = 0; i < log.size(); i++){
+			finishedCarOrder(stats, log.getDelayTime(i), log.getMinute(i));
+		}
+		DayLog days = stats.getDayLog();
+		for(int day = days.getFirstDay(); day < days.getEndDay(); day++){
+			finishedDay(stats, day, days.get(day));
+		}
+		stats.addListener(this);
+	}
+
+	/**
+	 * Adds the delay of an order that has been finished on one of the assembly lines.
+	 * @param stats		The statistics of the assembly line.
+	 * @param delay		The delay of the finished order.
+	 * @param minute	The time the order was finished in minutes since the epoch.
+	 */
+	@Override
+	public void finishedCarOrder(StatisticsAssemblyLine stats, int delay, long minute){
+		delays.add(delay, minute, lines.get(stats));
+		delayStatistics.add(delay);
+	}
+
+	/**
+	 * Adds the number of orders that have been finished on the given day of one of the assembly lines
+	 * to the number of finished orders on that day of all assembly lines.
+	 * @param stats			The statistics of the assembly line.
+	 * @param day			The number of the day that has ended, the first day of the assembly line being 0.
+	 * @param finishedCars	The number of orders that have been finished on that day.
+	 */
+	@Override
+	public void finishedDay(StatisticsAssemblyLine stats, int day, int finishedCars){
+		while(finishedCarOrdersPerDay.getEndDay() <= day){
+			finishedCarOrdersPerDay.add(0);
+			carsProducedStatistics.add(0);
+		}
+		int old = finishedCarOrdersPerDay.get(day);
+		finishedCarOrdersPerDay.set(day, old + finishedCars);
+		carsProducedStatistics.remove(old);
+		carsProducedStatistics.add(old + finishedCars);
+		finishedDays.put(stats, day + 1);
+		int finalDay = Integer.MAX_VALUE;
+		for(int finished : finishedDays.values()){
+			finalDay = Math.min(finalDay, finished);
 		}
-		Collections.sort(delays);
+		finishedCarOrdersPerDay.trim(finalDay);
 	}
 }
@@ -0,0 +1,23 @@
+package logic.assemblyline;
+
+/**
+ * An interface for objects that need to know when the statistics of an assembly line change.
+ */
+interface StatisticsListener {
+
+	/**
+	 * Called when an order has been finished on an assembly line.
+	 * @param stats		The statistics of the assembly line.
+	 * @param delay		The delay of the finished order.
+	 * @param minute	The time the order was finished in minutes since the epoch.
+	 */
+	void finishedCarOrder(StatisticsAssemblyLine stats, int delay, long minute);
+
+	/**
+	 * Called when an assembly line has gone to the next day.
+	 * @param stats			The statistics of the assembly line.
+	 * @param day			The number of the day that has ended, the first day of the assembly line being 0.
+	 * @param finishedCars	The number of orders that have been finished on that day.
+	 */
+	void finishedDay(StatisticsAssemblyLine stats, int day, int finishedCars);
+}
@@ -0,0 +1,102 @@
+package logic.assemblyline;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+
+/**
+ * A class with the time arithmetic used by the scheduler. Times are represented as the number of minutes
+ * since the epoch, so scheduling does not create a date time object for every step. Fields like the minute
+ * of the day are those of the default time zone, just like they are for date time objects.
+ * Date times are converted to whole minutes, any seconds are dropped.
+ */
+final class Timeline {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private Timeline(){
+
+	}
+
+	/**
+	 * Returns the given time as minutes since the epoch.
+	 * @param time	The time that needs to be converted.
+	 * @return	The number of whole minutes since the epoch of the given time.
+	 */
+	static long toMinute(DateTime time){
+		return floorDiv(time.getMillis(), DateTimeConstants.MILLIS_PER_MINUTE);
+	}
+
+	/**
+	 * Returns the given minute as a date time in the default time zone.
+	 * @param minute	The number of minutes since the epoch.
+	 * @return	The date time of the given minute.
+	 */
+	static DateTime toDateTime(long minute){
+		return new DateTime(minute * DateTimeConstants.MILLIS_PER_MINUTE);
+	}
+
+	/**
+	 * Returns the minute of the day of the given minute.
+	 * @param minute	The number of minutes since the epoch.
+	 * @return	The minute of the day of the given minute, between 0 and 1439.
+	 */
+	static int getMinuteOfDay(long minute){
+		return (int) floorMod(toLocal(minute), DateTimeConstants.MINUTES_PER_DAY);
+	}
+
+	/**
+	 * Checks whether there is less than a whole day between the given minutes.
+	 * @param first		The number of minutes since the epoch of the first time.
+	 * @param second	The number of minutes since the epoch of the second time.
+	 * @return	True if there are no whole days between the given times.
+	 * 			False otherwise.
+	 */
+	static boolean withinADay(long first, long second){
+		return Math.abs(toLocal(first) - toLocal(second)) < DateTimeConstants.MINUTES_PER_DAY;
+	}
+
+	/**
+	 * Returns the local minute of the given minute: the minutes since the epoch as shown on the clock of the default time zone.
+	 * @param minute	The number of minutes since the epoch.
+	 * @return	The local minute of the given minute.
+	 */
+	static long toLocal(long minute){
+		long millis = minute * DateTimeConstants.MILLIS_PER_MINUTE;
+		return floorDiv(millis + DateTimeZone.getDefault().getOffset(millis), DateTimeConstants.MILLIS_PER_MINUTE);
+	}
+
+	/**
+	 * Returns the minute of the given local minute of the default time zone.
+	 * @param local	The local minute.
+	 * @return	The number of minutes since the epoch of the given local minute.
+	 */
+	static long fromLocal(long local){
+		long millis = DateTimeZone.getDefault().convertLocalToUTC(local * DateTimeConstants.MILLIS_PER_MINUTE, false);
+		return floorDiv(millis, DateTimeConstants.MILLIS_PER_MINUTE);
+	}
+
+	/**
+	 * Returns the largest integer that is not larger than the quotient of the given numbers.
+	 * @param dividend	The dividend.
+	 * @param divisor	The positive divisor.
+	 * @return	The quotient rounded down.
+	 */
+	static long floorDiv(long dividend, long divisor){
+		long quotient = dividend / divisor;
+		if(dividend % divisor < 0)
+			quotient--;
+		return quotient;
+	}
+
+	/**
+	 * Returns the remainder of the division of the given numbers with the sign of the divisor.
+	 * @param dividend	The dividend.
+	 * @param divisor	The positive divisor.
+	 * @return	The remainder of the given numbers, between 0 and the divisor.
+	 */
+	static long floorMod(long dividend, long divisor){
+		return dividend - floorDiv(dividend, divisor) * divisor;
+	}
+}
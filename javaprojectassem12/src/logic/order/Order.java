@@ -2,16 +2,26 @@ package logic.order;
 
 import interfaces.Printable;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import logic.workstation.Task;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
 
 /**
  * A class which represents different orders placed by users, only car orders and task orders available at the moment.
  */
-public abstract class Order implements Comparable<Order>, Printable<Order>{
+public abstract class Order implements Comparable<Order>, Printable<Order>, Serializable{
+	
+	/**
+	 * The version of the serialized form of a order.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * The time this order was created.
@@ -24,16 +34,34 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 	private DateTime endTime;
 	
 	/**
-	 * An estimated time for when this order will be finished.
+	 * An estimated time for when this order will be finished, null if there is none.
 	 * If the order is finished this will be the same as the end time.
+	 * The estimate is replaced as a whole, so a thread that reads it without a lock always sees a minute and a time
+	 * that belong together.
+	 */
+	private volatile Estimate estimate;
+	
+	/**
+	 * The value of the estimated end minute of an order without an estimated end time.
 	 */
-	private DateTime estimatedEndTime;
+	public static final long NO_ESTIMATE = Long.MIN_VALUE;
 	
 	/**
 	 * The amount of delay there is on this order in minutes.
 	 */
 	private int delay = 0;
 	
+	/**
+	 * The estimated phase durations of this order at each position, for each layout of workstations
+	 * on which this order has been estimated. Several assembly lines can estimate this order at the same time.
+	 */
+	private Map<List<?>, int[]> phaseDurations = new ConcurrentHashMap<>();
+	
+	/**
+	 * The specification of this order, null until it is first needed.
+	 */
+	private Specification specification;
+	
 	/**
 	 * Returns the time this order was created.
 	 * @return The time this order was created.
@@ -56,7 +84,24 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 	 * @return The time this order was completed.
 	 */
 	public DateTime getEstimatedEndTime() {
-		return estimatedEndTime;
+		Estimate current = estimate;
+		if(current == null)
+			return null;
+		if(current.time != null)
+			return current.time;
+		return new DateTime(current.minute * DateTimeConstants.MILLIS_PER_MINUTE);
+	}
+	
+	/**
+	 * Returns the estimated end time of this order in minutes since the epoch.
+	 * @return	The estimated end time of this order in whole minutes since the epoch.
+	 * 			NO_ESTIMATE if this order has no estimated end time.
+	 */
+	public long getEstimatedEndMinute() {
+		Estimate current = estimate;
+		if(current == null)
+			return NO_ESTIMATE;
+		return current.minute;
 	}
 	
 	/**
@@ -80,7 +125,23 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 	 * @param time	Time to set the estimated end time to.
 	 */
 	public void setEstimatedEndTime(DateTime time){
-		this.estimatedEndTime = time;
+		if(time == null){
+			this.estimate = null;
+		}else{
+			long minute = time.getMillis() / DateTimeConstants.MILLIS_PER_MINUTE;
+			if(time.getMillis() % DateTimeConstants.MILLIS_PER_MINUTE < 0)
+				minute--;
+			this.estimate = new Estimate(minute, time);
+		}
+	}
+	
+	/**
+	 * Sets the estimated end time to the given minute. The date time of the estimate is only made when it is asked for.
+	 * @param minute	The estimated end time in minutes since the epoch.
+	 */
+	public void setEstimatedEndMinute(long minute){
+		if(minute != getEstimatedEndMinute())
+			this.estimate = new Estimate(minute, null);
 	}
 	
 	/**
@@ -89,7 +150,7 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 	 */
 	public void setEndTime(DateTime time){
 		this.endTime = time;
-		this.estimatedEndTime = endTime;
+		setEstimatedEndTime(endTime);
 	}
 
 	/**
@@ -101,6 +162,41 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 			this.startTime = startTime;
 	}
 	
+	/**
+	 * Returns the cached estimated phase durations of this order for the given layout of workstations.
+	 * The returned array must not be changed.
+	 * @param layout	The layout of a pipeline of workstations: the capabilities and the number of lanes of its posts.
+	 * @return	The estimated phase durations of this order at each position of the given layout.
+	 * 			Null if they have not been cached for the given layout.
+	 */
+	public int[] getPhaseDurations(List<?> layout){
+		return phaseDurations.get(layout);
+	}
+	
+	/**
+	 * Caches the given estimated phase durations of this order for the given layout of workstations.
+	 * @param layout	The layout of a pipeline of workstations: the capabilities and the number of lanes of its posts.
+	 * @param durations	The estimated phase durations of this order at each position of the given layout.
+	 */
+	public void cachePhaseDurations(List<?> layout, int[] durations){
+		phaseDurations.put(layout, durations);
+	}
+	
+	/**
+	 * Returns the specification of this order: its model and the vehicle parts of its tasks.
+	 * @return	The specification of this order.
+	 */
+	public Specification getSpecification(){
+		if(specification == null){
+			List<VehiclePart> parts = new ArrayList<>();
+			for(Task task : getTasks()){
+				parts.add(task.getVehiclePart());
+			}
+			specification = Specification.of(getModel(), parts);
+		}
+		return specification;
+	}
+	
 	/**
 	 * Returns the time this order needs to be finished.
 	 * @return	The time which is the absolute end time of this order.
@@ -140,13 +236,22 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 	}
 	
 	/**
-	 * Checks if this order's tasks are the same as a given order's tasks.
+	 * Checks if this order's specification is the same as a given order's specification.
 	 * @param other	The other order against which we want to check equality.
-	 * @return	True if this order's tasks are the same as the given order's tasks.
+	 * @return	True if this order's model and parts are the same as the given order's model and parts.
 	 * 			False otherwise.
 	 */
 	private boolean equals(Order other){
-		return this.getTasks().equals(other.getTasks());
+		return this.getSpecification() == other.getSpecification();
+	}
+	
+	/**
+	 * Returns a hash code based on the specification of this order.
+	 * @return	The hash code of the specification of this order.
+	 */
+	@Override
+	public int hashCode(){
+		return getSpecification().hashCode();
 	}
 	
 	/**
@@ -160,7 +265,7 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 	public int compareTo(Order o) {
 		if(o == null)
 			return -1;
-		return this.estimatedEndTime.compareTo(o.estimatedEndTime);
+		return this.getEstimatedEndTime().compareTo(o.getEstimatedEndTime());
 	}
 	
 	/**
@@ -189,4 +294,35 @@ public abstract class Order implements Comparable<Order>, Printable<Order>{
 			return "Completed";
 		return "Pending";
 	}
+
+	/**
+	 * An estimated end time of an order: its minute and, if it was given as a date time, that date time.
+	 */
+	private static final class Estimate implements Serializable {
+
+		/**
+		 * The version of the serialized form of an estimate.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The estimated end time in minutes since the epoch.
+		 */
+		private final long minute;
+
+		/**
+		 * The estimated end time as it was given, null if it was given in minutes.
+		 */
+		private final DateTime time;
+
+		/**
+		 * Makes a new estimate with the given minute and date time.
+		 * @param minute	The estimated end time in minutes since the epoch.
+		 * @param time		The estimated end time as a date time, or null.
+		 */
+		private Estimate(long minute, DateTime time){
+			this.minute = minute;
+			this.time = time;
+		}
+	}
 }
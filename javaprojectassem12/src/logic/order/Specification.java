@@ -0,0 +1,126 @@
+package logic.order;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A class representing the specification of an order: the vehicle model and the set of vehicle parts
+ * that need to be installed. The parts are kept as a bitmask of their ordinals, so there can be at most 64 vehicle parts.
+ * Specifications are interned, so two equal specifications are always the same object.
+ */
+public final class Specification implements Serializable {
+
+	/**
+	 * The version of the serialized form of a specification.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The specifications that have been made, each mapped to itself.
+	 */
+	private static final ConcurrentMap<Specification, Specification> interned = new ConcurrentHashMap<>();
+
+	/**
+	 * Checks that every vehicle part has a bit in the mask, so a new vehicle part can not silently share the bit of
+	 * another one.
+	 */
+	static {
+		if(VehiclePart.values().length > Long.SIZE)
+			throw new IllegalStateException("A specification can hold at most " + Long.SIZE + " vehicle parts, but there are "
+					+ VehiclePart.values().length + ".");
+	}
+
+	/**
+	 * The vehicle model of this specification, null if the order has no model.
+	 */
+	private final VehicleModel model;
+
+	/**
+	 * A bitmask with a bit set for the ordinal of each vehicle part of this specification.
+	 */
+	private final long parts;
+
+	/**
+	 * Makes a new specification with the given model and parts.
+	 * @param model	The vehicle model of the specification.
+	 * @param parts	The bitmask of the vehicle parts of the specification.
+	 */
+	private Specification(VehicleModel model, long parts){
+		this.model = model;
+		this.parts = parts;
+	}
+
+	/**
+	 * Returns the specification with the given model and parts.
+	 * @param model	The vehicle model of the specification, null if there is none.
+	 * @param parts	The vehicle parts of the specification.
+	 * @return	The unique specification with the given model and parts.
+	 */
+	public static Specification of(VehicleModel model, Iterable<VehiclePart> parts){
+		long mask = 0;
+		for(VehiclePart part : parts){
+			mask |= 1L << part.ordinal();
+		}
+		Specification specification = new Specification(model, mask);
+		Specification existing = interned.putIfAbsent(specification, specification);
+		if(existing != null)
+			return existing;
+		return specification;
+	}
+
+	/**
+	 * Returns the interned specification equal to this specification, so a specification read from a snapshot
+	 * is still the same object as every equal specification.
+	 * @return	The unique specification with the model and parts of this specification.
+	 */
+	private Object readResolve(){
+		Specification existing = interned.putIfAbsent(this, this);
+		if(existing != null)
+			return existing;
+		return this;
+	}
+
+	/**
+	 * Returns the vehicle model of this specification.
+	 * @return	The vehicle model of this specification, null if there is none.
+	 */
+	public VehicleModel getModel(){
+		return model;
+	}
+
+	/**
+	 * Checks whether the given vehicle part is part of this specification.
+	 * @param part	The vehicle part that needs to be checked.
+	 * @return	True if the given part is part of this specification.
+	 * 			False otherwise.
+	 */
+	public boolean contains(VehiclePart part){
+		return (parts & (1L << part.ordinal())) != 0;
+	}
+
+	/**
+	 * Checks if this specification has the same model and parts as the given object.
+	 * @param obj	The object against which we want to check equality.
+	 * @return	True if the given object is a specification with the same model and parts.
+	 * 			False otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj){
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(this.getClass() != obj.getClass()) return false;
+		Specification other = (Specification) obj;
+		return this.model == other.model && this.parts == other.parts;
+	}
+
+	/**
+	 * Returns a hash code based on the model and parts of this specification.
+	 * @return	The hash code of this specification.
+	 */
+	@Override
+	public int hashCode(){
+		int result = model == null ? 0 : model.ordinal() + 1;
+		return 31 * result + (int) (parts ^ (parts >>> 32));
+	}
+}
@@ -13,6 +13,11 @@ import org.joda.time.format.DateTimeFormatter;
  */
 public class TaskOrder extends Order{
 	
+	/**
+	 * The version of the serialized form of a task order.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * A variable holding the details for this task order. 
 	 */
@@ -1,6 +1,7 @@
 
 package logic.order;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,7 +12,12 @@ import logic.workstation.Task;
 /**
  * A class holding more information about task orders.
  */
-public class TaskOrderDetails{
+public class TaskOrderDetails implements Serializable{
+	
+	/**
+	 * The version of the serialized form of a task order details.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * The absolute end time for this task order's details.
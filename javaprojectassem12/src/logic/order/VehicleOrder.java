@@ -14,6 +14,11 @@ import org.joda.time.format.DateTimeFormatter;
  */
 public class VehicleOrder extends Order{
 	
+	/**
+	 * The version of the serialized form of a vehicle order.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * A variable holding the vehicle order details. 
 	 */
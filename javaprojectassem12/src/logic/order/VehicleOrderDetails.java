@@ -1,5 +1,6 @@
 package logic.order;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,7 +9,12 @@ import logic.workstation.Task;
 /**
  * A class holding more information about vehicle orders.
  */
-public class VehicleOrderDetails{
+public class VehicleOrderDetails implements Serializable{
+	
+	/**
+	 * The version of the serialized form of a vehicle order details.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * A variable holding the type of vehicle model this is.
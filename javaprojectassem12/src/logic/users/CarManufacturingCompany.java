@@ -2,10 +2,20 @@ package logic.users;
 
 import interfaces.Printable;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.joda.time.DateTime;
 
@@ -19,13 +29,34 @@ import logic.workstation.Workstation;
 
 /**
  * Class used to describe a car manufacturing company.
+ * A company opened on a directory keeps a journal there: every command that changes its state is appended to the
+ * journal and is durable before the command returns, and every so many commands a snapshot of the whole company is
+ * written. Opening the directory again reads the latest snapshot and replays the commands after it.
+ * While a company has a journal its commands are carried out one at a time, in the order of the journal, so replaying
+ * the journal gives the same state. This costs parallelism: tasks on different assembly lines are no longer performed
+ * at the same time. They can not simply be journaled per line, because performing a task ends by moving whichever
+ * lines are ready, which depends on the state of all lines and so on the order of the tasks across lines. Only waiting
+ * for a command to become durable happens outside the command lock, so commands of different users still share a
+ * single force of the journal.
+ * A command is carried out before it is appended to the journal, so a command that fails leaves no entry behind. Other
+ * users can see the effects of a command shortly before it is durable; if the system stops in between, those effects
+ * are lost, but the caller of the command had not yet been told that it succeeded. A snapshot is taken under the
+ * command lock and holds exactly the commands appended before it, so it never holds an effect the journal lacks.
+ * A snapshot is the serialized company. Every class in it pins its serialVersionUID, so a later build can still read
+ * a snapshot as long as it does not change the fields of those classes incompatibly.
  */
-public class CarManufacturingCompany {
+public class CarManufacturingCompany implements Serializable {
 	
 	/**
-	 * HashMap holding all the users of this system together with their user names.
+	 * The version of the serialized form of a car manufacturing company.
 	 */
-	private HashMap<String,User> users;
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Map holding all the users of this system together with their user names.
+	 * Users can log in at the same time, so the map is concurrent.
+	 */
+	private ConcurrentMap<String,User> users;
 	
 	/**
 	 * List of all valid names for garage holders.
@@ -52,14 +83,185 @@ public class CarManufacturingCompany {
 	 */
 	private AssemblyLineScheduler assemblyLineScheduler;
 	
+	/**
+	 * The default number of commands after which a new snapshot is written.
+	 */
+	public static final int DEFAULT_SNAPSHOT_INTERVAL = 10000;
+	
+	/**
+	 * The journal of the commands of this company, null if the company has no journal.
+	 * The journal is not part of a snapshot.
+	 */
+	private transient Journal journal;
+	
+	/**
+	 * The lock under which the commands of this company are carried out and journaled while it has a journal.
+	 */
+	private final ReentrantLock commands = new ReentrantLock();
+	
+	/**
+	 * The lock held while a snapshot is taken, so only one snapshot is taken at a time.
+	 */
+	private final ReentrantLock snapshots = new ReentrantLock();
+	
 	/**
 	 * Makes a new car manufacturing company.
 	 */
 	public CarManufacturingCompany(){
 		this.assemblyLineScheduler = new AssemblyLineScheduler();
-		this.users = new HashMap<String,User>();
+		this.users = new ConcurrentHashMap<String,User>();
 		this.initialise();
 	}
+	
+	/**
+	 * Opens the car manufacturing company kept in the given directory, with a snapshot every
+	 * DEFAULT_SNAPSHOT_INTERVAL commands.
+	 * @param directory	The directory of the journal of the company.
+	 * @return	The company in the state of its latest journaled command.
+	 * @throws IOException	If the journal can not be read or written.
+	 */
+	public static CarManufacturingCompany open(File directory) throws IOException {
+		return open(directory, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+	
+	/**
+	 * Opens the car manufacturing company kept in the given directory. If the directory holds no snapshot and no
+	 * commands, a new company is made. Otherwise the latest snapshot is read and the commands after it are replayed.
+	 * From then on the commands of the company are appended to the journal in the directory.
+	 * @param directory	The directory of the journal of the company.
+	 * @param snapshotInterval	The number of commands after which a new snapshot is written.
+	 * @return	The company in the state of its latest journaled command.
+	 * @throws IOException	If the journal can not be read or written.
+	 */
+	public static CarManufacturingCompany open(File directory, int snapshotInterval) throws IOException {
+		if(!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("The directory " + directory + " can not be made.");
+		long snapshot = Journal.getLatestSnapshot(directory);
+		CarManufacturingCompany company;
+		if(snapshot < 0){
+			snapshot = 0;
+			company = new CarManufacturingCompany();
+		}else{
+			company = (CarManufacturingCompany) Journal.readSnapshot(directory, snapshot);
+		}
+		List<String> tail = Journal.readCommands(directory, snapshot);
+		for(int i = 0; i < tail.size(); i++){
+			try{
+				Commands.replay(company, tail.get(i));
+			}catch(RuntimeException e){
+				throw new IOException("The command " + (snapshot + i) + " can not be replayed.", e);
+			}
+		}
+		company.journal = new Journal(directory, snapshot + tail.size(), snapshot, snapshotInterval);
+		return company;
+	}
+	
+	/**
+	 * Returns the number of commands in the journal of this company, including the commands before its latest snapshot.
+	 * @return	0 if this company has no journal.
+	 * 			The number of commands in the journal otherwise.
+	 */
+	public long getJournalLength(){
+		if(journal == null)
+			return 0;
+		return journal.getLength();
+	}
+	
+	/**
+	 * Writes a snapshot of this company to its journal, so the commands before it no longer need to be replayed.
+	 * Commands wait while the company is serialized, but not while the snapshot is written.
+	 * @throws IOException	If the snapshot can not be written.
+	 * @throws IllegalStateException	If this company has no journal.
+	 */
+	public void snapshot() throws IOException {
+		if(journal == null)
+			throw new IllegalStateException("This company has no journal.");
+		snapshots.lock();
+		try{
+			writeSnapshot();
+		}finally{
+			snapshots.unlock();
+		}
+	}
+	
+	/**
+	 * Writes the remaining commands of the journal of this company and closes it. Commands that change the state of
+	 * this company can no longer be carried out afterwards.
+	 */
+	public void close(){
+		if(journal != null)
+			journal.close();
+	}
+	
+	/**
+	 * Serializes this company while no command is carried out and writes the snapshot to the journal.
+	 * The caller has to hold the snapshot lock.
+	 * @throws IOException	If the snapshot can not be written.
+	 */
+	private void writeSnapshot() throws IOException {
+		long index;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		commands.lock();
+		try{
+			index = journal.startSnapshot();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(this);
+			out.close();
+		}finally{
+			commands.unlock();
+		}
+		journal.writeSnapshot(index, bytes.toByteArray());
+	}
+	
+	/**
+	 * Carries out the given command. If this company has a journal, the command is carried out under the command
+	 * lock and then appended to the journal, and this method returns once the command is durable. The command lock
+	 * is global, so commands on different assembly lines wait for each other; see the class documentation. If a
+	 * snapshot is due and no other snapshot is being taken, a snapshot is written afterwards.
+	 * @param command	The command as a line of the journal, only used if this company has a journal.
+	 * @param work		The work of the command.
+	 * @return	The result of the work.
+	 */
+	private <T> T execute(String command, Callable<T> work){
+		if(journal == null)
+			return call(work);
+		T result;
+		long entry;
+		commands.lock();
+		try{
+			result = call(work);
+			entry = journal.append(command);
+		}finally{
+			commands.unlock();
+		}
+		journal.await(entry);
+		if(journal.isSnapshotDue() && snapshots.tryLock()){
+			try{
+				if(journal.isSnapshotDue())
+					writeSnapshot();
+			}catch(IOException e){
+				// The journal still holds every command, so the snapshot is tried again after the next command.
+			}finally{
+				snapshots.unlock();
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Calls the given work.
+	 * @param work	The work.
+	 * @return	The result of the work.
+	 */
+	private static <T> T call(Callable<T> work){
+		try{
+			return work.call();
+		}catch(RuntimeException e){
+			throw e;
+		}catch(Exception e){
+			throw new IllegalStateException(e);
+		}
+	}
 
 	/**
 	 * Initializes the users of this car manufacturing company.
@@ -78,11 +280,12 @@ public class CarManufacturingCompany {
 	/**
 	 * Checks if the given user name is valid and returns the corresponding user.
 	 * If the given user name is valid and the user does not exist yet, the user is
-	 * added to the HashMap of users. If the given user name is not valid, 
+	 * added to the map of users. If two threads log in a new user at the same time, they
+	 * both get the same user. If the given user name is not valid, 
 	 * this method returns null.
 	 * @param userName		The user name used to login.
 	 * @return	Returns the user corresponding to the given user name otherwise if:
-	 * 			- the HashMap of users contains the given user name as a key,
+	 * 			- the map of users contains the given user name as a key,
 	 * 			- the list of valid manager names contains the given user name,
 	 * 			- the list of valid garage holders names contains the given user name or
 	 * 			- the list of valid mechanic names contains the given user name.
@@ -90,28 +293,41 @@ public class CarManufacturingCompany {
 	 * 			Returns null otherwise.
 	 */
 	public User logIn(String userName){
-		if(users.containsKey(userName)){
-			return users.get(userName);
+		if(userName == null)
+			return null;
+		User user = users.get(userName);
+		if(user != null){
+			return user;
+		}
+		user = this.makeUser(userName);
+		if(user == null){
+			return null;
+		}
+		User existing = users.putIfAbsent(userName, user);
+		if(existing != null){
+			return existing;
 		}
+		return user;
+	}
+	
+	/**
+	 * Makes a new user with the given user name, of the function that belongs to the given user name.
+	 * @param userName	The user name of the new user.
+	 * @return	The new user if the given user name is valid.
+	 * 			Null otherwise.
+	 */
+	private User makeUser(String userName){
 		if(validNamesManager.contains(userName)){
-			Manager user = new Manager(this, userName);
-			users.put(userName, user);
-			return user;
+			return new Manager(this, userName);
 		}
 		if(validNamesGarageHolders.contains(userName)){
-			GarageHolder user = new GarageHolder(this, userName);
-			users.put(userName, user);
-			return user;
+			return new GarageHolder(this, userName);
 		}
 		if(validNamesMechanic.contains(userName)){
-			Mechanic user = new Mechanic(this, userName);
-			users.put(userName, user);
-			return user;
+			return new Mechanic(this, userName);
 		}
 		if(validNamesCustomsManager.contains(userName)){
-			CustomsManager user = new CustomsManager(this, userName);
-			users.put(userName, user);
-			return user;
+			return new CustomsManager(this, userName);
 		}
 		return null;
 	}
@@ -121,8 +337,65 @@ public class CarManufacturingCompany {
 	 * @param order	The order which needs to be added to the assembly line.
 	 */
 	public void addOrder(Order order) {
-		if(order != null)
-			this.assemblyLineScheduler.addOrder(order);
+		addOrder(order, null);
+	}
+	
+	/**
+	 * Adds the given order, placed by the given user, to the assembly line if the given order is not null.
+	 * If the user is a garage holder, the order is committed to the garage holder in the same command, so a
+	 * snapshot never has the order on an assembly line without it being committed.
+	 * @param order	The order which needs to be added to the assembly line.
+	 * @param user	The user who placed the order, or null.
+	 */
+	void addOrder(final Order order, final User user) {
+		if(order == null)
+			return;
+		execute(journal == null ? null : Commands.addOrders(Collections.singletonList(order), user, false), new Callable<Void>(){
+			@Override
+			public Void call(){
+				assemblyLineScheduler.addOrder(order);
+				commit(Collections.singletonList(order), user);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Adds the given orders to the assembly lines if the given collection is not null.
+	 * Each assembly line is only rescheduled once for the whole batch.
+	 * @param orders	The orders which need to be added to the assembly lines.
+	 */
+	public void addOrders(Collection<? extends Order> orders) {
+		addOrders(orders, null);
+	}
+	
+	/**
+	 * Adds the given orders, placed by the given user, to the assembly lines if the given collection is not null.
+	 * If the user is a garage holder, the orders are committed to the garage holder in the same command.
+	 * @param orders	The orders which need to be added to the assembly lines.
+	 * @param user		The user who placed the orders, or null.
+	 */
+	void addOrders(final Collection<? extends Order> orders, final User user) {
+		if(orders == null)
+			return;
+		execute(journal == null ? null : Commands.addOrders(orders, user, true), new Callable<Void>(){
+			@Override
+			public Void call(){
+				assemblyLineScheduler.addOrders(orders);
+				commit(orders, user);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Commits the given orders to the given user if the user is a garage holder.
+	 * @param orders	The orders that have been added to the assembly lines.
+	 * @param user		The user who placed the orders, or null.
+	 */
+	private void commit(Collection<? extends Order> orders, User user) {
+		if(user instanceof GarageHolder)
+			((GarageHolder) user).commit(orders);
 	}
 	
 	/**
@@ -161,10 +434,15 @@ public class CarManufacturingCompany {
 	 * @return	True if the task is completed successfully
 	 * 			False the task could not be completed.
 	 */
-	public boolean doTask(Printable<Task> task, Printable<AssemblyLine> assemblyLine, int duration){
-		if(checkPhaseDuration(duration, assemblyLine))
-			return assemblyLineScheduler.doTask(task, assemblyLine, duration);
-		return false;
+	public boolean doTask(final Printable<Task> task, final Printable<AssemblyLine> assemblyLine, final int duration){
+		return execute(journal == null ? null : Commands.doTask(this, task, assemblyLine, duration), new Callable<Boolean>(){
+			@Override
+			public Boolean call(){
+				if(checkPhaseDuration(duration, assemblyLine))
+					return assemblyLineScheduler.doTask(task, assemblyLine, duration);
+				return false;
+			}
+		});
 	}
 	
 	/**
@@ -214,8 +492,14 @@ public class CarManufacturingCompany {
 	 * @param order	The order that has to be used as a template for the strategy.
 	 * @param assemblyLine	The assembly line of which the strategy needs to be changed.
 	 */
-	public void changeStrategy(Order order, Printable<AssemblyLine> assemblyLine) {
-		assemblyLineScheduler.changeStrategy(order, assemblyLine);
+	public void changeStrategy(final Order order, final Printable<AssemblyLine> assemblyLine) {
+		execute(journal == null ? null : Commands.changeStrategy(this, order, assemblyLine), new Callable<Void>(){
+			@Override
+			public Void call(){
+				assemblyLineScheduler.changeStrategy(order, assemblyLine);
+				return null;
+			}
+		});
 	}
 	
 	/**
@@ -223,8 +507,14 @@ public class CarManufacturingCompany {
 	 * @param order	The order that has to be used as a template for the strategy.
 	 * @param assemblyLine	The assembly line of which the strategy needs to be changed.
 	 */
-	public void changeStrategyAllLines(Order order) {
-		assemblyLineScheduler.changeStrategyAllLines(order);
+	public void changeStrategyAllLines(final Order order) {
+		execute(journal == null ? null : Commands.changeStrategy(this, order, null), new Callable<Void>(){
+			@Override
+			public Void call(){
+				assemblyLineScheduler.changeStrategyAllLines(order);
+				return null;
+			}
+		});
 	}
 	
 	/**
@@ -280,8 +570,14 @@ public class CarManufacturingCompany {
 	 * @param activeAssemblyLine	The assembly line which status has to be changed.
 	 * @param newStatus	The new status for the given assembly line.
 	 */
-	public void changeAssemblyLineStatus(Printable<AssemblyLine> activeAssemblyLine, OperationalStatus newStatus) {
-		assemblyLineScheduler.changeAssemblyLineStatus(activeAssemblyLine, newStatus);
+	public void changeAssemblyLineStatus(final Printable<AssemblyLine> activeAssemblyLine, final OperationalStatus newStatus) {
+		execute(journal == null ? null : Commands.changeStatus(this, activeAssemblyLine, newStatus), new Callable<Void>(){
+			@Override
+			public Void call(){
+				assemblyLineScheduler.changeAssemblyLineStatus(activeAssemblyLine, newStatus);
+				return null;
+			}
+		});
 	}
 	
 }
@@ -0,0 +1,322 @@
+package logic.users;
+
+import interfaces.Printable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import logic.assemblyline.AssemblyLine;
+import logic.assemblyline.OperationalStatus;
+import logic.order.Order;
+import logic.order.TaskOrder;
+import logic.order.TaskOrderDetails;
+import logic.order.VehicleModel;
+import logic.order.VehicleOrder;
+import logic.order.VehicleOrderDetails;
+import logic.order.VehiclePart;
+import logic.workstation.Task;
+import logic.workstation.Workstation;
+
+import org.joda.time.DateTime;
+
+/**
+ * A class which writes the commands that change the state of a car manufacturing company as lines of text for its
+ * journal, and replays them. The fields of a command are separated by tabs. Assembly lines are given by their index,
+ * vehicle models, vehicle parts and operational statuses by the names of their constants, and an order by its
+ * specification: V/model/part,part,... for a vehicle order and T/part/deadline for a task order, with the deadline
+ * in milliseconds.
+ */
+class Commands {
+
+	/**
+	 * The command placing a single order: ORDER, the user name and the order.
+	 */
+	private static final String ORDER = "ORDER";
+
+	/**
+	 * The command placing a batch of orders: ORDERS, the user name and the orders.
+	 */
+	private static final String ORDERS = "ORDERS";
+
+	/**
+	 * The command doing a task: TASK, the assembly line, the vehicle part of the task, the duration and the index of
+	 * the workstation of the task, empty if the task is not at a workstation.
+	 */
+	private static final String TASK = "TASK";
+
+	/**
+	 * The command changing a strategy: STRATEGY, the assembly line, empty for all lines, and the template order, empty
+	 * for the first in first out strategy.
+	 */
+	private static final String STRATEGY = "STRATEGY";
+
+	/**
+	 * The command changing the operational status of an assembly line: STATUS, the assembly line and the status.
+	 */
+	private static final String STATUS = "STATUS";
+
+	/**
+	 * This class only has static methods.
+	 */
+	private Commands(){
+	}
+
+	/**
+	 * Returns the command placing the given orders.
+	 * @param orders	The orders.
+	 * @param user		The user who places the orders, or null.
+	 * @param batch		True if the orders are placed as one batch.
+	 * 					False if there is one order, placed on its own.
+	 * @return	The command placing the given orders.
+	 */
+	static String addOrders(Collection<? extends Order> orders, User user, boolean batch){
+		StringBuilder command = new StringBuilder(batch ? ORDERS : ORDER).append('\t');
+		if(user != null)
+			command.append(user.getUserName());
+		for(Order order : orders){
+			command.append('\t').append(encode(order));
+		}
+		return command.toString();
+	}
+
+	/**
+	 * Returns the command doing the given task.
+	 * @param company	The company of the assembly line.
+	 * @param task		The task.
+	 * @param line		The assembly line of the task.
+	 * @param duration	The duration of the task.
+	 * @return	The command doing the given task.
+	 */
+	static String doTask(CarManufacturingCompany company, Printable<Task> task, Printable<AssemblyLine> line, int duration){
+		String part = "";
+		String station = "";
+		if(task instanceof Task){
+			part = ((Task) task).getVehiclePart().name();
+			int index = line == null ? -1 : company.getWorkStationsFromAssemblyLine(line).indexOf(((Task) task).getWorkstation());
+			if(index >= 0)
+				station = String.valueOf(index);
+		}
+		return TASK + '\t' + company.getAssemblyLines().indexOf(line) + '\t' + part + '\t' + duration + '\t' + station;
+	}
+
+	/**
+	 * Returns the command changing the strategy of the given assembly line.
+	 * @param company	The company of the assembly line.
+	 * @param order		The template order of the strategy, or null.
+	 * @param line		The assembly line, or null for all assembly lines.
+	 * @return	The command changing the strategy.
+	 */
+	static String changeStrategy(CarManufacturingCompany company, Order order, Printable<AssemblyLine> line){
+		String index = line == null ? "" : String.valueOf(company.getAssemblyLines().indexOf(line));
+		return STRATEGY + '\t' + index + '\t' + (order == null ? "" : encode(order));
+	}
+
+	/**
+	 * Returns the command changing the operational status of the given assembly line.
+	 * @param company	The company of the assembly line.
+	 * @param line		The assembly line.
+	 * @param status	The new status.
+	 * @return	The command changing the operational status.
+	 */
+	static String changeStatus(CarManufacturingCompany company, Printable<AssemblyLine> line, OperationalStatus status){
+		return STATUS + '\t' + company.getAssemblyLines().indexOf(line) + '\t' + status.name();
+	}
+
+	/**
+	 * Replays the given command on the given company. Orders of a garage holder or a customs shop manager are
+	 * placed by that user again, so they are committed orders of that user.
+	 * @param company	The company, which must not have a journal while the command is replayed.
+	 * @param command	The command.
+	 * @throws IllegalArgumentException	If the command is not valid.
+	 */
+	static void replay(CarManufacturingCompany company, String command){
+		String[] fields = command.split("\t", -1);
+		switch(fields[0]){
+		case ORDER:
+			replayOrder(company, user(company, fields[1]), fields[2]);
+			break;
+		case ORDERS:
+			replayOrders(company, user(company, fields[1]), fields);
+			break;
+		case TASK:
+			Printable<AssemblyLine> line = line(company, fields[1]);
+			company.doTask(task(company, line, fields), line, Integer.parseInt(fields[3]));
+			break;
+		case STRATEGY:
+			Order order = fields[2].isEmpty() ? null : decode(fields[2]);
+			if(fields[1].isEmpty())
+				company.changeStrategyAllLines(order);
+			else
+				company.changeStrategy(order, line(company, fields[1]));
+			break;
+		case STATUS:
+			company.changeAssemblyLineStatus(line(company, fields[1]), OperationalStatus.valueOf(fields[2]));
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown command: " + fields[0]);
+		}
+	}
+
+	/**
+	 * Replays a single order, placed by the given user.
+	 * @param company	The company.
+	 * @param user		The user who placed the order, or null.
+	 * @param order		The specification of the order.
+	 */
+	private static void replayOrder(CarManufacturingCompany company, User user, String order){
+		if(user instanceof GarageHolder && order.startsWith("V/")){
+			((GarageHolder) user).placeOrder(decodeVehicle(order));
+		}else if(user instanceof CustomsManager && order.startsWith("T/")){
+			((CustomsManager) user).placeOrder(decodeTask(order));
+		}else{
+			company.addOrder(decode(order));
+		}
+	}
+
+	/**
+	 * Replays a batch of orders, placed by the given user.
+	 * @param company	The company.
+	 * @param user		The user who placed the orders, or null.
+	 * @param fields	The fields of the command, of which the orders start at index 2.
+	 */
+	private static void replayOrders(CarManufacturingCompany company, User user, String[] fields){
+		if(user instanceof GarageHolder){
+			List<VehicleOrderDetails> details = new ArrayList<>();
+			for(int i = 2; i < fields.length; i++){
+				details.add(decodeVehicle(fields[i]));
+			}
+			((GarageHolder) user).placeOrders(details);
+		}else{
+			List<Order> orders = new ArrayList<>();
+			for(int i = 2; i < fields.length; i++){
+				orders.add(decode(fields[i]));
+			}
+			company.addOrders(orders);
+		}
+	}
+
+	/**
+	 * Returns the task of a TASK command. If the command gives the workstation of the task, it is the task for the
+	 * vehicle part at that workstation, so a task of a post with several lanes is done at the same lane again.
+	 * Otherwise it is a new task for the vehicle part.
+	 * @param company	The company.
+	 * @param line		The assembly line of the task, or null.
+	 * @param fields	The fields of the command.
+	 * @return	Null if the command has no vehicle part.
+	 * 			The task of the command otherwise.
+	 */
+	private static Printable<Task> task(CarManufacturingCompany company, Printable<AssemblyLine> line, String[] fields){
+		if(fields[2].isEmpty())
+			return null;
+		VehiclePart part = VehiclePart.valueOf(fields[2]);
+		if(line != null && fields.length > 4 && !fields[4].isEmpty()){
+			List<Printable<Workstation>> stations = company.getWorkStationsFromAssemblyLine(line);
+			int index = Integer.parseInt(fields[4]);
+			if(index < stations.size()){
+				for(Printable<Task> task : company.getAllTasksAt(stations.get(index), line)){
+					if(((Task) task).getVehiclePart() == part)
+						return task;
+				}
+			}
+		}
+		return new Task(part, 0);
+	}
+
+	/**
+	 * Returns the user with the given name.
+	 * @param company	The company of the user.
+	 * @param name		The name of the user, empty if there is no user.
+	 * @return	Null if the name is empty.
+	 * 			The user with the given name otherwise.
+	 */
+	private static User user(CarManufacturingCompany company, String name){
+		if(name.isEmpty())
+			return null;
+		return company.logIn(name);
+	}
+
+	/**
+	 * Returns the assembly line with the given index.
+	 * @param company	The company of the assembly line.
+	 * @param index		The index of the assembly line.
+	 * @return	Null if there is no assembly line with the given index.
+	 * 			The assembly line with the given index otherwise.
+	 */
+	private static Printable<AssemblyLine> line(CarManufacturingCompany company, String index){
+		List<Printable<AssemblyLine>> lines = company.getAssemblyLines();
+		int i = Integer.parseInt(index);
+		if(i < 0 || i >= lines.size())
+			return null;
+		return lines.get(i);
+	}
+
+	/**
+	 * Returns the specification of the given order.
+	 * @param order	The order.
+	 * @return	The specification of the given order.
+	 * @throws IllegalArgumentException	If the order is neither a vehicle order nor a task order.
+	 */
+	private static String encode(Order order){
+		StringBuilder text = new StringBuilder();
+		if(order instanceof VehicleOrder){
+			text.append("V/").append(order.getModel().name()).append('/');
+			List<Task> tasks = order.getTasks();
+			for(int i = 0; i < tasks.size(); i++){
+				if(i > 0)
+					text.append(',');
+				text.append(tasks.get(i).getVehiclePart().name());
+			}
+		}else if(order instanceof TaskOrder){
+			text.append("T/").append(order.getTasks().get(0).getVehiclePart().name()).append('/');
+			if(order.getDeadLine() != null)
+				text.append(order.getDeadLine().getMillis());
+		}else{
+			throw new IllegalArgumentException("A " + order.getClass().getSimpleName() + " can not be journaled.");
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Returns a new order with the given specification.
+	 * @param order	The specification of the order.
+	 * @return	The new order.
+	 */
+	private static Order decode(String order){
+		if(order.startsWith("T/"))
+			return new TaskOrder(decodeTask(order));
+		return new VehicleOrder(decodeVehicle(order));
+	}
+
+	/**
+	 * Returns the vehicle order details with the given specification.
+	 * @param order	The specification of a vehicle order.
+	 * @return	The vehicle order details.
+	 * @throws IllegalArgumentException	If the specification is not one of a vehicle order.
+	 */
+	private static VehicleOrderDetails decodeVehicle(String order){
+		String[] fields = order.split("/", -1);
+		if(fields.length != 3 || !fields[0].equals("V"))
+			throw new IllegalArgumentException("Not a vehicle order: " + order);
+		List<VehiclePart> parts = new ArrayList<>();
+		for(String part : fields[2].split(",")){
+			if(!part.isEmpty())
+				parts.add(VehiclePart.valueOf(part));
+		}
+		return new VehicleOrderDetails(VehicleModel.valueOf(fields[1]), parts);
+	}
+
+	/**
+	 * Returns the task order details with the given specification.
+	 * @param order	The specification of a task order.
+	 * @return	The task order details.
+	 * @throws IllegalArgumentException	If the specification is not one of a task order.
+	 */
+	private static TaskOrderDetails decodeTask(String order){
+		String[] fields = order.split("/", -1);
+		if(fields.length != 3 || !fields[0].equals("T"))
+			throw new IllegalArgumentException("Not a task order: " + order);
+		DateTime deadline = fields[2].isEmpty() ? null : new DateTime(Long.parseLong(fields[2]));
+		return new TaskOrderDetails(VehiclePart.valueOf(fields[1]), deadline);
+	}
+}
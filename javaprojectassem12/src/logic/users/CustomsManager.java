@@ -8,6 +8,11 @@ import logic.order.TaskOrderDetails;
  */
 public class CustomsManager extends User{
 	
+	/**
+	 * The version of the serialized form of a customs manager.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * The manufacturing company for which the customs shop manager works.
 	 */
@@ -33,7 +38,7 @@ public class CustomsManager extends User{
 		if(details == null)
 			return null;
 		TaskOrder order = new TaskOrder(details);
-		company.addOrder(order);
+		company.addOrder(order, this);
 		return order.toString();
 	}
 
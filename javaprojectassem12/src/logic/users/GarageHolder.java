@@ -3,7 +3,10 @@ package logic.users;
 import interfaces.Printable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import logic.order.Order;
 import logic.order.VehicleOrder;
@@ -14,6 +17,11 @@ import logic.order.VehicleOrderDetails;
  */
 public class GarageHolder extends User{
 	
+	/**
+	 * The version of the serialized form of a garage holder.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * The manufacturing company for which the garage holder works.
 	 */
@@ -21,8 +29,9 @@ public class GarageHolder extends User{
 	
 	/**
 	 * List of all the vehicle orders committed by this garage holder.
+	 * The garage holder can be logged in more than once at the same time, so the list can be read while orders are committed.
 	 */
-	private ArrayList<VehicleOrder> committedOrders;
+	private List<VehicleOrder> committedOrders;
 	
 	/**
 	 * Constructs a new garage holder initializing its company and user name with the given 
@@ -33,7 +42,7 @@ public class GarageHolder extends User{
 	public GarageHolder(CarManufacturingCompany company, String userName){
 		super(userName);
 		this.company = company;
-		this.committedOrders = new ArrayList<VehicleOrder>();
+		this.committedOrders = new CopyOnWriteArrayList<VehicleOrder>();
 	}
 	
 	/**
@@ -71,7 +80,35 @@ public class GarageHolder extends User{
 		if(details == null)
 			return;
 		VehicleOrder order = new VehicleOrder(details);
-		company.addOrder(order);
-		this.committedOrders.add(order);
+		company.addOrder(order, this);
+	}
+	
+	/**
+	 * Commits a new order for each of the given car order details that are not null, as one batch.
+	 * @param detailsList The car order details for the new orders.
+	 */
+	public void placeOrders(Collection<VehicleOrderDetails> detailsList){
+		if(detailsList == null)
+			return;
+		List<VehicleOrder> orders = new ArrayList<>();
+		for(VehicleOrderDetails details : detailsList){
+			if(details != null)
+				orders.add(new VehicleOrder(details));
+		}
+		company.addOrders(orders, this);
+	}
+	
+	/**
+	 * Adds the vehicle orders among the given orders to the committed orders of this garage holder.
+	 * The company calls this in the same command that adds the orders to its assembly lines.
+	 * @param orders	The orders placed by this garage holder.
+	 */
+	void commit(Collection<? extends Order> orders){
+		List<VehicleOrder> vehicleOrders = new ArrayList<>();
+		for(Order order : orders){
+			if(order instanceof VehicleOrder)
+				vehicleOrders.add((VehicleOrder) order);
+		}
+		this.committedOrders.addAll(vehicleOrders);
 	}
 }
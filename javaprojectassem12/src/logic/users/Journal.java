@@ -0,0 +1,394 @@
+package logic.users;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A journal of the commands that change the state of a car manufacturing company, kept in a directory together with
+ * snapshots of the company. A command is appended after it has been carried out in memory, but before its caller is
+ * told that it succeeded.
+ * Commands are numbered from 0 in the order in which they are appended. Each command is one line of text in a segment
+ * file named journal-n, where n is the number of its first command. A snapshot named snapshot-n holds the state of
+ * the company after its first n commands; every snapshot starts a new segment, so recovering only needs the latest
+ * snapshot and the segments from there on.
+ * Appending a command only adds it to a buffer. One writer thread writes the buffered commands and forces them to the
+ * disk, so all commands appended while the previous batch was being forced share a single force: a group commit.
+ */
+class Journal {
+
+	/**
+	 * The prefix of the names of the segment files.
+	 */
+	private static final String SEGMENT = "journal-";
+
+	/**
+	 * The prefix of the names of the snapshot files.
+	 */
+	private static final String SNAPSHOT = "snapshot-";
+
+	/**
+	 * The character set of the commands.
+	 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * The directory of the journal.
+	 */
+	private final File directory;
+
+	/**
+	 * The number of commands appended after which a new snapshot is due.
+	 */
+	private final int snapshotInterval;
+
+	/**
+	 * The segment file to which the commands are written.
+	 */
+	private FileChannel segment;
+
+	/**
+	 * The commands that have been appended but not yet handed to the writer thread.
+	 */
+	private StringBuilder pending = new StringBuilder();
+
+	/**
+	 * The number of commands that have been appended.
+	 */
+	private long appended;
+
+	/**
+	 * The number of commands that have been forced to the disk.
+	 */
+	private long durable;
+
+	/**
+	 * The number of commands in the latest snapshot, or the number of the first command of this journal if it has no
+	 * snapshot yet.
+	 */
+	private long snapshot;
+
+	/**
+	 * Whether the journal has been closed.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * The error that stopped the writer thread, null if there is none.
+	 */
+	private IOException failure;
+
+	/**
+	 * The thread that writes the appended commands and forces them to the disk.
+	 */
+	private final Thread writer;
+
+	/**
+	 * Opens a journal in the given directory, which continues after the given number of commands.
+	 * @param directory	The directory of the journal.
+	 * @param next		The number of commands already in the directory, which is the number of the next command.
+	 * @param snapshot	The number of commands in the latest snapshot.
+	 * @param snapshotInterval	The number of commands after which a new snapshot is due.
+	 * @throws IOException	If the new segment can not be created.
+	 */
+	Journal(File directory, long next, long snapshot, int snapshotInterval) throws IOException {
+		if(snapshotInterval < 1)
+			throw new IllegalArgumentException("The snapshot interval has to be at least 1.");
+		this.directory = directory;
+		this.snapshotInterval = snapshotInterval;
+		this.appended = next;
+		this.durable = next;
+		this.snapshot = snapshot;
+		this.segment = openSegment(next);
+		this.writer = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				write();
+			}
+		}, "Journal writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Appends the given command to this journal. The command is not durable until await returns for it.
+	 * @param command	The command, one line of text.
+	 * @return	The number of commands in this journal up to and including the given command.
+	 * @throws IllegalStateException	If this journal has been closed or could not be written.
+	 */
+	synchronized long append(String command){
+		check();
+		pending.append(command).append('\n');
+		appended++;
+		notifyAll();
+		return appended;
+	}
+
+	/**
+	 * Waits until the given number of commands have been forced to the disk.
+	 * @param entry	The number of commands that have to be durable, as returned by append.
+	 * @throws IllegalStateException	If the commands could not be written.
+	 */
+	synchronized void await(long entry){
+		boolean interrupted = false;
+		while(durable < entry && failure == null){
+			try{
+				wait();
+			}catch(InterruptedException e){
+				interrupted = true;
+			}
+		}
+		if(interrupted)
+			Thread.currentThread().interrupt();
+		if(durable < entry)
+			throw new IllegalStateException("The journal could not be written.", failure);
+	}
+
+	/**
+	 * Checks whether enough commands have been appended since the latest snapshot for a new snapshot to be due.
+	 * @return	True if a new snapshot is due.
+	 * 			False otherwise.
+	 */
+	synchronized boolean isSnapshotDue(){
+		return appended - snapshot >= snapshotInterval;
+	}
+
+	/**
+	 * Returns the number of commands that have been appended to this journal, including the commands recovered
+	 * from the directory.
+	 * @return	The number of commands in this journal.
+	 */
+	synchronized long getLength(){
+		return appended;
+	}
+
+	/**
+	 * Waits until all appended commands are durable and starts a new segment, which begins at the snapshot that is
+	 * about to be written. No command may be appended until this method returns.
+	 * @return	The number of commands in the snapshot.
+	 * @throws IOException	If the new segment can not be created.
+	 */
+	synchronized long startSnapshot() throws IOException {
+		await(appended);
+		check();
+		segment.close();
+		segment = openSegment(appended);
+		snapshot = appended;
+		return appended;
+	}
+
+	/**
+	 * Writes the given snapshot to the directory of this journal and removes the snapshots and segments it replaces.
+	 * The snapshot is written to a temporary file first, so a snapshot file is always complete.
+	 * @param index	The number of commands in the snapshot, as returned by startSnapshot.
+	 * @param state	The serialized state of the company.
+	 * @throws IOException	If the snapshot can not be written.
+	 */
+	void writeSnapshot(long index, byte[] state) throws IOException {
+		File temporary = new File(directory, SNAPSHOT + index + ".tmp");
+		try(FileOutputStream file = new FileOutputStream(temporary)){
+			GZIPOutputStream out = new GZIPOutputStream(new BufferedOutputStream(file, 1 << 16));
+			out.write(state);
+			out.finish();
+			out.flush();
+			file.getChannel().force(true);
+		}
+		Files.move(temporary.toPath(), new File(directory, SNAPSHOT + index).toPath(),
+				StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		for(long old : list(directory, SNAPSHOT)){
+			if(old < index)
+				Files.deleteIfExists(new File(directory, SNAPSHOT + old).toPath());
+		}
+		for(long old : list(directory, SEGMENT)){
+			if(old < index)
+				Files.deleteIfExists(new File(directory, SEGMENT + old).toPath());
+		}
+	}
+
+	/**
+	 * Writes the remaining commands, stops the writer thread and closes the segment.
+	 */
+	void close(){
+		synchronized(this){
+			closed = true;
+			notifyAll();
+		}
+		boolean interrupted = false;
+		while(writer.isAlive()){
+			try{
+				writer.join();
+			}catch(InterruptedException e){
+				interrupted = true;
+			}
+		}
+		if(interrupted)
+			Thread.currentThread().interrupt();
+		try{
+			segment.close();
+		}catch(IOException e){
+			// The commands have been forced already, so nothing is lost.
+		}
+	}
+
+	/**
+	 * Returns the number of commands in the latest snapshot in the given directory.
+	 * @param directory	The directory of a journal.
+	 * @return	-1 if the directory has no snapshot.
+	 * 			The number of commands in the latest snapshot otherwise.
+	 */
+	static long getLatestSnapshot(File directory){
+		List<Long> snapshots = list(directory, SNAPSHOT);
+		if(snapshots.isEmpty())
+			return -1;
+		return snapshots.get(snapshots.size() - 1);
+	}
+
+	/**
+	 * Reads the snapshot with the given number of commands from the given directory.
+	 * @param directory	The directory of a journal.
+	 * @param index		The number of commands in the snapshot.
+	 * @return	The object in the snapshot.
+	 * @throws IOException	If the snapshot can not be read.
+	 */
+	static Object readSnapshot(File directory, long index) throws IOException {
+		try(InputStream file = new FileInputStream(new File(directory, SNAPSHOT + index));
+				ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(file, 1 << 16))){
+			return in.readObject();
+		}catch(ClassNotFoundException e){
+			throw new IOException("The snapshot " + index + " has an unknown class.", e);
+		}
+	}
+
+	/**
+	 * Reads the commands in the given directory from the command with the given number on. A last command that has
+	 * not been written completely is ignored.
+	 * @param directory	The directory of a journal.
+	 * @param from		The number of the first command that has to be read.
+	 * @return	The commands from the given number on, in order.
+	 * @throws IOException	If the segments can not be read or a command is missing.
+	 */
+	static List<String> readCommands(File directory, long from) throws IOException {
+		List<String> commands = new ArrayList<>();
+		long next = from;
+		for(long start : list(directory, SEGMENT)){
+			if(start < from)
+				continue;
+			if(start != next)
+				throw new IOException("The journal misses the commands " + next + " to " + (start - 1) + ".");
+			byte[] bytes = Files.readAllBytes(new File(directory, SEGMENT + start).toPath());
+			int begin = 0;
+			for(int i = 0; i < bytes.length; i++){
+				if(bytes[i] == '\n'){
+					commands.add(new String(bytes, begin, i - begin, UTF8));
+					begin = i + 1;
+					next++;
+				}
+			}
+		}
+		return commands;
+	}
+
+	/**
+	 * Writes the appended commands in batches until the journal is closed. Every batch is forced to the disk before
+	 * the threads waiting for it are woken up.
+	 */
+	private void write(){
+		while(true){
+			String batch;
+			long upTo;
+			synchronized(this){
+				while(pending.length() == 0 && !closed){
+					try{
+						wait();
+					}catch(InterruptedException e){
+						// The writer thread only stops when the journal is closed.
+					}
+				}
+				if(pending.length() == 0)
+					return;
+				batch = pending.toString();
+				pending = new StringBuilder();
+				upTo = appended;
+			}
+			try{
+				ByteBuffer bytes = ByteBuffer.wrap(batch.getBytes(UTF8));
+				while(bytes.hasRemaining()){
+					segment.write(bytes);
+				}
+				segment.force(false);
+			}catch(IOException e){
+				synchronized(this){
+					failure = e;
+					notifyAll();
+				}
+				return;
+			}
+			synchronized(this){
+				durable = upTo;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Checks that commands can still be appended to this journal.
+	 * @throws IllegalStateException	If this journal has been closed or could not be written.
+	 */
+	private void check(){
+		if(failure != null)
+			throw new IllegalStateException("The journal could not be written.", failure);
+		if(closed)
+			throw new IllegalStateException("The journal has been closed.");
+	}
+
+	/**
+	 * Creates the segment file that starts with the command with the given number. A segment with that name can only
+	 * exist if none of its commands have been written completely, so it is emptied.
+	 * @param start	The number of the first command of the segment.
+	 * @return	The channel of the new segment.
+	 * @throws IOException	If the segment can not be created.
+	 */
+	private FileChannel openSegment(long start) throws IOException {
+		return FileChannel.open(new File(directory, SEGMENT + start).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Returns the numbers of the files in the given directory with the given prefix, in increasing order.
+	 * @param directory	The directory of a journal.
+	 * @param prefix	The prefix of the file names.
+	 * @return	The numbers that follow the prefix in the names of the files.
+	 */
+	private static List<Long> list(File directory, String prefix){
+		List<Long> numbers = new ArrayList<>();
+		String[] names = directory.list();
+		if(names == null)
+			return numbers;
+		for(String name : names){
+			if(!name.startsWith(prefix))
+				continue;
+			try{
+				numbers.add(Long.parseLong(name.substring(prefix.length())));
+			}catch(NumberFormatException e){
+				// A temporary file of a snapshot that was not finished.
+			}
+		}
+		Collections.sort(numbers);
+		return numbers;
+	}
+}
@@ -12,9 +12,16 @@ import logic.order.Order;
 
 /**
  * Class used to describe a manager working for a car manufacturing company.
+ * A manager can keep an active assembly line to perform actions on. Since one manager can be logged in
+ * more than once, a session that chooses its own line passes it to the methods that take it as a parameter instead.
  */
 public class Manager extends User{
 	
+	/**
+	 * The version of the serialized form of a manager.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * The manufacturing company for which the garage holder works.
 	 */
@@ -49,7 +56,16 @@ public class Manager extends User{
 	 * @return a list of the current strategies followed by the available scheduling strategies for the active assembly line.
 	 */
 	public List<Printable<SchedulingStrategy>> getStrategiesActiveLine() {
-		return company.getStrategies(activeAssemblyLine);
+		return getStrategies(activeAssemblyLine);
+	}
+	
+	/**
+	 * Returns a list of the current strategies followed by the available scheduling strategies for the given assembly line.
+	 * @param assemblyLine	The representation of the assembly line.
+	 * @return a list of the current strategies followed by the available scheduling strategies for the given assembly line.
+	 */
+	public List<Printable<SchedulingStrategy>> getStrategies(Printable<AssemblyLine> assemblyLine) {
+		return company.getStrategies(assemblyLine);
 	}
 	
 	/**
@@ -65,7 +81,16 @@ public class Manager extends User{
 	 * @return a list of orders that are viable to be used by the batch specification scheduling strategy for the given assembly line.
 	 */
 	public List<Order> getBatchListActiveLine() {
-		return company.getBatchList(activeAssemblyLine);
+		return getBatchList(activeAssemblyLine);
+	}
+	
+	/**
+	 * Returns a list of orders that are viable to be used by the batch specification scheduling strategy for the given assembly line.
+	 * @param assemblyLine	The representation of the assembly line.
+	 * @return a list of orders that are viable to be used by the batch specification scheduling strategy for the given assembly line.
+	 */
+	public List<Order> getBatchList(Printable<AssemblyLine> assemblyLine) {
+		return company.getBatchList(assemblyLine);
 	}
 	
 	/**
@@ -81,7 +106,16 @@ public class Manager extends User{
 	 * @param order	The order that has to be used as a template for the strategy.
 	 */
 	public void changeStrategyActiveAssemblyLine(Order order) {
-		company.changeStrategy(order, activeAssemblyLine);
+		changeStrategy(order, activeAssemblyLine);
+	}
+	
+	/**
+	 * Changes the strategy of the given assembly line according to the given order.
+	 * @param order			The order that has to be used as a template for the strategy.
+	 * @param assemblyLine	The representation of the assembly line.
+	 */
+	public void changeStrategy(Order order, Printable<AssemblyLine> assemblyLine) {
+		company.changeStrategy(order, assemblyLine);
 	}
 	
 	/**
@@ -129,6 +163,15 @@ public class Manager extends User{
 	 * @param newStatus	The new status of this manager's active assembly line.
 	 */
 	public void changeAssemblyLineStatus(OperationalStatus newStatus) {
-		company.changeAssemblyLineStatus(activeAssemblyLine, newStatus);
+		changeAssemblyLineStatus(activeAssemblyLine, newStatus);
+	}
+	
+	/**
+	 * Changes the status of the given assembly line to the given status.
+	 * @param assemblyLine	The representation of the assembly line.
+	 * @param newStatus		The new status of the given assembly line.
+	 */
+	public void changeAssemblyLineStatus(Printable<AssemblyLine> assemblyLine, OperationalStatus newStatus) {
+		company.changeAssemblyLineStatus(assemblyLine, newStatus);
 	}
 }
@@ -10,9 +10,17 @@ import logic.workstation.Workstation;
 
 /**
  * Class used to describe a mechanic working on an assembly line in a car manufacturing company.
+ * A mechanic can keep an active assembly line and workstation to work on. Since one mechanic can be logged in
+ * more than once, a session that chooses its own line and workstation passes them to the methods that take them
+ * as parameters instead.
  */
 public class Mechanic extends User{
 	
+	/**
+	 * The version of the serialized form of a mechanic.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * The printable instance of the workstation this mechanic is currently working on.
 	 */
@@ -67,7 +75,19 @@ public class Mechanic extends User{
 	 * 			False otherwise.
 	 */
 	public boolean doTask(Printable<Task> task, int duration){
-		return company.doTask(task, this.activeAssemblyLine, duration);
+		return doTask(task, this.activeAssemblyLine, duration);
+	}
+	
+	/**
+	 * Performs a task on the given assembly line and tries to move the assembly line.
+	 * @param task			A representation of the task that needs to be performed.
+	 * @param assemblyLine	The representation of the assembly line the task is performed on.
+	 * @param duration		How long it took to perform the task.
+	 * @return	True if the task has been performed successfully.
+	 * 			False otherwise.
+	 */
+	public boolean doTask(Printable<Task> task, Printable<AssemblyLine> assemblyLine, int duration){
+		return company.doTask(task, assemblyLine, duration);
 	}
 	
 	/**
@@ -76,9 +96,20 @@ public class Mechanic extends User{
 	 * 			The list of representations of tasks otherwise.
 	 */
 	public List<Printable<Task>> getAvailableTasks(){
-		if(!isPosted() || activeAssemblyLine==null)
+		return getAvailableTasks(this.activeStation, this.activeAssemblyLine);
+	}
+	
+	/**
+	 * Returns a list of representations of tasks that are currently pending at the given workstation of the given assembly line.
+	 * @param station		The representation of the workstation.
+	 * @param assemblyLine	The representation of the assembly line of the workstation.
+	 * @return	null	if the workstation or the assembly line is null.
+	 * 			The list of representations of tasks otherwise.
+	 */
+	public List<Printable<Task>> getAvailableTasks(Printable<Workstation> station, Printable<AssemblyLine> assemblyLine){
+		if(station == null || assemblyLine == null)
 			return null;
-		return this.company.getRequiredTasks(this.activeStation, this.activeAssemblyLine);
+		return this.company.getRequiredTasks(station, assemblyLine);
 	}
 	
 	/**
@@ -87,9 +118,20 @@ public class Mechanic extends User{
 	 * @return	A list of representations of tasks at the given workstation.
 	 */
 	public List<Printable<Task>> getAllTasks(Printable<Workstation> station){
-		if(activeAssemblyLine==null || station == null)
+		return getAllTasks(station, this.activeAssemblyLine);
+	}
+	
+	/**
+	 * Returns a list of representations of all tasks at a given workstation of the given assembly line.
+	 * @param station		The representation of the workstation for which the tasks are needed.
+	 * @param assemblyLine	The representation of the assembly line of the workstation.
+	 * @return	null	if the workstation or the assembly line is null.
+	 * 			A list of representations of tasks at the given workstation otherwise.
+	 */
+	public List<Printable<Task>> getAllTasks(Printable<Workstation> station, Printable<AssemblyLine> assemblyLine){
+		if(assemblyLine == null || station == null)
 			return null;
-		return this.company.getAllTasksAt(station, activeAssemblyLine);
+		return this.company.getAllTasksAt(station, assemblyLine);
 	}
 	
 	/**
@@ -97,9 +139,19 @@ public class Mechanic extends User{
 	 * @return the list of representations of workstations from the active assembly line of the car manufacturing company.
 	 */
 	public List<Printable<Workstation>> getWorkstationsFromAssemblyLine(){
-		if(activeAssemblyLine==null)
+		return getWorkstationsFromAssemblyLine(this.activeAssemblyLine);
+	}
+	
+	/**
+	 * Returns the list of representations of workstations from the given assembly line of the car manufacturing company.
+	 * @param assemblyLine	The representation of the assembly line.
+	 * @return	null	if the assembly line is null.
+	 * 			The list of representations of workstations from the given assembly line otherwise.
+	 */
+	public List<Printable<Workstation>> getWorkstationsFromAssemblyLine(Printable<AssemblyLine> assemblyLine){
+		if(assemblyLine == null)
 			return null;
-		return this.company.getWorkStationsFromAssemblyLine(activeAssemblyLine);
+		return this.company.getWorkStationsFromAssemblyLine(assemblyLine);
 	}
 	
 	/**
@@ -1,9 +1,16 @@
 package logic.users;
 
+import java.io.Serializable;
+
 /**
  * Class used to describe a user for a system of a car manufacturing company.
  */
-public abstract class User {
+public abstract class User implements Serializable {
+	
+	/**
+	 * The version of the serialized form of a user.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * The user name for this user.
@@ -10,6 +10,11 @@ import logic.order.VehiclePartType;
  */
 public class AccessoriesPost extends Workstation {
 
+	/**
+	 * The version of the serialized form of a accessories post.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Initializes the compatible tasks for this accessories post.
 	 */
@@ -35,7 +40,7 @@ public class AccessoriesPost extends Workstation {
 	 */
 	@Override
 	public String toString(){
-		return "Accessories Post";
+		return "Accessories Post" + getLaneName();
 	}
 	
 	/**
@@ -10,6 +10,11 @@ import logic.order.VehiclePartType;
  */
 public class CarBodyPost extends Workstation {
 
+	/**
+	 * The version of the serialized form of a car body post.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Initializes the compatible tasks for this car body post.
 	 */
@@ -35,7 +40,7 @@ public class CarBodyPost extends Workstation {
 	 */
 	@Override
 	public String toString(){
-		return "Car Body Post";
+		return "Car Body Post" + getLaneName();
 	}
 
 	/**
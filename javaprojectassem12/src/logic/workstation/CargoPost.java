@@ -10,6 +10,11 @@ import logic.order.VehiclePartType;
  */
 public class CargoPost extends Workstation {
 	
+	/**
+	 * The version of the serialized form of a cargo post.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * Initializes the compatible tasks for this cargo post.
 	 */
@@ -35,7 +40,7 @@ public class CargoPost extends Workstation {
 	 */
 	@Override
 	public String toString(){
-		return "Cargo Post";
+		return "Cargo Post" + getLaneName();
 	}
 
 	/**
@@ -10,6 +10,11 @@ import logic.order.VehiclePartType;
  */
 public class CertificationPost extends Workstation {
 
+	/**
+	 * The version of the serialized form of a certification post.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Initializes the compatible tasks for this certification post.
 	 */
@@ -35,7 +40,7 @@ public class CertificationPost extends Workstation {
 	 */
 	@Override
 	public String toString(){
-		return "Certification Post";
+		return "Certification Post" + getLaneName();
 	}
 	
 	/**
@@ -10,6 +10,11 @@ import logic.order.VehiclePartType;
  */
 public class DriveTrainPost extends Workstation {
 	
+	/**
+	 * The version of the serialized form of a drive train post.
+	 */
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * Initializes the compatible tasks for this drive train post.
 	 */
@@ -35,7 +40,7 @@ public class DriveTrainPost extends Workstation {
 	 */
 	@Override
 	public String toString(){
-		return "Drive Train Post";
+		return "Drive Train Post" + getLaneName();
 	}
 	
 	/**
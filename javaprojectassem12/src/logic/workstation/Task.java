@@ -1,12 +1,20 @@
 package logic.workstation;
 
 import interfaces.Printable;
+
+import java.io.Serializable;
+
 import logic.order.VehiclePart;
 
 /**
  * Class used to describe a task that needs to be performed in order to complete a vehicle order.
  */
-public class Task implements Printable<Task>{
+public class Task implements Printable<Task>, Serializable{
+	
+	/**
+	 * The version of the serialized form of a task.
+	 */
+	private static final long serialVersionUID = 1L;
 	
 	/**
 	 * Flag keeping track of the completion of the task. 
@@ -28,6 +36,11 @@ public class Task implements Printable<Task>{
 	 */
 	private final VehiclePart vehiclePart;
 	
+	/**
+	 * The workstation at which this task has to be performed, null if it is not at a workstation.
+	 */
+	private Workstation workstation;
+	
 	/**
 	 * Creates a task corresponding with the given vehicle part, and estimated duration.
 	 * @param part	The vehicle part to perform the task on.
@@ -58,8 +71,26 @@ public class Task implements Printable<Task>{
 			return;
 		this.completed = true;
 		this.elapsedTime = elapsedTime;
+		if(this.workstation != null)
+			this.workstation.taskPerformed(elapsedTime);
 	}	
 	
+	/**
+	 * Returns the workstation at which this task has to be performed.
+	 * @return	The workstation of this task, null if it is not at a workstation.
+	 */
+	public Workstation getWorkstation(){
+		return workstation;
+	}
+	
+	/**
+	 * Sets the workstation at which this task has to be performed, which is informed when this task is performed.
+	 * @param workstation	The workstation of this task, null if it is no longer at a workstation.
+	 */
+	void setWorkstation(Workstation workstation){
+		this.workstation = workstation;
+	}
+	
 	/**
 	 * Returns the time a mechanic worked on this task to complete it.
 	 * @return the time a mechanic worked on this task to complete it.
@@ -5,6 +5,13 @@ package logic.workstation;
  */
 public abstract class WorkstationBuilder {
 	
+	/**
+	 * Sets the number of parallel lanes of the posts of the given kind that are added to the structure afterwards.
+	 * @param post	The kind of post.
+	 * @param lanes	The number of lanes of each post of the given kind.
+	 */
+	public abstract void setLanes(Class<? extends Workstation> post, int lanes);
+	
 	/**
 	 * Add a CarBodyPost to the structure.
 	 */
@@ -34,5 +41,5 @@ public abstract class WorkstationBuilder {
 	 * Get the resulting structure.
 	 * @return	The resulting structure.
 	 */
-	public abstract Workstation getResult();
+	public abstract WorkstationPipeline getResult();
 }
\ No newline at end of file
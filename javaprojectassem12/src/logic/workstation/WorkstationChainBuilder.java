@@ -1,85 +1,139 @@
 package logic.workstation;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
- * A class used to represent a concrete builder to construct a chain of workstations.
+ * A class used to represent a concrete builder to construct a pipeline of workstations.
  */
 public class WorkstationChainBuilder extends WorkstationBuilder{
 	
 	/**
-	 * The first workstation of the chain being constructed.
+	 * The workstations that have been added to the pipeline, in order.
+	 */
+	private List<Workstation> stations = new ArrayList<>();
+	
+	/**
+	 * The number of lanes of each post that has been added to the pipeline, in order.
 	 */
-	private Workstation result;
+	private List<Integer> postLanes = new ArrayList<>();
 	
 	/**
-	 * The last workstation that has been added to the chain.
+	 * The number of lanes for each kind of post, if it is not one.
 	 */
-	private Workstation lastAdded;
+	private Map<Class<? extends Workstation>, Integer> lanes = new HashMap<>();
 	
 	/**
 	 * Builds a workstation.
 	 * @param ws	The  last added workstation.
 	 */
 	private void build(Workstation ws){
-		Workstation temp = lastAdded;
-		this.lastAdded = ws;
+		stations.add(ws);
+	}
+	
+	/**
+	 * Ends a post of the given kind, after its lanes have been built.
+	 * @param post	The kind of post.
+	 */
+	private void endPost(Class<? extends Workstation> post){
+		postLanes.add(getLanes(post));
+	}
+	
+	/**
+	 * Returns the number of lanes of the posts of the given kind.
+	 * @param post	The kind of post.
+	 * @return	The number of lanes of the posts of the given kind, 1 if it has not been set.
+	 */
+	private int getLanes(Class<? extends Workstation> post){
+		Integer result = lanes.get(post);
 		if(result == null)
-			result = lastAdded;
-		if(temp != null)
-			temp.setWorkStation(lastAdded);
+			return 1;
+		return result;
 	}
 
+	/**
+	 * Sets the number of parallel lanes of the posts of the given kind that are added to the pipeline afterwards.
+	 * @param post	The kind of post.
+	 * @param lanes	The number of lanes of each post of the given kind.
+	 * @throws IllegalArgumentException	If the number of lanes is less than one.
+	 */
+	@Override
+	public void setLanes(Class<? extends Workstation> post, int lanes) {
+		if(lanes < 1)
+			throw new IllegalArgumentException("A post needs at least one lane.");
+		this.lanes.put(post, lanes);
+	}
 
 	/**
-	 * Return the result, which is the first workstation of the chain.
-	 * @return	The first workstation of the chain.
+	 * Return the result, which is the pipeline of the added workstations.
+	 * @return	The pipeline of the added workstations.
 	 */
 	@Override
-	public Workstation getResult() {
-		return this.result;
+	public WorkstationPipeline getResult() {
+		int[] result = new int[postLanes.size()];
+		for(int i = 0; i < result.length; i++){
+			result[i] = postLanes.get(i);
+		}
+		return new WorkstationPipeline(stations, result);
 	}
 
 
 	/**
-	 * Add a CarBodyPost to the end of the chain.
+	 * Add a CarBodyPost to the end of the pipeline.
 	 */
 	@Override
 	public void buildCarBodyPost() {
-		build(new CarBodyPost());
+		for(int i = 0; i < getLanes(CarBodyPost.class); i++){
+			build(new CarBodyPost());
+		}
+		endPost(CarBodyPost.class);
 	}
 	
 	
 	/**
-	 * Add a DriveTrainPost to the end of the chain.
+	 * Add a DriveTrainPost to the end of the pipeline.
 	 */
 	@Override
 	public void buildDriveTrainPost() {
-		build(new DriveTrainPost());
+		for(int i = 0; i < getLanes(DriveTrainPost.class); i++){
+			build(new DriveTrainPost());
+		}
+		endPost(DriveTrainPost.class);
 	}
 	
 	/**
-	 * Add an AccessoriesPost to the end of the chain.
+	 * Add an AccessoriesPost to the end of the pipeline.
 	 */
 	@Override
 	public void buildAccessoriesPost() {
-		build(new AccessoriesPost());
+		for(int i = 0; i < getLanes(AccessoriesPost.class); i++){
+			build(new AccessoriesPost());
+		}
+		endPost(AccessoriesPost.class);
 	}
 	
 	/**
-	 * Add a CargoPost to the end of the chain.
+	 * Add a CargoPost to the end of the pipeline.
 	 */
 	@Override
 	public void buildCargoPost() {
-		build(new CargoPost());
-		
+		for(int i = 0; i < getLanes(CargoPost.class); i++){
+			build(new CargoPost());
+		}
+		endPost(CargoPost.class);
 	}
 	
 	/**
-	 * Add a CertificationPost to the end of the chain.
+	 * Add a CertificationPost to the end of the pipeline.
 	 */
 	@Override
 	public void buildCertificationPost() {
-		build(new CertificationPost());
-		
+		for(int i = 0; i < getLanes(CertificationPost.class); i++){
+			build(new CertificationPost());
+		}
+		endPost(CertificationPost.class);
 	}
 	
 }
\ No newline at end of file
@@ -18,6 +18,16 @@ public abstract class WorkstationDirector {
 		this.builder = builder;
 	}
 	
+	/**
+	 * Sets the number of parallel lanes of the posts of the given kind, which have to be set before the structure is built.
+	 * @param post	The kind of post.
+	 * @param lanes	The number of lanes of each post of the given kind.
+	 * @throws IllegalArgumentException	If the number of lanes is less than one.
+	 */
+	public void setLanes(Class<? extends Workstation> post, int lanes){
+		builder.setLanes(post, lanes);
+	}
+	
 	/**
 	 * Build the structure of workstations.
 	 */
@@ -0,0 +1,596 @@
+package logic.workstation;
+
+import interfaces.Printable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import logic.order.Order;
+import logic.order.VehiclePart;
+import logic.order.VehiclePartType;
+
+import org.joda.time.DateTime;
+
+/**
+ * Class used to describe the workstations of an assembly line, in the order in which orders pass them.
+ * The workstations are grouped in posts. A post can have several workstations of the same kind as parallel lanes,
+ * which take the orders in turn: a post with n lanes holds n orders, each on its own lane, and every order stays
+ * at its lane for n moves of the line. So a post has a position for each of its lanes, an order moves one position
+ * at each move of the line, and the line only waits for the lane of the order that leaves the post at the next move.
+ * The work of an order at a post with n lanes is spread over its n positions, which divides the time the post adds
+ * to a cycle by n.
+ * The workstations are kept in an array and the order at each position in a parallel array,
+ * so the operations on the whole line are loops over the workstations instead of walks along a chain.
+ * Orders have to be put on the workstations through this class.
+ * Each time the orders change, the pipeline indexes at which workstation and at which position the task for
+ * each vehicle part is, so tasks are found without searching the workstations.
+ */
+public class WorkstationPipeline implements Serializable {
+
+	/**
+	 * The version of the serialized form of a workstation pipeline.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The workstations of this pipeline, the first workstation at index 0. The lanes of a post are next to each other.
+	 */
+	private final Workstation[] stations;
+
+	/**
+	 * The index of the first workstation of each post, followed by the number of workstations. These are also the
+	 * index of the first position of each post, as a post has a position for each lane.
+	 */
+	private final int[] postStart;
+
+	/**
+	 * The post of each workstation, which is also the post of the position with the same index.
+	 */
+	private final int[] postOf;
+
+	/**
+	 * For each post, the number of times the line has moved, modulo its number of lanes. The order at the k-th
+	 * position of a post is at lane turn - k, modulo the number of lanes.
+	 */
+	private final int[] turn;
+
+	/**
+	 * The order at each position of this pipeline, null if the position is idle.
+	 */
+	private final Order[] orders;
+
+	/**
+	 * The capabilities of each post of this pipeline.
+	 */
+	private final List<List<VehiclePartType>> topology;
+
+	/**
+	 * The layout of this pipeline: its topology and the number of lanes of each post. Orders cache their estimated
+	 * phase durations by layout.
+	 */
+	private final List<?> layout;
+
+	/**
+	 * The estimated phase durations of an idle position, for each position of this pipeline.
+	 */
+	private final int[] idlePhaseDurations;
+
+	/**
+	 * For each vehicle part, the index of the first workstation with a task for that part, -1 if there is none.
+	 */
+	private final int[] taskStation;
+
+	/**
+	 * For each vehicle part, the position of the task for that part in the tasks of the workstation in taskStation.
+	 */
+	private final int[] taskSlot;
+
+	/**
+	 * The routing table of this pipeline: the indices of the posts that can perform each vehicle part type,
+	 * indexed by the ordinal of the type.
+	 */
+	private final int[][] routes;
+
+	/**
+	 * The number of tasks that have not been completed at the workstations of which the order leaves its post
+	 * at the next move of the line.
+	 */
+	private int pendingTasks;
+
+	/**
+	 * The longest time a workstation of this pipeline added to the current cycle by completing a task.
+	 */
+	private int maxElapsedTime;
+
+	/**
+	 * The number of positions of this pipeline that have an order.
+	 */
+	private int busyPositions;
+
+	/**
+	 * Constructs a pipeline of the given workstations, which are all idle. Each workstation is a post with one lane.
+	 * @param stations	The workstations of the pipeline, in order.
+	 * @throws IllegalArgumentException	If there are no workstations.
+	 */
+	public WorkstationPipeline(List<? extends Workstation> stations){
+		this(stations, singleLanes(stations.size()));
+	}
+
+	/**
+	 * Constructs a pipeline of the given workstations, which are all idle. The workstations are grouped in posts
+	 * with the given numbers of lanes, the lanes of a post following each other in the given list.
+	 * @param stations	The workstations of the pipeline, in order.
+	 * @param lanes		The number of lanes of each post, in order.
+	 * @throws IllegalArgumentException	If there are no workstations, if the numbers of lanes do not add up to the
+	 * 									number of workstations or if the lanes of a post are not of the same kind.
+	 */
+	public WorkstationPipeline(List<? extends Workstation> stations, int[] lanes){
+		if(stations.isEmpty() || lanes.length == 0)
+			throw new IllegalArgumentException("A pipeline needs at least one workstation.");
+		this.stations = stations.toArray(new Workstation[stations.size()]);
+		this.postStart = new int[lanes.length+1];
+		for(int i = 0; i < lanes.length; i++){
+			if(lanes[i] < 1)
+				throw new IllegalArgumentException("A post needs at least one lane.");
+			postStart[i+1] = postStart[i] + lanes[i];
+		}
+		if(postStart[lanes.length] != this.stations.length)
+			throw new IllegalArgumentException("The lanes do not match the workstations.");
+		this.orders = new Order[this.stations.length];
+		this.postOf = new int[this.stations.length];
+		this.turn = new int[lanes.length];
+		List<List<VehiclePartType>> capabilities = new ArrayList<>(lanes.length);
+		List<Integer> laneCounts = new ArrayList<>(lanes.length);
+		for(int post = 0; post < lanes.length; post++){
+			capabilities.add(this.stations[postStart[post]].getCapabilities());
+			laneCounts.add(lanes[post]);
+			for(int i = postStart[post]; i < postStart[post+1]; i++){
+				if(this.stations[i].getClass() != this.stations[postStart[post]].getClass())
+					throw new IllegalArgumentException("The lanes of a post must be workstations of the same kind.");
+				if(this.stations[i].getPipeline() != null)
+					throw new IllegalArgumentException("A workstation can only be part of one pipeline.");
+				this.stations[i].setOrder(null);
+				this.stations[i].setPipeline(this, i);
+				this.stations[i].setLane(lanes[post] == 1 ? 0 : i - postStart[post] + 1);
+				postOf[i] = post;
+			}
+		}
+		this.topology = Collections.unmodifiableList(capabilities);
+		this.layout = Collections.unmodifiableList(Arrays.asList(topology, Collections.unmodifiableList(laneCounts)));
+		this.routes = new int[VehiclePartType.values().length][];
+		for(VehiclePartType type : VehiclePartType.values()){
+			int count = 0;
+			int[] route = new int[lanes.length];
+			for(int post = 0; post < lanes.length; post++){
+				if(this.stations[postStart[post]].getCapabilitySet().contains(type))
+					route[count++] = post;
+			}
+			routes[type.ordinal()] = Arrays.copyOf(route, count);
+		}
+		this.idlePhaseDurations = new int[this.stations.length];
+		this.taskStation = new int[VehiclePart.values().length];
+		this.taskSlot = new int[VehiclePart.values().length];
+		Arrays.fill(taskStation, -1);
+	}
+
+	/**
+	 * Returns the number of positions in this pipeline, which is the number of orders it can hold.
+	 * A post has a position for each of its lanes.
+	 * @return	The number of positions in this pipeline.
+	 */
+	public int size(){
+		return orders.length;
+	}
+
+	/**
+	 * Returns whether the first position of this pipeline is idle.
+	 * @return	True if there is no order at the first position.
+	 * 			False otherwise.
+	 */
+	public boolean firstIdle(){
+		return orders[0] == null;
+	}
+
+	/**
+	 * Sets the given order as the order of the first position.
+	 * @param order	The order for the first position, null to make it idle.
+	 */
+	public void setFirstOrder(Order order){
+		setOrder(0, order);
+		update();
+	}
+
+	/**
+	 * Checks whether the assembly line can be moved, which is when all pending tasks of the orders that leave
+	 * their post at the next move have been completed.
+	 * @return	True 	if all these pending tasks have been completed.
+	 * 			False 	otherwise.
+	 */
+	public boolean canMoveAssemblyLine(){
+		return pendingTasks == 0;
+	}
+
+	/**
+	 * Moves the assembly line forward, if possible, by moving all orders to the next position,
+	 * and adding the given order to the first position. An order that moves to another position of the same post
+	 * stays at its lane, an order that enters a post gets the lane of the order that left it.
+	 * Sets the end time of the order in the last position, if there is one.
+	 * @param order		The new order that has to be added to the first position.
+	 * @param endTime	The end time for the order in the last position of the assembly line.
+	 */
+	public void advanceOrders(Order order, DateTime endTime){
+		if(!canMoveAssemblyLine())
+			return;
+		int last = orders.length-1;
+		if(orders[last] != null)
+			orders[last].setEndTime(endTime);
+		for(int post = 0; post < turn.length; post++){
+			turn[post] = (turn[post] + 1) % (postStart[post+1] - postStart[post]);
+		}
+		for(int i = last; i > 0; i--){
+			if(postStart[postOf[i]] == i)
+				setOrder(i, orders[i-1]);
+			else
+				moveOrder(i, orders[i-1]);
+		}
+		setOrder(0, order);
+		update();
+	}
+
+	/**
+	 * Lets the workstations perform a task corresponding to the given task. A task of one of the workstations of
+	 * this pipeline is performed itself. For a copy of a task, the task for the same vehicle part is performed;
+	 * if several lanes have such a task, the lane of which the order leaves its post first is chosen.
+	 * @param task			The task, or a copy of the task, that needs to be performed.
+	 * @param elapsedTime	The time it took to perform the task.
+	 * @return	True 	if the specified task has been successfully performed.
+	 * 			False	otherwise.
+	 */
+	public boolean doTask(Printable<Task> task, int elapsedTime){
+		if(!(task instanceof Task))
+			return false;
+		Workstation station = ((Task) task).getWorkstation();
+		if(station != null && station.getPipeline() == this){
+			((Task) task).perform(elapsedTime);
+			return true;
+		}
+		int part = ((Task) task).getVehiclePart().ordinal();
+		if(taskStation[part] < 0)
+			return false;
+		int post = postOf[taskStation[part]];
+		if(postStart[post+1] - postStart[post] > 1){
+			for(int position = postStart[post+1]-1; position >= postStart[post]; position--){
+				for(Task candidate : stationAt(position).getTasks()){
+					if(candidate.getVehiclePart().ordinal() == part && !candidate.isComplete()){
+						candidate.perform(elapsedTime);
+						return true;
+					}
+				}
+			}
+		}
+		stations[taskStation[part]].getTasks().get(taskSlot[part]).perform(elapsedTime);
+		return true;
+	}
+
+	/**
+	 * Returns the time the workstations added to the current cycle by completing their tasks.
+	 * This time is equal to the maximum of the elapsed times for all individual workstations, of which the elapsed
+	 * times at a post with several lanes are divided by the number of lanes.
+	 * @return	The time the workstations added to the current cycle.
+	 */
+	public int getMaxElapsedTime(){
+		return maxElapsedTime;
+	}
+
+	/**
+	 * Builds a list of Printables representing the pending tasks at a given workstation.
+	 * @param station	A Printable representing the workstation for which the pending tasks are needed.
+	 * @return	A list of Printables of all tasks that are pending at the given workstation.
+	 * 			Null if the given workstation is not part of this pipeline.
+	 */
+	public List<Printable<Task>> getRequiredTasks(Printable<Workstation> station){
+		Workstation next = getStation(station);
+		if(next == null)
+			return null;
+		return next.getRequiredTasks();
+	}
+
+	/**
+	 * Builds a list of Printables representing all tasks at a given workstation.
+	 * @param station	A Printable representing the workstation for which the tasks are needed.
+	 * @return	A list of Printables of all tasks at the given workstation.
+	 * 			Null if the given workstation is not part of this pipeline.
+	 */
+	public List<Printable<Task>> getAllTasks(Printable<Workstation> station){
+		Workstation next = getStation(station);
+		if(next == null)
+			return null;
+		return next.getAllTasks();
+	}
+
+	/**
+	 * Adds Printables representing the workstations of this pipeline to the given list, in order.
+	 * @param workstations	The list of Printables, to which the workstations have to be added.
+	 */
+	public void buildWorkstationList(List<Printable<Workstation>> workstations){
+		for(Workstation station : stations){
+			workstations.add(station);
+		}
+	}
+
+	/**
+	 * Builds a list of orders, by adding copies of all orders that are currently in this pipeline to the back of
+	 * the given list. Idle positions don't add their (null) order.
+	 * @param orders	The list of orders, to which orders in this pipeline need to be added.
+	 */
+	public void buildOrderList(List<Order> orders){
+		for(Order order : this.orders){
+			if(order != null)
+				orders.add(order.getRawCopy());
+		}
+	}
+
+	/**
+	 * Builds a list of Integers, with the estimated durations that the given order would spend in
+	 * each position, as returned by getEstimPhaseDurations.
+	 * @param phases	The list of Integers that has to be filled.
+	 * @param order		The Order whose estimated durations in the posts are needed.
+	 */
+	public void buildEstimPhaseList(List<Integer> phases, Order order){
+		if(phases == null)
+			return;
+		for(int duration : getEstimPhaseDurations(order)){
+			phases.add(duration);
+		}
+	}
+
+	/**
+	 * Returns the capabilities of each post of this pipeline.
+	 * @return	A list with the capabilities of each post, in order.
+	 */
+	public List<List<VehiclePartType>> getTopology(){
+		return topology;
+	}
+
+	/**
+	 * Returns the estimated durations that the given order would spend in each position. The duration at a post
+	 * is that of the longest task the post can perform, and it is divided over the positions of the lanes of the post.
+	 * The durations are only calculated once for each layout, by looking up the posts of each task in the routing
+	 * table, afterwards they are cached on the order.
+	 * The returned array must not be changed.
+	 * @param order	The Order whose estimated durations in the positions are needed.
+	 * @return	An array with the estimated duration of the given order at each position.
+	 * 			An array of zeros if the given order is null.
+	 */
+	public int[] getEstimPhaseDurations(Order order){
+		if(order == null)
+			return idlePhaseDurations;
+		int[] durations = order.getPhaseDurations(layout);
+		if(durations == null){
+			int[] posts = new int[turn.length];
+			for(Task task : order.getTasks()){
+				for(int post : routes[task.getVehiclePart().type.ordinal()]){
+					if(task.getEstimatedPhaseDuration() > posts[post])
+						posts[post] = task.getEstimatedPhaseDuration();
+				}
+			}
+			durations = new int[orders.length];
+			for(int i = 0; i < durations.length; i++){
+				durations[i] = share(posts[postOf[i]], postOf[i]);
+			}
+			order.cachePhaseDurations(layout, durations);
+		}
+		return durations;
+	}
+
+	/**
+	 * Recalculates the estimated completion times of the orders currently in this pipeline.
+	 * The order at each position is finished after the order at the next position, plus the longest
+	 * phase any of the orders before it, and the given orders after it, spend in the last positions.
+	 * @param prePhaseDurations	A list with the standard phase durations of the orders that come after the order
+	 * 							in the first post. The list is not changed.
+	 * @param currentTime		The current time in minutes since the epoch.
+	 * @param first				A boolean representing whether the first position is left out if it is idle,
+	 * 							because the first of the given orders would be put on it.
+	 * @param keepChanges		A boolean representing whether the estimated end times calculated by this method
+	 * 							should be stored in the orders, or just returned.
+	 * @return 	The estimated completion time of the order in the first position in minutes since the epoch.
+	 */
+	public long reschedule(List<int[]> prePhaseDurations, long currentTime, boolean first, boolean keepChanges){
+		int count = orders.length;
+		// The phase durations of the orders from the last position to the first, followed by the given ones.
+		List<int[]> sequence = new ArrayList<>(count + prePhaseDurations.size());
+		for(int i = count-1; i >= 0; i--){
+			if(i > 0 || keepChanges || orders[0] != null || !first)
+				sequence.add(getEstimPhaseDurations(orders[i]));
+		}
+		sequence.addAll(prePhaseDurations);
+		long estimate = currentTime;
+		for(int i = count-1; i >= 0; i--){
+			int offset = count-1-i;
+			int maxPre = 0;
+			for(int j = 0; j < count && offset+j < sequence.size(); j++){
+				int phase = sequence.get(offset+j)[count-1-j];
+				if(phase > maxPre)
+					maxPre = phase;
+			}
+			estimate += maxPre;
+			if(orders[i] != null && keepChanges)
+				orders[i].setEstimatedEndMinute(estimate);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Returns the latest estimated end time of all orders in this pipeline.
+	 * @return	The latest estimated end time of the orders in this pipeline.
+	 * 			Null if all positions are idle.
+	 */
+	public DateTime getTotalEstimatedEndTime(){
+		for(Order order : orders){
+			if(order != null)
+				return order.getEstimatedEndTime();
+		}
+		return null;
+	}
+
+	/**
+	 * Adjust the delays of orders in this pipeline.
+	 * @param phaseDuration	The actual duration of the phase.
+	 */
+	public void adjustDelays(int phaseDuration){
+		int maxPhaseTime = 0;
+		for(int i = 0; i < orders.length; i++){
+			if(orders[i] != null)
+				maxPhaseTime = Math.max(maxPhaseTime, getEstimPhaseDurations(orders[i])[i]);
+		}
+		int delay = phaseDuration - maxPhaseTime;
+		for(Order order : orders){
+			if(order != null)
+				order.addDelay(delay);
+		}
+	}
+
+	/**
+	 * Checks if all workstations are idle.
+	 * @return	True	if all workstations are idle.
+	 * 			False	otherwise.
+	 */
+	public boolean allIdle(){
+		return busyPositions == 0;
+	}
+
+	/**
+	 * Returns the delay of the order in the last position.
+	 * @return	The delay of the order in the last position.
+	 * 			Null if the last position is idle.
+	 */
+	public Integer getDelayLastOrder(){
+		Order last = orders[orders.length-1];
+		if(last == null)
+			return null;
+		return last.getDelay();
+	}
+
+	/**
+	 * Returns the given workstation if it is part of this pipeline.
+	 * @param station	A Printable representing the workstation that is needed.
+	 * @return	The given workstation if it is part of this pipeline.
+	 * 			Null otherwise.
+	 */
+	private Workstation getStation(Printable<Workstation> station){
+		if(station instanceof Workstation && ((Workstation) station).getPipeline() == this)
+			return (Workstation) station;
+		return null;
+	}
+
+	/**
+	 * Returns the workstation of the lane of the order at the given position.
+	 * @param position	The index of the position.
+	 * @return	The workstation at which the order at the given position is, or would be.
+	 */
+	private Workstation stationAt(int position){
+		int post = postOf[position];
+		int lanes = postStart[post+1] - postStart[post];
+		int lane = ((turn[post] - (position - postStart[post])) % lanes + lanes) % lanes;
+		return stations[postStart[post] + lane];
+	}
+
+	/**
+	 * Returns the time a post adds to a cycle for the given time spent at one of its lanes.
+	 * @param time	The time spent at a lane of the post.
+	 * @param post	The index of the post.
+	 * @return	The given time divided by the number of lanes of the post, rounded up.
+	 */
+	private int share(int time, int post){
+		int lanes = postStart[post+1] - postStart[post];
+		return (time + lanes - 1) / lanes;
+	}
+
+	/**
+	 * Indexes the tasks at the workstations of this pipeline by their vehicle part.
+	 * If several workstations have a task for the same part, the first workstation is used.
+	 */
+	private void indexTasks(){
+		Arrays.fill(taskStation, -1);
+		for(int i = 0; i < stations.length; i++){
+			List<Task> tasks = stations[i].getTasks();
+			for(int slot = 0; slot < tasks.size(); slot++){
+				int part = tasks.get(slot).getVehiclePart().ordinal();
+				if(taskStation[part] < 0){
+					taskStation[part] = i;
+					taskSlot[part] = slot;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the pending tasks and the longest elapsed time of this pipeline after a task at one of its workstations
+	 * has been performed.
+	 * @param station		The index of the workstation of the task.
+	 * @param elapsedTime	The time it took to perform the task.
+	 */
+	void taskPerformed(int station, int elapsedTime){
+		int post = postOf[station];
+		if(stationAt(postStart[post+1]-1) == stations[station])
+			pendingTasks--;
+		maxElapsedTime = Math.max(maxElapsedTime, share(elapsedTime, post));
+	}
+
+	/**
+	 * Indexes the tasks of the workstations and recalculates the pending tasks of the orders that leave their post at
+	 * the next move, the number of busy positions and the time the workstations added to the current cycle.
+	 */
+	private void update(){
+		indexTasks();
+		pendingTasks = 0;
+		busyPositions = 0;
+		for(int post = 0; post < turn.length; post++){
+			pendingTasks += stationAt(postStart[post+1]-1).getPendingTasks();
+		}
+		for(Order order : orders){
+			if(order != null)
+				busyPositions++;
+		}
+		maxElapsedTime = 0;
+		for(Workstation station : stations){
+			maxElapsedTime = Math.max(maxElapsedTime, share(station.getElapsedTaskTime(), postOf[station.getIndex()]));
+		}
+	}
+
+	/**
+	 * Sets the given order as the order of the position at the given index, at the lane of that position.
+	 * @param position	The index of the position.
+	 * @param order		The order for the position, null to make it idle.
+	 */
+	private void setOrder(int position, Order order){
+		orders[position] = order;
+		stationAt(position).setOrder(order);
+	}
+
+	/**
+	 * Moves the given order to the position at the given index, which is not the first position of its post,
+	 * so the order stays at its lane. A new cycle starts for that lane.
+	 * @param position	The index of the position.
+	 * @param order		The order that moves to the position, null if the position becomes idle.
+	 */
+	private void moveOrder(int position, Order order){
+		orders[position] = order;
+		stationAt(position).startCycle();
+	}
+
+	/**
+	 * Returns an array with one lane for each of the given number of posts.
+	 * @param posts	The number of posts.
+	 * @return	An array with the given number of ones.
+	 */
+	private static int[] singleLanes(int posts){
+		int[] lanes = new int[posts];
+		Arrays.fill(lanes, 1);
+		return lanes;
+	}
+}
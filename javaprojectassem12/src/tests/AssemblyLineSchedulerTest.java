@@ -6,8 +6,10 @@ import interfaces.Printable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import logic.assemblyline.AssemblyLine;
+import logic.assemblyline.AssemblyLineScheduler;
 import logic.assemblyline.OperationalStatus;
 import logic.order.Order;
 import logic.order.VehicleModel;
@@ -161,6 +163,38 @@ public class AssemblyLineSchedulerTest {
 	}
 
 
+	/**
+	 * Test that placing a batch of orders at once gives every order the same estimated completion time
+	 * as placing the orders one at a time.
+	 */
+	@Test
+	public void testBulkOrder(){
+		List<Order> single = new ArrayList<>();
+		List<Order> bulk = new ArrayList<>();
+		for(int i = 0; i < 4 ; i++){
+			single.add(buildStandardOrderA());
+			single.add(buildStandardOrderC());
+			single.add(buildStandardOrderX());
+			bulk.add(buildStandardOrderA());
+			bulk.add(buildStandardOrderC());
+			bulk.add(buildStandardOrderX());
+		}
+		CarManufacturingCompany cmcSingle = new CarManufacturingCompany();
+		for(Order order : single){
+			cmcSingle.addOrder(order);
+		}
+		CarManufacturingCompany cmcBulk = new CarManufacturingCompany();
+		cmcBulk.addOrders(bulk);
+
+		for(int i = 0; i < single.size(); i++){
+			assertTrue(eqiDateTime(single.get(i).getEstimatedEndTime(), bulk.get(i).getEstimatedEndTime()));
+		}
+		//The first order of line 3 is already on its first workstation.
+		List<AssemblyLine> lines = extractPrintables(cmcBulk.getAssemblyLines());
+		List<Workstation> stations = extractPrintables(lines.get(2).getWorkStations());
+		assertTrue(stations.get(0).getCurrentOrder().equals(bulk.get(2)));
+	}
+
 	/**
 	 * Tests whether the two DateTime object provided describe the same moment in time accurate to the minute. 
 	 */
@@ -387,6 +421,135 @@ public class AssemblyLineSchedulerTest {
 		assertEquals(OperationalStatus.OPERATIONAL, cmc.getAssemblyLinesStatuses().get(cmc.getAssemblyLines().get(2)));	
 	}
 	
+	/**
+	 * Test that mechanics on different assembly lines can do their tasks at the same time.
+	 * Each assembly line is worked on by its own thread until all orders are finished.
+	 */
+	@Test
+	public void testConcurrentMechanics() throws InterruptedException{
+		AssemblyLineScheduler scheduler = new AssemblyLineScheduler();
+		List<Order> orders = buildConcurrentOrders();
+		scheduler.addOrders(orders);
+		runMechanics(scheduler, orders);
+		for(Printable<AssemblyLine> line : scheduler.getAssemblyLines()){
+			assertTrue(extractPrintable(line).empty());
+		}
+	}
+	
+	/**
+	 * Test that assembly lines running as actors give the same results as assembly lines guarded by locks.
+	 */
+	@Test
+	public void testActorLines(){
+		AssemblyLineScheduler locked = new AssemblyLineScheduler();
+		AssemblyLineScheduler actors = new AssemblyLineScheduler(true);
+		for(AssemblyLineScheduler scheduler : new AssemblyLineScheduler[]{locked, actors}){
+			List<Order> orders = new ArrayList<>();
+			for(int i = 0; i < 3; i++){
+				orders.add(buildStandardOrderA());
+				orders.add(buildStandardOrderC());
+				orders.add(buildStandardOrderY());
+			}
+			scheduler.addOrders(orders);
+			scheduler.changeAssemblyLineStatus(scheduler.getAssemblyLines().get(1), OperationalStatus.MAINTENANCE);
+			for(int i = 0; i < 20; i++){
+				for(Printable<AssemblyLine> line : scheduler.getAssemblyLines()){
+					for(Printable<Workstation> station : scheduler.getWorkStationsFromAssemblyLine(line)){
+						for(Printable<Task> task : scheduler.getRequiredTasks(station, line)){
+							scheduler.doTask(task, line, ((Task) task).getEstimatedPhaseDuration() + 5);
+						}
+					}
+				}
+			}
+		}
+		assertTrue(AssemblyLineTest.eqiDateTime(locked.getCurrentTime(), actors.getCurrentTime()));
+		assertEquals(locked.getStatistics(), actors.getStatistics());
+		for(int i = 0; i < locked.getAssemblyLines().size(); i++){
+			assertEquals(locked.getAssemblyLinesStatuses().get(locked.getAssemblyLines().get(i)),
+					actors.getAssemblyLinesStatuses().get(actors.getAssemblyLines().get(i)));
+		}
+	}
+	
+	/**
+	 * Test that mechanics on different assembly lines running as actors can do their tasks at the same time.
+	 */
+	@Test
+	public void testConcurrentActorLines() throws InterruptedException{
+		AssemblyLineScheduler scheduler = new AssemblyLineScheduler(true);
+		List<Order> orders = buildConcurrentOrders();
+		scheduler.addOrders(orders);
+		runMechanics(scheduler, orders);
+	}
+	
+	/**
+	 * Builds the orders for the tests with concurrent mechanics: four orders each of models A, C and X.
+	 * @return	The orders.
+	 */
+	private List<Order> buildConcurrentOrders(){
+		List<Order> orders = new ArrayList<>();
+		for(int i = 0; i < 4; i++){
+			orders.add(buildStandardOrderA());
+			orders.add(buildStandardOrderC());
+			orders.add(buildStandardOrderX());
+		}
+		return orders;
+	}
+	
+	/**
+	 * Lets one mechanic thread per assembly line of the given scheduler do all its pending tasks until all the given
+	 * orders are finished, and checks that they all finish.
+	 * @param scheduler	The scheduler on which the orders have been placed.
+	 * @param orders	The orders that need to be finished.
+	 * @throws InterruptedException	If the test is interrupted while waiting for the mechanics.
+	 */
+	private static void runMechanics(final AssemblyLineScheduler scheduler, final List<Order> orders) throws InterruptedException{
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> mechanics = new ArrayList<>();
+		for(final Printable<AssemblyLine> line : scheduler.getAssemblyLines()){
+			Thread mechanic = new Thread(new Runnable(){
+				@Override
+				public void run(){
+					try{
+						while(!allFinished(orders) && failure.get() == null){
+							for(Printable<Workstation> station : scheduler.getWorkStationsFromAssemblyLine(line)){
+								for(Printable<Task> task : scheduler.getRequiredTasks(station, line)){
+									scheduler.doTask(task, line, ((Task) task).getEstimatedPhaseDuration());
+								}
+							}
+							Thread.yield();
+						}
+					}catch(Throwable t){
+						failure.compareAndSet(null, t);
+					}
+				}
+			});
+			mechanics.add(mechanic);
+			mechanic.start();
+		}
+		for(Thread mechanic : mechanics){
+			mechanic.join(60000);
+			if(mechanic.isAlive())
+				fail("The mechanics did not finish all orders.");
+		}
+		if(failure.get() != null)
+			throw new AssertionError(failure.get());
+		assertTrue(allFinished(orders));
+	}
+	
+	/**
+	 * Checks whether all the given orders are finished.
+	 * @param orders	The orders that need to be checked.
+	 * @return	True if all the given orders have an end time.
+	 * 			False otherwise.
+	 */
+	private static boolean allFinished(List<Order> orders){
+		for(Order order : orders){
+			if(order.getEndTime() == null)
+				return false;
+		}
+		return true;
+	}
+	
 	/**
 	 * Extract the underlying objects from it's printable wrapper in a list.
 	 * @param <T>
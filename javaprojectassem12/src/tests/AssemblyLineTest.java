@@ -16,11 +16,13 @@ import logic.order.VehicleModel;
 import logic.order.VehicleOrder;
 import logic.order.VehicleOrderDetailsMaker;
 import logic.order.VehiclePart;
+import logic.workstation.CarBodyPost;
 import logic.workstation.Task;
 import logic.workstation.Workstation;
 import logic.workstation.WorkstationChainBuilder;
 import logic.workstation.WorkstationDirector;
 import logic.workstation.WorkstationDirectorA;
+import logic.workstation.WorkstationDirectorB;
 
 import org.joda.time.DateTime;
 import org.joda.time.MutableDateTime;
@@ -344,6 +346,42 @@ public class AssemblyLineTest{
 	
 	
 	
+	/**
+	 * Test that a second lane on the bottleneck post halves its share of the cycle.
+	 * Truck model Y spends 120 minutes at the car body post and at most 60 minutes at every other post.
+	 */
+	@Test
+	public void testLanesEstimates(){
+		List<VehicleOrder> single = new ArrayList<VehicleOrder>();
+		List<VehicleOrder> laned = new ArrayList<VehicleOrder>();
+		AssemblyLine singleLine = buildTruckAssemblyLine(1);
+		AssemblyLine lanedLine = buildTruckAssemblyLine(2);
+		DateTime now = singleLine.getcycleStartTime();
+		for(int i = 0; i < 4; i++){
+			single.add(buildStandardOrderY());
+			singleLine.addOrder(single.get(i));
+			laned.add(buildStandardOrderY());
+			lanedLine.addOrder(laned.get(i));
+		}
+		//The line moves in lockstep: every cycle lasts as long as its slowest position.
+		//On one lane a truck holds the car body post for 120 minutes, so the first order needs 4 cycles of 120 and one of 60.
+		assertTrue(eqiDateTime(single.get(0).getEstimatedEndTime(), now.plusMinutes(4 * 120 + 60)));
+		//On two lanes the post is split over two positions of 60 minutes each.
+		assertTrue(eqiDateTime(laned.get(0).getEstimatedEndTime(), now.plusMinutes(6 * 60)));
+		//The last order finishes alone at the certification post (45 minutes).
+		assertTrue(eqiDateTime(single.get(3).getEstimatedEndTime(), now.plusMinutes(4 * 120 + 3 * 60 + 45)));
+		assertTrue(eqiDateTime(laned.get(3).getEstimatedEndTime(), now.plusMinutes(8 * 60 + 45)));
+	}
+	
+	private AssemblyLine buildTruckAssemblyLine(int bodyLanes){
+		WorkstationChainBuilder builder = new WorkstationChainBuilder();	
+		WorkstationDirector director = new WorkstationDirectorB(builder);
+		director.setLanes(CarBodyPost.class, bodyLanes);
+		director.construct();
+		VehicleModel[] models = {VehicleModel.TRUCKMODELX, VehicleModel.TRUCKMODELY};
+		return new AssemblyLine(Arrays.asList(models), builder, new DateTime(2014, 1, 1, 6, 0), "Test truck AssemblyLine");
+	}
+	
 	/**
 	 * Tests whether the two DateTime object provided describe the same moment in time accurate to the minute. 
 	 */
@@ -382,6 +420,32 @@ public class AssemblyLineTest{
 		return mu.toDateTime();
 	}
 
+	/**
+	 * Build a standard truck order: duration 120 at the car body post.
+	 * @return	A standard order of truck model Y.
+	 */
+	private VehicleOrder buildStandardOrderY(){
+		VehiclePart[] partsArray = {
+				VehiclePart.BODY_PLATFORM, 
+				VehiclePart.COLOUR_BLACK,
+				VehiclePart.ENGINE_TRUCKSTANDARD,
+				VehiclePart.GEARBOX_8MANUAL,
+				VehiclePart.SEATS_VINYL_GRAY,
+				VehiclePart.AIRCO_MANUAL,
+				VehiclePart.WHEELS_HEAVY_DUTY,
+				VehiclePart.SPOILER_NONE,
+				VehiclePart.TOOLSTORAGE_STANDARD,
+				VehiclePart.CARGO_STANDARD,
+				VehiclePart.CERTIFICATION_STANDARD
+			};
+		
+		VehicleOrderDetailsMaker maker = new VehicleOrderDetailsMaker(VehicleModel.TRUCKMODELY);
+		for(VehiclePart part : partsArray){
+			maker.addPart(part);
+		}
+		return new VehicleOrder(maker.getDetails());
+	}
+
 	/**
 	 * Build a standard order: duration 50, 50, 0
 	 * @return	A standard order with a duration of 50 minutes.
@@ -0,0 +1,147 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Arrays;
+
+import init.LoadTestClient;
+import init.Main;
+import logic.users.CarManufacturingCompany;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import views.HttpView;
+import views.Json;
+import controllers.AssemAssistController;
+
+/**
+ * A test case for the HTTP interface of the system.
+ */
+public class HttpViewTest {
+	HttpView view;
+	String address;
+
+	/**
+	 * Lets the HTTP servers of the tests answer with TCP_NODELAY, as Main does before it starts the HTTP interface.
+	 */
+	@BeforeClass
+	public static void enableNoDelay() {
+		Main.enableNoDelay();
+	}
+
+	/**
+	 * Starts an HTTP interface on a free port.
+	 */
+	@Before
+	public void prequel() throws IOException {
+		view = new HttpView(new AssemAssistController(new CarManufacturingCompany()), 0);
+		view.start();
+		address = "http://localhost:" + view.getPort();
+	}
+
+	/**
+	 * Stops the HTTP interface.
+	 */
+	@After
+	public void sequel() {
+		view.stop();
+	}
+
+	/**
+	 * Test placing an order and reading it back as a garage holder.
+	 */
+	@Test
+	public void testGarageHolder() throws IOException {
+		String session = Json.readString(send("POST", "/login", "user=gar", 200), "session");
+		assertNotNull(session);
+		assertEquals("{\"model\":\"Car Model A\"}", send("POST", "/garageholder/model", "session=" + session + "&model=" + encode("Car Model A"), 200));
+		for(String part : Arrays.asList("Sedan", "Red", "Standard 2l v4", "6 speed manual", "Leather black", "Manual",
+				"Comfort", "No Spoiler", "No Toolstorage", "No Cargo Protection", "No Certification")){
+			send("POST", "/garageholder/part", "session=" + session + "&part=" + encode(part), 200);
+		}
+		send("POST", "/garageholder/order", "session=" + session, 200);
+		String orders = send("GET", "/garageholder/orders", "session=" + session, 200);
+		assertTrue(orders.startsWith("{\"pending\":[\"Pending, est. completion at: "));
+		assertTrue(orders.endsWith("\"completed\":[]}"));
+
+		send("GET", "/manager/statistics", "session=" + session, 403);
+		send("GET", "/garageholder/nothing", "session=" + session, 404);
+		send("GET", "/garageholder/pending", "session=" + session + "&index=first", 400);
+		send("GET", "/login", "user=gar", 405);
+		assertEquals("{\"loggedOut\":true}", send("POST", "/logout", "session=" + session, 200));
+		send("GET", "/garageholder/orders", "session=" + session, 401);
+		send("POST", "/login", "user=nobody", 401);
+	}
+
+	/**
+	 * Test that the statistics of a manager are answered as a JSON string.
+	 */
+	@Test
+	public void testManager() throws IOException {
+		String session = Json.readString(send("POST", "/login", "user=man", 200), "session");
+		String answer = send("GET", "/manager/statistics", "session=" + session, 200);
+		assertTrue(Json.readString(answer, "statistics").contains("Generality"));
+		assertTrue(send("GET", "/manager/strategies/all", "session=" + session, 200).startsWith("{\"strategies\":[["));
+	}
+
+	/**
+	 * Test that the load test client gets all its requests answered.
+	 */
+	@Test
+	public void testLoadTestClient() throws InterruptedException {
+		LoadTestClient client = new LoadTestClient(address, 4, 300);
+		client.run();
+		assertTrue(client.getRequests() > 0);
+		assertEquals(0, client.getErrors());
+	}
+
+	/**
+	 * Sends a request to the HTTP interface and checks the status of the answer.
+	 * @param method		The HTTP method.
+	 * @param path			The path of the operation.
+	 * @param parameters	The URL encoded parameters.
+	 * @param status		The expected status.
+	 * @return	The answer.
+	 */
+	private String send(String method, String path, String parameters, int status) throws IOException {
+		HttpURLConnection connection;
+		if(method.equals("GET")){
+			connection = (HttpURLConnection) new URL(address + path + "?" + parameters).openConnection();
+		}else{
+			connection = (HttpURLConnection) new URL(address + path).openConnection();
+			connection.setRequestMethod(method);
+			connection.setDoOutput(true);
+			OutputStream out = connection.getOutputStream();
+			out.write(parameters.getBytes("UTF-8"));
+			out.close();
+		}
+		assertEquals(status, connection.getResponseCode());
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while((read = in.read(buffer)) > 0)
+			bytes.write(buffer, 0, read);
+		in.close();
+		return bytes.toString("UTF-8");
+	}
+
+	/**
+	 * Returns the given text URL encoded.
+	 * @param text	The text that needs to be encoded.
+	 * @return	The URL encoded text.
+	 */
+	private static String encode(String text) throws IOException {
+		return URLEncoder.encode(text, "UTF-8");
+	}
+}
@@ -0,0 +1,212 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import interfaces.Printable;
+import init.DataLoader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import logic.assemblyline.AssemblyLine;
+import logic.assemblyline.OperationalStatus;
+import logic.order.Order;
+import logic.order.VehicleModel;
+import logic.order.VehicleOrderDetails;
+import logic.order.VehicleOrderDetailsMaker;
+import logic.order.VehiclePart;
+import logic.users.CarManufacturingCompany;
+import logic.users.GarageHolder;
+import logic.workstation.Task;
+import logic.workstation.Workstation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A test case for the journal of a car manufacturing company: recovering a company from its snapshots and commands.
+ */
+public class JournalTest {
+	File directory;
+
+	/**
+	 * Makes an empty directory for the journal.
+	 */
+	@Before
+	public void prequel() throws IOException {
+		directory = Files.createTempDirectory("journal").toFile();
+	}
+
+	/**
+	 * Removes the directory of the journal.
+	 */
+	@After
+	public void sequel() {
+		for(File file : directory.listFiles()){
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	/**
+	 * Test that a journaled company behaves like a company without a journal, and that opening its directory again
+	 * recovers the same state from the latest snapshot and the commands after it.
+	 */
+	@Test
+	public void testRecovery() throws IOException {
+		CarManufacturingCompany plain = new CarManufacturingCompany();
+		run(plain);
+
+		CarManufacturingCompany journaled = CarManufacturingCompany.open(directory, 25);
+		run(journaled);
+		assertEquals(state(plain), state(journaled));
+		long length = journaled.getJournalLength();
+		assertTrue(length > 25);
+		journaled.close();
+		assertTrue(latestSnapshot() > 0);
+
+		CarManufacturingCompany recovered = CarManufacturingCompany.open(directory, 25);
+		assertEquals(state(plain), state(recovered));
+		assertEquals(length, recovered.getJournalLength());
+
+		recovered.snapshot();
+		recovered.close();
+		assertEquals(length, latestSnapshot());
+		assertEquals(2, directory.listFiles().length);
+		recovered = CarManufacturingCompany.open(directory, 25);
+		assertEquals(state(plain), state(recovered));
+		recovered.close();
+	}
+
+	/**
+	 * Test that a command that has not been written completely is ignored, and that the journal goes on after it.
+	 */
+	@Test
+	public void testTornCommand() throws IOException {
+		CarManufacturingCompany plain = new CarManufacturingCompany();
+		run(plain);
+		CarManufacturingCompany journaled = CarManufacturingCompany.open(directory, 1000000);
+		run(journaled);
+		journaled.close();
+		assertEquals(-1, latestSnapshot());
+
+		File segment = new File(directory, "journal-0");
+		try(FileOutputStream out = new FileOutputStream(segment, true)){
+			out.write("TASK\t0\tBODY_".getBytes("UTF-8"));
+		}
+		CarManufacturingCompany recovered = CarManufacturingCompany.open(directory, 1000000);
+		assertEquals(state(plain), state(recovered));
+
+		plain.changeStrategyAllLines(null);
+		recovered.changeStrategyAllLines(null);
+		recovered.close();
+		recovered = CarManufacturingCompany.open(directory, 1000000);
+		assertEquals(state(plain), state(recovered));
+		recovered.close();
+	}
+
+	/**
+	 * Test that the orders a garage holder places are still committed to the garage holder after recovering from a
+	 * snapshot taken right after placing them.
+	 */
+	@Test
+	public void testGarageHolderOrders() throws IOException {
+		CarManufacturingCompany journaled = CarManufacturingCompany.open(directory, 1);
+		GarageHolder holder = (GarageHolder) journaled.logIn("gar");
+		holder.placeOrder(buildOrder());
+		holder.placeOrder(buildOrder());
+		holder.placeOrders(Arrays.asList(buildOrder(), buildOrder()));
+		assertEquals(4, holder.getPendingOrders().size());
+		String state = state(journaled);
+		journaled.close();
+		assertEquals(3, latestSnapshot());
+
+		CarManufacturingCompany recovered = CarManufacturingCompany.open(directory, 1);
+		assertEquals(4, ((GarageHolder) recovered.logIn("gar")).getPendingOrders().size());
+		assertEquals(state, state(recovered));
+		recovered.close();
+	}
+
+	/**
+	 * Runs the same commands on the given company: the demo data, a batch strategy, a broken assembly line and
+	 * some tasks.
+	 * @param company	The company.
+	 */
+	private void run(CarManufacturingCompany company){
+		new DataLoader(company).loadData();
+		List<Order> batch = company.getBatchList();
+		if(!batch.isEmpty())
+			company.changeStrategyAllLines(batch.get(0));
+		Printable<AssemblyLine> line = company.getAssemblyLines().get(1);
+		company.changeAssemblyLineStatus(line, OperationalStatus.BROKEN);
+		performTasks(company);
+		company.changeAssemblyLineStatus(line, OperationalStatus.OPERATIONAL);
+		company.changeStrategy(null, line);
+		performTasks(company);
+	}
+
+	/**
+	 * Performs the pending tasks at every workstation of every assembly line once.
+	 * @param company	The company.
+	 */
+	private void performTasks(CarManufacturingCompany company){
+		for(Printable<AssemblyLine> line : company.getAssemblyLines()){
+			for(Printable<Workstation> station : company.getWorkStationsFromAssemblyLine(line)){
+				for(Printable<Task> task : company.getRequiredTasks(station, line)){
+					company.doTask(task, line, ((Task) task).getEstimatedPhaseDuration());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the details of an order of car model A.
+	 * @return	The details of the order.
+	 */
+	private VehicleOrderDetails buildOrder(){
+		VehicleOrderDetailsMaker maker = new VehicleOrderDetailsMaker(VehicleModel.CARMODELA);
+		for(VehiclePart part : Arrays.asList(VehiclePart.BODY_SEDAN, VehiclePart.COLOUR_RED, VehiclePart.ENGINE_4,
+				VehiclePart.GEARBOX_6MANUAL, VehiclePart.SEATS_LEATHER_BLACK, VehiclePart.AIRCO_MANUAL,
+				VehiclePart.WHEELS_COMFORT, VehiclePart.SPOILER_NONE, VehiclePart.TOOLSTORAGE_NONE,
+				VehiclePart.CARGO_NONE, VehiclePart.CERTIFICATION_NONE)){
+			maker.addPart(part);
+		}
+		return maker.getDetails();
+	}
+
+	/**
+	 * Returns a description of the state of the given company.
+	 * @param company	The company.
+	 * @return	The statistics, the current time, the statuses of the assembly lines and the orders of the garage holder.
+	 */
+	private String state(CarManufacturingCompany company){
+		List<String> statuses = new ArrayList<>();
+		for(Printable<AssemblyLine> line : company.getAssemblyLines()){
+			statuses.add(company.getAssemblyLinesStatuses().get(line).toString());
+			statuses.add(company.getStrategies(line).toString());
+		}
+		GarageHolder holder = (GarageHolder) company.logIn("gar");
+		return company.getStatistics() + company.getCurrentTime() + statuses + holder.getPendingOrders()
+				+ holder.getCompletedOrders();
+	}
+
+	/**
+	 * Returns the number of commands in the latest snapshot in the directory.
+	 * @return	-1 if there is no snapshot.
+	 * 			The number of commands in the latest snapshot otherwise.
+	 */
+	private long latestSnapshot(){
+		long latest = -1;
+		for(String name : directory.list()){
+			if(name.startsWith("snapshot-"))
+				latest = Math.max(latest, Long.parseLong(name.substring("snapshot-".length())));
+		}
+		return latest;
+	}
+}
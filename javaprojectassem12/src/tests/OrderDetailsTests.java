@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -163,4 +164,68 @@ public class OrderDetailsTests {
 			strings.add(s);
 		}
 	}
+	
+	/**
+	 * Tests that orders with the same model and parts share one specification, regardless of the
+	 * order in which the parts were chosen, and that orders of another model do not.
+	 */
+	@Test
+	public void testSpecification(){
+		List<VehiclePart> parts = Arrays.asList(
+				VehiclePart.BODY_BREAK, 
+				VehiclePart.COLOUR_RED,
+				VehiclePart.ENGINE_4,
+				VehiclePart.GEARBOX_5AUTO,
+				VehiclePart.SEATS_LEATHER_WHITE,
+				VehiclePart.AIRCO_MANUAL,
+				VehiclePart.WHEELS_COMFORT,
+				VehiclePart.SPOILER_NONE,
+				VehiclePart.TOOLSTORAGE_NONE,
+				VehiclePart.CERTIFICATION_NONE,
+				VehiclePart.CARGO_NONE);
+		List<VehiclePart> reversed = new ArrayList<VehiclePart>(parts);
+		Collections.reverse(reversed);
+		
+		Order first = new VehicleOrder(new VehicleOrderDetails(VehicleModel.CARMODELA, parts));
+		Order second = new VehicleOrder(new VehicleOrderDetails(VehicleModel.CARMODELA, reversed));
+		Order other = new VehicleOrder(new VehicleOrderDetails(VehicleModel.CARMODELB, parts));
+		
+		assertSame(first.getSpecification(), second.getSpecification());
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+		assertEquals(first, first.getRawCopy());
+		assertNotEquals(first, other);
+		assertTrue(first.getSpecification().contains(VehiclePart.ENGINE_4));
+		assertFalse(first.getSpecification().contains(VehiclePart.ENGINE_6));
+		
+		Set<Order> orders = new HashSet<Order>(Arrays.asList(first, second, other, first.getRawCopy()));
+		assertEquals(2, orders.size());
+	}
+	
+	/**
+	 * Tests that the estimated end time of an order can be set in minutes since the epoch and as a date time.
+	 */
+	@Test
+	public void testEstimatedEndMinute(){
+		TaskOrderDetailsMaker maker = new TaskOrderDetailsMaker();
+		maker.choosePart(VehiclePart.COLOUR_RED);
+		maker.chooseDeadline(new DateTime(2014, 1, 1, 12, 0));
+		Order order = new TaskOrder(maker.getDetails());
+		assertNull(order.getEstimatedEndTime());
+		assertEquals(Order.NO_ESTIMATE, order.getEstimatedEndMinute());
+		
+		DateTime time = new DateTime(2014, 1, 1, 10, 30);
+		order.setEstimatedEndMinute(time.getMillis() / 60000);
+		assertEquals(time, order.getEstimatedEndTime());
+		order.setEstimatedEndMinute(time.getMillis() / 60000 + 5);
+		assertEquals(time.plusMinutes(5), order.getEstimatedEndTime());
+		
+		order.setEstimatedEndTime(time.plusMinutes(15));
+		assertEquals(time.getMillis() / 60000 + 15, order.getEstimatedEndMinute());
+		assertEquals(time.plusMinutes(15), order.getEstimatedEndTime());
+		
+		order.setEstimatedEndTime(null);
+		assertEquals(Order.NO_ESTIMATE, order.getEstimatedEndMinute());
+		assertNull(order.getEstimatedEndTime());
+	}
 }
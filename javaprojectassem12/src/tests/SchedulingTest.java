@@ -4,9 +4,13 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import logic.assemblyline.AssemblyLine;
+import logic.assemblyline.PendingQueue;
 import logic.order.Order;
+import logic.order.TaskOrder;
+import logic.order.TaskOrderDetailsMaker;
 import logic.order.VehicleModel;
 import logic.order.VehicleOrder;
 import logic.order.VehicleOrderDetailsMaker;
@@ -358,5 +362,87 @@ public class SchedulingTest {
 			assertEquals(expected.get(i), orders.get(i).toString());
 		}
 	}
+	
+	/**
+	 * Tests that estimating an order does not change the queue or the estimated end times of the scheduled orders,
+	 * and that the estimate equals the estimated end time the order receives once it is scheduled.
+	 */
+	@Test
+	public void estimateTest() {
+		buildAssemblyLineB();
+		orders.add(buildStandardOrderA());
+		orders.add(buildStandardOrderB());
+		orders.add(buildStandardOrderX());
+		orders.add(buildStandardOrderC());
+		orders.add(buildStandardOrderA());
+		for(int i = 0; i < orders.size(); i++){
+			line.addOrder(orders.get(i));
+		}
+		ArrayList<String> expected = new ArrayList<>();
+		for(int i = 0; i < orders.size(); i++){
+			expected.add(orders.get(i).toString());
+		}
+		int queueLength = line.getQueueLength();
+		VehicleOrder order = buildStandardOrderY();
+		DateTime estimate = line.getEstimate(order, new DateTime(2014, 1, 1, 6, 0));
+		assertEquals(queueLength, line.getQueueLength());
+		assertNull(order.getEstimatedEndTime());
+		for(int i = 0; i < orders.size(); i++){
+			assertEquals(expected.get(i), orders.get(i).toString());
+		}
+		line.addOrder(order);
+		assertEquals("01-01-2014 17:35", order.toString());
+		// An estimate carries a bias of a few milliseconds to order the assembly lines, so compare up to the minute.
+		assertTrue(AssemblyLineTest.eqiDateTime(order.getEstimatedEndTime(), estimate));
+	}
+	
+	/**
+	 * Build a task order with the given deadline.
+	 * @param deadline	The deadline of the task order.
+	 * @return	A task order with the given deadline.
+	 */
+	private TaskOrder buildTaskOrder(DateTime deadline){
+		TaskOrderDetailsMaker maker = new TaskOrderDetailsMaker();
+		maker.choosePart(VehiclePart.COLOUR_RED);
+		maker.chooseDeadline(deadline);
+		return new TaskOrder(maker.getDetails());
+	}
+	
+	/**
+	 * Tests that the pending queue places orders in deadline order, orders without a deadline last,
+	 * also when the deadlines in the queue are no longer in order.
+	 */
+	@Test
+	public void pendingQueueTest() {
+		PendingQueue queue = new PendingQueue();
+		Order a = buildStandardOrderA();
+		Order at10 = buildTaskOrder(new DateTime(2014, 1, 1, 10, 0));
+		Order at12 = buildTaskOrder(new DateTime(2014, 1, 1, 12, 0));
+		Order at14 = buildTaskOrder(new DateTime(2014, 1, 1, 14, 0));
+		for(Order order : Arrays.asList(a, at12, at10, at14)){
+			queue.add(queue.getDeadlineIndex(order), order);
+		}
+		assertEquals(Arrays.asList(at10, at12, at14, a), queue);
+		
+		Order b = buildStandardOrderB();
+		queue.add(0, b);
+		assertEquals(0, queue.getDeadlineIndex(buildTaskOrder(new DateTime(2014, 1, 1, 11, 0))));
+		assertEquals(5, queue.getDeadlineIndex(buildStandardOrderC()));
+		assertEquals(b, queue.pop());
+		assertEquals(1, queue.getDeadlineIndex(buildTaskOrder(new DateTime(2014, 1, 1, 11, 0))));
+		
+		List<Order> view = queue.withOrderAt(b, 1);
+		assertEquals(Arrays.asList(at10, b, at12, at14, a), view);
+		assertEquals(4, queue.size());
+		
+		assertEquals(3, queue.count(at10.getSpecification()));
+		assertEquals(1, queue.count(a.getSpecification()));
+		assertEquals(0, queue.count(b.getSpecification()));
+		assertEquals(0, queue.moveToFront(a.getSpecification()));
+		assertEquals(Arrays.asList(a, at10, at12, at14), queue);
+		assertEquals(4, queue.moveToFront(a.getSpecification()));
+		assertEquals(1, queue.getDeadlineIndex(buildTaskOrder(new DateTime(2014, 1, 1, 9, 0)), 1));
+		assertEquals(4, queue.getDeadlineIndex(buildTaskOrder(new DateTime(2014, 1, 1, 15, 0)), 1));
+	}
 
 }
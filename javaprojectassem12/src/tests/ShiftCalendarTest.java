@@ -0,0 +1,155 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import logic.assemblyline.ShiftCalendar;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.junit.Test;
+
+/**
+ * A test case to test the shift calendar.
+ */
+public class ShiftCalendarTest {
+
+	/**
+	 * Returns the given date time in minutes since the epoch.
+	 */
+	private long minute(int year, int month, int day, int hour, int minute){
+		return new DateTime(year, month, day, hour, minute).getMillis() / DateTimeConstants.MILLIS_PER_MINUTE;
+	}
+
+	/**
+	 * Tests the default calendar with one shift from 6 until 22 on every day.
+	 */
+	@Test
+	public void testDefaultShift(){
+		ShiftCalendar calendar = new ShiftCalendar(6, 22);
+		assertFalse(calendar.isWorkingTime(minute(2014, 1, 1, 5, 59), 0));
+		assertTrue(calendar.isWorkingTime(minute(2014, 1, 1, 6, 0), 0));
+		assertTrue(calendar.isWorkingTime(minute(2014, 1, 1, 21, 59), 0));
+		assertFalse(calendar.isWorkingTime(minute(2014, 1, 1, 22, 0), 0));
+		assertFalse(calendar.isWorkingTime(minute(2014, 1, 1, 21, 0), 60));
+
+		assertEquals(0, calendar.getOverTime(minute(2014, 1, 1, 21, 0)));
+		assertEquals(30, calendar.getOverTime(minute(2014, 1, 1, 22, 30)));
+		assertEquals(150, calendar.getOverTime(minute(2014, 1, 2, 0, 30)));
+
+		assertEquals(minute(2014, 1, 1, 6, 0), calendar.getNextShiftStart(minute(2014, 1, 1, 3, 0)));
+		assertEquals(minute(2014, 1, 1, 6, 0), calendar.getNextShiftStart(minute(2014, 1, 1, 6, 40)));
+		assertEquals(minute(2014, 1, 2, 6, 0), calendar.getNextShiftStart(minute(2014, 1, 1, 22, 10)));
+
+		assertEquals(minute(2014, 1, 1, 6, 0), calendar.getNextWorkdayStart(minute(2014, 1, 1, 5, 0)));
+		assertEquals(minute(2014, 1, 2, 6, 0), calendar.getNextWorkdayStart(minute(2014, 1, 1, 6, 0)));
+		assertEquals(minute(2014, 1, 2, 6, 0), calendar.getNextWorkdayStart(minute(2014, 1, 1, 23, 0)));
+
+		assertEquals(minute(2014, 1, 1, 9, 0), calendar.getEarliestCompletion(minute(2014, 1, 1, 6, 0), 180));
+		assertEquals(minute(2014, 1, 2, 9, 0), calendar.getEarliestCompletion(minute(2014, 1, 1, 20, 0), 180));
+
+		assertTrue(calendar.isEndOfWorkday(minute(2014, 1, 1, 5, 0), 0, 180));
+		assertFalse(calendar.isEndOfWorkday(minute(2014, 1, 1, 18, 0), 0, 180));
+		assertTrue(calendar.isEndOfWorkday(minute(2014, 1, 1, 19, 0), 0, 180));
+		assertTrue(calendar.isEndOfWorkday(minute(2014, 1, 1, 18, 0), 60, 180));
+
+		assertTrue(calendar.isWorkdayStart(minute(2014, 1, 1, 6, 30)));
+		assertFalse(calendar.isWorkdayStart(minute(2014, 1, 1, 7, 0)));
+		assertEquals(19 * 60, calendar.getMinutesUntilNextDay(minute(2014, 1, 1, 11, 0)));
+	}
+
+	/**
+	 * Tests a calendar with two shifts with a break in between and no work in the weekend.
+	 */
+	@Test
+	public void testShiftsAndWeekend(){
+		ShiftCalendar calendar = new ShiftCalendar(Arrays.asList(new int[]{6*60, 14*60}, new int[]{15*60, 23*60}),
+				Arrays.asList(DateTimeConstants.SATURDAY, DateTimeConstants.SUNDAY));
+		// The 3rd of January 2014 is a friday.
+		assertFalse(calendar.isWorkingTime(minute(2014, 1, 3, 14, 30), 0));
+		assertTrue(calendar.isWorkingTime(minute(2014, 1, 3, 15, 0), 0));
+		assertFalse(calendar.isWorkingTime(minute(2014, 1, 4, 10, 0), 0));
+		assertEquals(30, calendar.getOverTime(minute(2014, 1, 3, 14, 30)));
+
+		assertEquals(minute(2014, 1, 3, 15, 0), calendar.getNextWorkdayStart(minute(2014, 1, 3, 6, 0)));
+		assertEquals(minute(2014, 1, 6, 6, 0), calendar.getNextWorkdayStart(minute(2014, 1, 3, 15, 0)));
+		assertEquals(minute(2014, 1, 6, 6, 0), calendar.getNextShiftStart(minute(2014, 1, 4, 12, 0)));
+
+		// A job that does not fit before the break is done in the next shift.
+		assertEquals(minute(2014, 1, 3, 17, 0), calendar.getEarliestCompletion(minute(2014, 1, 3, 13, 0), 120));
+		// A job that does not fit before the weekend is done on monday.
+		assertEquals(minute(2014, 1, 6, 8, 0), calendar.getEarliestCompletion(minute(2014, 1, 3, 22, 0), 120));
+
+		assertTrue(calendar.isEndOfWorkday(minute(2014, 1, 3, 13, 0), 0, 120));
+		assertEquals(minute(2014, 1, 6, 6, 0) - minute(2014, 1, 3, 20, 0), calendar.getMinutesUntilNextDay(minute(2014, 1, 3, 20, 0)));
+	}
+
+	/**
+	 * Tests a calendar without breaks.
+	 */
+	@Test
+	public void testContinuous(){
+		ShiftCalendar calendar = new ShiftCalendar(0, 24);
+		long time = minute(2014, 1, 1, 23, 30);
+		assertTrue(calendar.isWorkingTime(time, 120));
+		assertEquals(0, calendar.getOverTime(time));
+		assertFalse(calendar.isEndOfWorkday(time, 0, 180));
+		assertEquals(time + 180, calendar.getEarliestCompletion(time, 180));
+		assertEquals(Integer.MAX_VALUE, calendar.getMinutesUntilNextDay(time));
+	}
+
+	/**
+	 * Tests that a calendar without working hours is not allowed.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoWorkingHours(){
+		new ShiftCalendar(Collections.singletonList(new int[]{6*60, 22*60}), Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+	}
+
+	/**
+	 * Tests that the standard calendar is read back from its serialized form as the shared standard calendar,
+	 * without its tables, and that another calendar is still read back as a calendar of its own.
+	 */
+	@Test
+	public void testSerializedStandard() throws IOException, ClassNotFoundException {
+		byte[] standard = serialize(ShiftCalendar.STANDARD);
+		assertTrue(standard.length < 1000);
+		assertSame(ShiftCalendar.STANDARD, deserialize(standard));
+
+		ShiftCalendar calendar = new ShiftCalendar(6, 22);
+		ShiftCalendar copy = (ShiftCalendar) deserialize(serialize(calendar));
+		assertNotSame(ShiftCalendar.STANDARD, copy);
+		assertEquals(calendar.getNextShiftStart(minute(2014, 1, 1, 23, 0)), copy.getNextShiftStart(minute(2014, 1, 1, 23, 0)));
+	}
+
+	/**
+	 * Returns the serialized form of the given object.
+	 */
+	private byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+			out.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Returns the object with the given serialized form.
+	 */
+	private Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))){
+			return in.readObject();
+		}
+	}
+}
@@ -1,12 +1,19 @@
 package tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import interfaces.Printable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import logic.assemblyline.AssemblyLine;
+import logic.assemblyline.Delay;
+import logic.assemblyline.RunningStatistics;
+import logic.assemblyline.StatisticsAssemblyLine;
 import logic.order.Order;
 import logic.order.VehicleModel;
 import logic.order.VehicleOrder;
@@ -17,6 +24,7 @@ import logic.users.Mechanic;
 import logic.workstation.Task;
 import logic.workstation.Workstation;
 
+import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -140,5 +148,90 @@ public class StatisticsTests {
 				"   2) 0 minutes on 01-01-2014 18:30\n"+
 				"   1) 0 minutes on 01-01-2014 19:20\n"));
 	}
+	
+	/**
+	 * Tests that the delays of finished orders are kept in time order, also when there are more delays
+	 * than fit in one chunk of the log and when a delay is recorded after a later one.
+	 */
+	@Test
+	public void testDelayLog(){
+		StatisticsAssemblyLine line = new StatisticsAssemblyLine("Test Line", 4000, 7);
+		DateTime start = new DateTime(2014, 1, 1, 6, 0);
+		for(int i = 0; i < 3000; i++){
+			line.finishedCarOrder(i % 50, start.plusMinutes(i / 2));
+		}
+		line.finishedCarOrder(99, start.plusMinutes(1000));
+		List<Delay> delays = line.getDelays();
+		assertEquals(3001, delays.size());
+		assertEquals(99, delays.get(2002).getDelayTime());
+		for(int i = 1; i < delays.size(); i++){
+			assertTrue(!delays.get(i).getDateOfDelay().isBefore(delays.get(i-1).getDateOfDelay()));
+		}
+		assertEquals(2001 % 50, delays.get(2001).getDelayTime());
+		assertEquals(2002 % 50, delays.get(2003).getDelayTime());
+	}
+	
+	/**
+	 * Tests that the running aggregates match the aggregates of the sorted values after each added
+	 * and each removed value.
+	 */
+	@Test
+	public void testRunningStatistics(){
+		RunningStatistics running = new RunningStatistics();
+		assertEquals(0, running.getMedian());
+		assertEquals(0, running.getAverage());
+		List<Integer> values = new ArrayList<Integer>();
+		Random random = new Random(12);
+		for(int i = 0; i < 1000; i++){
+			if(i < 500 || random.nextInt(3) == 0){
+				int value = random.nextInt(120) - 20;
+				values.add(value);
+				running.add(value);
+			}else{
+				running.remove(values.remove(random.nextInt(values.size())));
+			}
+			if(values.isEmpty())
+				continue;
+			List<Integer> sorted = new ArrayList<Integer>(values);
+			Collections.sort(sorted);
+			int n = sorted.size();
+			int median = n % 2 == 1 ? sorted.get(n/2) : (sorted.get(n/2-1) + sorted.get(n/2))/2;
+			long sum = 0;
+			for(int v : sorted){
+				sum += v;
+			}
+			assertEquals(median, running.getMedian());
+			assertEquals((int) (sum / n), running.getAverage());
+			assertEquals((int) sorted.get((90*n + 99)/100 - 1), running.getNinetiethPercentile());
+			assertEquals((int) sorted.get((99*n + 99)/100 - 1), running.getNinetyNinthPercentile());
+			assertEquals((int) sorted.get(0), running.getMin());
+			assertEquals((int) sorted.get(n-1), running.getMax());
+		}
+	}
+	
+	/**
+	 * Tests that only the most recent delays and days are kept, while the averages and medians
+	 * still cover all delays and days.
+	 */
+	@Test
+	public void testRetention(){
+		StatisticsAssemblyLine line = new StatisticsAssemblyLine("Test Line", 5, 3);
+		DateTime start = new DateTime(2014, 1, 1, 6, 0);
+		for(int day = 0; day < 10; day++){
+			for(int i = 0; i <= day; i++){
+				line.finishedCarOrder(10 * day, start.plusDays(day).plusMinutes(i));
+			}
+			line.setNextDay();
+		}
+		List<Delay> delays = line.getDelays();
+		assertEquals(5, delays.size());
+		for(Delay delay : delays){
+			assertEquals(90, delay.getDelayTime());
+		}
+		assertEquals(Arrays.asList(8, 9, 10), line.getFinishedCarOrdersPerDay());
+		assertTrue(line.toString().contains("Average number of cars produced: 5\n"));
+		assertTrue(line.toString().contains("Average delay: 60 minutes\n"));
+		assertTrue(line.toString().contains("   2 days ago: 9\n   1 day ago: 10\n"));
+	}
 
 }
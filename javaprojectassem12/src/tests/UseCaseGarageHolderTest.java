@@ -2,11 +2,16 @@ package tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import interfaces.Printable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import logic.assemblyline.AssemblyLine;
 import logic.order.VehicleModel;
@@ -52,6 +57,109 @@ public class UseCaseGarageHolderTest {
 		testCheckOrderDetails();
 	}
 
+	/**
+	 * Test that every log in gets its own session, so garage holders that are logged in at the same time
+	 * do not share their half-built orders.
+	 */
+	@Test
+	public void testSessions() throws InterruptedException{
+		GarageHolderController other = (GarageHolderController) controller.logIn("Jeroen");
+		assertNotSame(ghCont, other);
+		assertFalse(ghCont.getSessionId().equals(other.getSessionId()));
+		assertSame(other, controller.getSession(other.getSessionId()));
+		
+		ghCont.chooseModel(VehicleModel.CARMODELA);
+		other.chooseModel(VehicleModel.CARMODELC);
+		addParts(ghCont, "Sedan", "Red", "Standard 2l v4", "6 speed manual", "Leather black", "Manual", "Comfort", 
+				"No Spoiler", "No Toolstorage", "No Cargo Protection", "No Certification");
+		addParts(other, "Sport", "Black", "Ultra 3l v8", "6 speed manual", "Leather white", "No Airco", "Sports",
+				"Low", "No Toolstorage", "No Cargo Protection", "No Certification");
+		ghCont.placeOrder();
+		other.placeOrder();
+		assertEquals(2, ghCont.getPendingOrders().size());
+		assertEquals(2, other.getPendingOrders().size());
+		
+		assertTrue(controller.logOut(other.getSessionId()));
+		assertNull(controller.getSession(other.getSessionId()));
+		assertFalse(controller.logOut(other.getSessionId()));
+		assertEquals(1, controller.getNumberOfSessions());
+		
+		final int dealers = 20;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for(int i = 0; i < dealers; i++){
+			final VehicleModel model = i % 2 == 0 ? VehicleModel.CARMODELA : VehicleModel.CARMODELC;
+			Thread thread = new Thread(new Runnable(){
+				@Override
+				public void run(){
+					try{
+						start.await();
+						GarageHolderController session = (GarageHolderController) controller.logIn("gar");
+						session.chooseModel(model);
+						if(model == VehicleModel.CARMODELA)
+							addParts(session, "Sedan", "Red", "Standard 2l v4", "6 speed manual", "Leather black", "Manual", 
+									"Comfort", "No Spoiler", "No Toolstorage", "No Cargo Protection", "No Certification");
+						else
+							addParts(session, "Sport", "Black", "Ultra 3l v8", "6 speed manual", "Leather white", 
+									"No Airco", "Sports", "Low", "No Toolstorage", "No Cargo Protection", "No Certification");
+						session.placeOrder();
+					}catch(Throwable t){
+						failure.compareAndSet(null, t);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for(Thread thread : threads){
+			thread.join();
+		}
+		if(failure.get() != null)
+			throw new AssertionError(failure.get());
+		assertEquals(dealers + 1, controller.getNumberOfSessions());
+		assertEquals(dealers, ((GarageHolderController) controller.logIn("gar")).getPendingOrders().size());
+	}
+	
+	/**
+	 * Test that a session that is not used for longer than the session timeout expires,
+	 * while a session that keeps being used stays.
+	 */
+	@Test
+	public void testSessionExpiry() throws InterruptedException{
+		AssemAssistController expiring = new AssemAssistController(cmc, 500);
+		GarageHolderController idle = (GarageHolderController) expiring.logIn("Jeroen");
+		GarageHolderController busy = (GarageHolderController) expiring.logIn("Jeroen");
+		for(int i = 0; i < 14; i++){
+			Thread.sleep(50);
+			assertSame(busy, expiring.getSession(busy.getSessionId()));
+		}
+		assertNull(expiring.getSession(idle.getSessionId()));
+		assertEquals(1, expiring.getNumberOfSessions());
+		assertFalse(expiring.logOut(idle.getSessionId()));
+		assertTrue(expiring.logOut(busy.getSessionId()));
+	}
+	
+	/**
+	 * Test that the session timeout must be positive.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSessionTimeout(){
+		new AssemAssistController(cmc, 0);
+	}
+	
+	/**
+	 * Adds the parts with the given names to the half-built order of the given session.
+	 * @param session	The session of a garage holder.
+	 * @param parts		The names of the parts.
+	 */
+	private static void addParts(GarageHolderController session, String... parts){
+		for(String part : parts){
+			session.addPart(part);
+		}
+	}
+	
 	/**
 	 * Use Case 5.1: Test making and placing an order.
 	 */
@@ -87,4 +87,28 @@ public class UseCaseMechanicTest {
 		tasks.add(" Certification Post:\n   Inactive.\n");
 		assertEquals(tasks, mCont.getTasksPerWorkstation());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Test that two sessions of the same mechanic each keep their own assembly line and workstation,
+	 * also when one of them checks the status of all assembly lines.
+	 */
+	@Test
+	public void sessionsTest(){
+		AssemAssistController controller = new AssemAssistController(new CarManufacturingCompany());
+		MechanicController first = (MechanicController) controller.logIn("Joren");
+		MechanicController second = (MechanicController) controller.logIn("Joren");
+		first.setAssemblyLine("Assembly Line 1");
+		first.setWorkStation("Car Body Post");
+		second.setAssemblyLine("Assembly Line 3");
+		second.setWorkStation("Cargo Post");
+		second.getTasksPerWorkstation();
+		
+		ArrayList<String> workstations = new ArrayList<String>();
+		workstations.add("Car Body Post: 1");
+		workstations.add("Drive Train Post: 2");
+		workstations.add("Accessories Post: 3");
+		assertEquals(workstations, first.getWorkStationsFromAssemblyLine());
+		assertEquals(new ArrayList<String>(), first.getTasks());
+		assertEquals(5, second.getWorkStationsFromAssemblyLine().size());
+	}
+}
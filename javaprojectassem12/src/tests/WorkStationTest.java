@@ -1,8 +1,14 @@
 package tests;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import interfaces.Printable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -21,6 +27,7 @@ import logic.workstation.CarBodyPost;
 import logic.workstation.DriveTrainPost;
 import logic.workstation.Task;
 import logic.workstation.Workstation;
+import logic.workstation.WorkstationPipeline;
 
 import org.joda.time.DateTime;
 import org.junit.Before;
@@ -190,5 +197,181 @@ public class WorkStationTest {
 		universalPost.setOrder(null);
 		assertTrue(universalPost.idle());
 	}
+	
+	/**
+	 * Test the estimated phase durations of an order in a chain of workstations. They have to match the list built by
+	 * buildEstimPhaseList and are only calculated once: a second chain with the same topology gets the cached durations.
+	 * An idle workstation has no phase duration.
+	 */
+	@Test
+	public void testEstimPhaseDurations(){
+		WorkstationPipeline chain = new WorkstationPipeline(Arrays.asList(carBodyPost, driveTrainPost, accessoriesPost));
+		List<Integer> phases = new ArrayList<>();
+		chain.buildEstimPhaseList(phases, carOrder);
+		int[] durations = chain.getEstimPhaseDurations(carOrder);
+		assertArrayEquals(new int[]{phases.get(0), phases.get(1), phases.get(2)}, durations);
+		
+		WorkstationPipeline otherChain = new WorkstationPipeline(Arrays.asList(new CarBodyPost(), new DriveTrainPost(), new AccessoriesPost()));
+		assertSame(durations, otherChain.getEstimPhaseDurations(carOrder));
+		
+		assertArrayEquals(new int[]{0, 0, 0}, chain.getEstimPhaseDurations(null));
+	}
+	
+	/**
+	 * Test that the estimated phase durations found through the routing table of a pipeline are the longest
+	 * estimated durations of the tasks each post can perform.
+	 */
+	@Test
+	public void testRoutedPhaseDurations(){
+		List<Workstation> posts = Arrays.asList(carBodyPost, driveTrainPost, accessoriesPost);
+		WorkstationPipeline pipeline = new WorkstationPipeline(posts);
+		int[] durations = pipeline.getEstimPhaseDurations(carOrder);
+		for(int i = 0; i < posts.size(); i++){
+			int max = 0;
+			for(Task task : carOrder.getTasks()){
+				if(posts.get(i).getCapabilities().contains(task.getVehiclePart().type))
+					max = Math.max(max, task.getEstimatedPhaseDuration());
+			}
+			assertEquals(max, durations[i]);
+		}
+	}
+	
+	/**
+	 * Test a pipeline of workstations. Tasks are performed at the workstation that can do them and the orders
+	 * only move to the next workstation when all workstations are done. The order leaving the last workstation gets an end time.
+	 */
+	@Test
+	public void testPipeline(){
+		WorkstationPipeline pipeline = new WorkstationPipeline(Arrays.asList(carBodyPost, driveTrainPost, accessoriesPost));
+		assertTrue(pipeline.allIdle());
+		pipeline.setFirstOrder(carOrder);
+		assertFalse(pipeline.firstIdle());
+		assertFalse(pipeline.canMoveAssemblyLine());
+		for(Task task : carOrder.getTasks()){
+			pipeline.doTask(task, 0);
+		}
+		assertTrue(carBodyPost.done());
+		assertTrue(pipeline.canMoveAssemblyLine());
+		
+		DateTime endTime = new DateTime(2014, 1, 1, 12, 0);
+		pipeline.advanceOrders(null, endTime);
+		assertTrue(pipeline.firstIdle());
+		assertFalse(driveTrainPost.idle());
+		assertFalse(pipeline.canMoveAssemblyLine());
+		for(int i = 0; i < 2; i++){
+			for(Task task : carOrder.getTasks()){
+				pipeline.doTask(task, 0);
+			}
+			pipeline.advanceOrders(null, endTime);
+		}
+		assertTrue(pipeline.allIdle());
+		assertTrue(carOrder.done());
+		assertTrue(carOrder.getEndTime().equals(endTime));
+	}
+	
+	/**
+	 * Test that tasks are routed to the workstation that holds them. A task of which no workstation holds the 
+	 * vehicle part can not be performed, and the tasks of a workstation are only found for the workstation itself,
+	 * not for another workstation of the same kind.
+	 */
+	@Test
+	public void testTaskRouting(){
+		WorkstationPipeline pipeline = new WorkstationPipeline(Arrays.asList(carBodyPost, driveTrainPost, accessoriesPost));
+		pipeline.setFirstOrder(carOrder);
+		int pending = pipeline.getRequiredTasks(carBodyPost).size();
+		assertTrue(pending > 0);
+		assertTrue(pipeline.getAllTasks(driveTrainPost).isEmpty());
+		assertNull(pipeline.getRequiredTasks(new CarBodyPost()));
+		assertFalse(carBodyPost.equals(new CarBodyPost()));
+		for(Task task : carOrder.getTasks()){
+			boolean atCarBodyPost = carBodyPost.getCapabilities().contains(task.getVehiclePart().type);
+			assertTrue(pipeline.doTask(task, 0) == atCarBodyPost);
+		}
+		assertTrue(pipeline.getRequiredTasks(carBodyPost).isEmpty());
+		assertTrue(pipeline.getAllTasks(carBodyPost).size() >= pending);
+	}
+	
+	/**
+	 * Test that the pipeline keeps track of the pending tasks and the longest elapsed time, also when a task
+	 * is performed on the order itself instead of through a workstation.
+	 */
+	@Test
+	public void testPendingTaskCounters(){
+		WorkstationPipeline pipeline = new WorkstationPipeline(Arrays.asList(carBodyPost, driveTrainPost, accessoriesPost));
+		pipeline.setFirstOrder(carOrder);
+		int elapsed = 0;
+		for(Task task : carOrder.getTasks()){
+			if(carBodyPost.getCapabilities().contains(task.getVehiclePart().type)){
+				assertFalse(pipeline.canMoveAssemblyLine());
+				elapsed += 10;
+				task.perform(elapsed);
+			}
+		}
+		assertTrue(carBodyPost.done());
+		assertTrue(pipeline.canMoveAssemblyLine());
+		assertTrue(pipeline.getMaxElapsedTime() == elapsed);
+		
+		pipeline.advanceOrders(null, new DateTime(2014, 1, 1, 12, 0));
+		assertFalse(pipeline.allIdle());
+		assertFalse(pipeline.canMoveAssemblyLine());
+		assertTrue(pipeline.getMaxElapsedTime() == 0);
+	}
+	
+	/**
+	 * Test a pipeline with a post of two parallel lanes. The lanes take the orders in turn and hold an order for two
+	 * moves of the line, so the line only waits for the lane of the order that leaves the post. The time an order
+	 * spends at the post is divided over the two positions of the post, in the estimates and in the cycles.
+	 */
+	@Test
+	public void testLanes(){
+		Workstation firstLane = new CarBodyPost();
+		Workstation secondLane = new CarBodyPost();
+		WorkstationPipeline pipeline = new WorkstationPipeline(Arrays.asList(firstLane, secondLane, driveTrainPost, accessoriesPost), new int[]{2, 1, 1});
+		assertEquals(4, pipeline.size());
+		List<Printable<Workstation>> stations = new ArrayList<>();
+		pipeline.buildWorkstationList(stations);
+		assertEquals(4, stations.size());
+		assertEquals("Car Body Post 1", firstLane.getStringRepresentation());
+		assertEquals("Car Body Post 2", secondLane.getStringRepresentation());
+		assertEquals("Drive Train Post", driveTrainPost.getStringRepresentation());
+		assertFalse(firstLane.equals(secondLane));
+		
+		int[] single = new WorkstationPipeline(Arrays.asList(new CarBodyPost(), new DriveTrainPost(), new AccessoriesPost())).getEstimPhaseDurations(carOrder);
+		int[] durations = pipeline.getEstimPhaseDurations(carOrder);
+		assertArrayEquals(new int[]{(single[0]+1)/2, (single[0]+1)/2, single[1], single[2]}, durations);
+		
+		VehicleOrderDetailsMaker maker = new VehicleOrderDetailsMaker(VehicleModel.CARMODELA);
+		for(Task task : carOrder.getTasks()){
+			maker.addPart(task.getVehiclePart());
+		}
+		VehicleOrder secondOrder = new VehicleOrder(maker.getDetails());
+		pipeline.setFirstOrder(carOrder);
+		assertFalse(firstLane.idle());
+		assertTrue(secondLane.idle());
+		assertTrue(pipeline.canMoveAssemblyLine());
+		pipeline.advanceOrders(secondOrder, null);
+		assertFalse(pipeline.canMoveAssemblyLine());
+		List<Printable<Task>> first = pipeline.getRequiredTasks(firstLane);
+		List<Printable<Task>> second = pipeline.getRequiredTasks(secondLane);
+		assertFalse(first.isEmpty());
+		assertEquals(first.size(), second.size());
+		for(Printable<Task> task : second){
+			assertTrue(pipeline.doTask(task, 0));
+		}
+		assertTrue(secondLane.done());
+		assertFalse(pipeline.canMoveAssemblyLine());
+		for(Printable<Task> task : first){
+			assertTrue(pipeline.doTask(task, 120));
+		}
+		assertTrue(pipeline.canMoveAssemblyLine());
+		assertEquals(60, pipeline.getMaxElapsedTime());
+		
+		pipeline.advanceOrders(null, null);
+		assertTrue(firstLane.idle());
+		assertFalse(secondLane.idle());
+		assertFalse(driveTrainPost.idle());
+		assertEquals(0, pipeline.getMaxElapsedTime());
+		assertTrue(pipeline.getRequiredTasks(secondLane).isEmpty());
+	}
 
 }
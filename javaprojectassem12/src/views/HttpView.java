@@ -0,0 +1,479 @@
+package views;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import logic.order.VehicleModel;
+import logic.order.VehiclePartType;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import controllers.AssemAssistController;
+import controllers.CustomsManagerController;
+import controllers.GarageHolderController;
+import controllers.ManagerController;
+import controllers.MechanicController;
+import controllers.UserController;
+
+/**
+ * An HTTP interface to the AssemAssist system, which offers the operations of the user controllers as JSON
+ * endpoints so many users can use the system at the same time.
+ *
+ * A user logs in with POST /login?user=name and gets a session id, which has to be given as the session parameter
+ * of every other request. The operations of a user are found under /garageholder/, /mechanic/, /manager/ and
+ * /customs/. Reading operations use GET, changing operations use POST. Parameters are given in the query string
+ * or as a form in the body of a POST. Every answer is a JSON object. A failed request gets an error status and
+ * an object with the error message.
+ *
+ * Each request is handled on a thread of a cached pool, so there is a thread for each request that is being
+ * handled. The requests of one session are handled one at a time.
+ *
+ * Answers are sent with TCP_NODELAY only if the system property sun.net.httpserver.nodelay is true when the first
+ * HTTP server of the JVM is created. Main sets it before it starts the interface; it can also be given with -D.
+ */
+public class HttpView {
+
+	/**
+	 * The character set of the requests and answers.
+	 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * The controller that is used to log users in.
+	 */
+	private AssemAssistController controller;
+
+	/**
+	 * The embedded HTTP server.
+	 */
+	private HttpServer server;
+
+	/**
+	 * The pool on which the requests are handled.
+	 */
+	private ExecutorService requests;
+
+	/**
+	 * Creates a new HTTP interface for the given controller on the given port. The interface does not accept
+	 * requests until it is started.
+	 * @param controller	The AssemAssistController that will be used to let users log in.
+	 * @param port			The port on which the interface listens, 0 for any free port.
+	 * @throws IOException	If the port can not be used.
+	 */
+	public HttpView(AssemAssistController controller, int port) throws IOException{
+		this.controller = controller;
+		this.server = HttpServer.create(new InetSocketAddress(port), 0);
+		this.requests = Executors.newCachedThreadPool();
+		this.server.setExecutor(this.requests);
+		this.server.createContext("/", new HttpHandler(){
+			@Override
+			public void handle(HttpExchange exchange) throws IOException{
+				HttpView.this.handle(exchange);
+			}
+		});
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start(){
+		this.server.start();
+	}
+
+	/**
+	 * Stops accepting requests, and stops after the requests that are being handled are answered.
+	 */
+	public void stop(){
+		this.server.stop(0);
+		this.requests.shutdown();
+	}
+
+	/**
+	 * Returns the port on which this interface listens.
+	 * @return	The port on which this interface listens.
+	 */
+	public int getPort(){
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Handles the given request and sends its answer.
+	 * @param exchange	The request.
+	 * @throws IOException	If the answer can not be sent.
+	 */
+	private void handle(HttpExchange exchange) throws IOException{
+		try{
+			Map<String, String> parameters = this.readParameters(exchange);
+			Object answer = this.dispatch(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), parameters);
+			this.send(exchange, 200, answer);
+		}catch(RequestException e){
+			this.send(exchange, e.status, answer("error", e.getMessage()));
+		}catch(RuntimeException e){
+			this.send(exchange, 500, answer("error", String.valueOf(e)));
+		}finally{
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Performs the operation at the given path and returns its answer.
+	 * @param method		The HTTP method of the request.
+	 * @param path			The path of the request.
+	 * @param parameters	The parameters of the request.
+	 * @return	The answer to the request.
+	 * @throws RequestException	If the request is not valid.
+	 */
+	private Object dispatch(String method, String path, Map<String, String> parameters){
+		if(path.equals("/login")){
+			requirePost(method);
+			UserController session = this.controller.logIn(require(parameters, "user"));
+			if(session == null)
+				throw new RequestException(401, "Unknown user name.");
+			Map<String, Object> answer = answer("session", session.getSessionId());
+			answer.put("user", session.getUserName());
+			return answer;
+		}
+		UserController session = this.controller.getSession(parameters.get("session"));
+		if(session == null)
+			throw new RequestException(401, "Unknown session.");
+		if(path.equals("/logout")){
+			requirePost(method);
+			return answer("loggedOut", this.controller.logOut(session.getSessionId()));
+		}
+		int slash = path.indexOf('/', 1);
+		if(slash < 0)
+			throw new RequestException(404, "Unknown operation " + path + ".");
+		String role = path.substring(1, slash);
+		String operation = method + " " + path.substring(slash + 1);
+		synchronized(session){
+			if(role.equals("garageholder") && session instanceof GarageHolderController)
+				return this.garageHolder((GarageHolderController) session, operation, parameters);
+			if(role.equals("mechanic") && session instanceof MechanicController)
+				return this.mechanic((MechanicController) session, operation, parameters);
+			if(role.equals("manager") && session instanceof ManagerController)
+				return this.manager((ManagerController) session, operation, parameters);
+			if(role.equals("customs") && session instanceof CustomsManagerController)
+				return this.customsManager((CustomsManagerController) session, operation, parameters);
+		}
+		throw new RequestException(403, "The operation " + path + " is not available to this user.");
+	}
+
+	/**
+	 * Performs the given operation of a garage holder.
+	 * @param session		The controller of the session.
+	 * @param operation		The HTTP method followed by the name of the operation.
+	 * @param parameters	The parameters of the request.
+	 * @return	The answer to the request.
+	 * @throws RequestException	If the request is not valid.
+	 */
+	private Object garageHolder(GarageHolderController session, String operation, Map<String, String> parameters){
+		switch(operation){
+		case "GET orders":
+			Map<String, Object> orders = answer("pending", session.getPendingOrders());
+			orders.put("completed", session.getCompletedOrders());
+			return orders;
+		case "GET pending":
+			return answer("info", session.getPendingInfo(requireInt(parameters, "index")));
+		case "GET completed":
+			return answer("info", session.getCompletedInfo(requireInt(parameters, "index")));
+		case "GET models":
+			return answer("models", session.getModels());
+		case "GET options":
+			VehiclePartType type = VehiclePartType.getTypefromString(require(parameters, "type"));
+			if(type == null)
+				throw new RequestException(400, "Unknown part type.");
+			return answer("options", session.getOptions(type));
+		case "POST model":
+			VehicleModel model = VehicleModel.getModelFromString(require(parameters, "model"));
+			if(model == null)
+				throw new RequestException(400, "Unknown model.");
+			session.chooseModel(model);
+			return answer("model", model.toString());
+		case "POST part":
+			session.addPart(require(parameters, "part"));
+			return answer("part", parameters.get("part"));
+		case "POST order":
+			session.placeOrder();
+			return answer("pending", session.getPendingOrders());
+		default:
+			throw unknown(operation);
+		}
+	}
+
+	/**
+	 * Performs the given operation of a mechanic.
+	 * @param session		The controller of the session.
+	 * @param operation		The HTTP method followed by the name of the operation.
+	 * @param parameters	The parameters of the request.
+	 * @return	The answer to the request.
+	 * @throws RequestException	If the request is not valid.
+	 */
+	private Object mechanic(MechanicController session, String operation, Map<String, String> parameters){
+		switch(operation){
+		case "GET lines":
+			return answer("lines", session.getAssemblyLines());
+		case "POST line":
+			session.setAssemblyLine(require(parameters, "line"));
+			return answer("workstations", session.getWorkStationsFromAssemblyLine());
+		case "GET workstations":
+			return answer("workstations", session.getWorkStationsFromAssemblyLine());
+		case "POST workstation":
+			session.setWorkStation(require(parameters, "workstation"));
+			return answer("tasks", session.getTasks());
+		case "GET tasks":
+			return answer("tasks", session.getTasks());
+		case "GET task":
+			return answer("info", session.getTaskInformation(require(parameters, "task")));
+		case "POST task":
+			return answer("done", session.doTask(require(parameters, "task"), requireInt(parameters, "duration")));
+		case "GET overview":
+			return answer("overview", session.getTasksPerWorkstation());
+		default:
+			throw unknown(operation);
+		}
+	}
+
+	/**
+	 * Performs the given operation of a manager.
+	 * @param session		The controller of the session.
+	 * @param operation		The HTTP method followed by the name of the operation.
+	 * @param parameters	The parameters of the request.
+	 * @return	The answer to the request.
+	 * @throws RequestException	If the request is not valid.
+	 */
+	private Object manager(ManagerController session, String operation, Map<String, String> parameters){
+		switch(operation){
+		case "GET statistics":
+			return answer("statistics", session.getStatistics());
+		case "GET lines":
+			return answer("lines", session.getAssemblyLines());
+		case "POST line":
+			session.setAssemblyLine(require(parameters, "line"));
+			return answer("status", session.getCurrentAssemblyLineStatus());
+		case "GET status":
+			return answer("status", session.getCurrentAssemblyLineStatus());
+		case "POST status":
+			session.changeAssemblyLineStatus(require(parameters, "status"));
+			return answer("status", session.getCurrentAssemblyLineStatus());
+		case "GET strategies":
+			return answer("strategies", session.getStrategiesActiveLine());
+		case "GET strategies/all":
+			return answer("strategies", session.getStrategiesAllLines());
+		case "GET batch":
+			return answer("batch", session.getBatchListActiveLine());
+		case "GET batch/all":
+			return answer("batch", session.getBatchListAllLines());
+		case "POST fifo":
+			return answer("changed", session.changeToFIFOActiveLine());
+		case "POST fifo/all":
+			session.changeToFIFOAllLines();
+			return answer("changed", true);
+		case "POST batch":
+			session.changeStrategyToBatchProcessingActiveLine(requireInt(parameters, "index"));
+			return answer("strategies", session.getStrategiesActiveLine());
+		case "POST batch/all":
+			session.changeStrategyToBatchProcessingAllLines(requireInt(parameters, "index"));
+			return answer("strategies", session.getStrategiesAllLines());
+		default:
+			throw unknown(operation);
+		}
+	}
+
+	/**
+	 * Performs the given operation of a customs shop manager.
+	 * @param session		The controller of the session.
+	 * @param operation		The HTTP method followed by the name of the operation.
+	 * @param parameters	The parameters of the request.
+	 * @return	The answer to the request.
+	 * @throws RequestException	If the request is not valid.
+	 */
+	private Object customsManager(CustomsManagerController session, String operation, Map<String, String> parameters){
+		switch(operation){
+		case "GET types":
+			return answer("types", session.getAvailableTypes());
+		case "GET options":
+			return answer("options", session.getAvailableOptions(require(parameters, "type")));
+		case "POST part":
+			session.choosePart(require(parameters, "part"));
+			return answer("part", parameters.get("part"));
+		case "POST deadline":
+			return answer("valid", session.chooseDeadLine(require(parameters, "deadline")));
+		case "POST order":
+			return answer("order", session.placeOrder());
+		default:
+			throw unknown(operation);
+		}
+	}
+
+	/**
+	 * Returns the parameters of the given request, from its query string and, for a POST, from its body.
+	 * @param exchange	The request.
+	 * @return	A map of the names of the parameters to their values.
+	 * @throws IOException	If the body can not be read.
+	 */
+	private Map<String, String> readParameters(HttpExchange exchange) throws IOException{
+		Map<String, String> parameters = new HashMap<>();
+		addParameters(exchange.getRequestURI().getRawQuery(), parameters);
+		if(exchange.getRequestMethod().equals("POST"))
+			addParameters(new String(readAll(exchange.getRequestBody()), UTF8), parameters);
+		return parameters;
+	}
+
+	/**
+	 * Sends the given answer as JSON with the given status.
+	 * @param exchange	The request.
+	 * @param status	The HTTP status of the answer.
+	 * @param answer	The answer.
+	 * @throws IOException	If the answer can not be sent.
+	 */
+	private void send(HttpExchange exchange, int status, Object answer) throws IOException{
+		byte[] body = Json.write(answer).getBytes(UTF8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.flush();
+	}
+
+	/**
+	 * Adds the parameters of the given URL encoded form to the given map.
+	 * @param form			The form, or null.
+	 * @param parameters	The map to which the parameters are added.
+	 */
+	private static void addParameters(String form, Map<String, String> parameters){
+		if(form == null || form.isEmpty())
+			return;
+		for(String pair : form.split("&")){
+			int equals = pair.indexOf('=');
+			if(equals < 0)
+				parameters.put(decode(pair), "");
+			else
+				parameters.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+		}
+	}
+
+	/**
+	 * Returns the given URL encoded text decoded.
+	 * @param text	The URL encoded text.
+	 * @return	The decoded text.
+	 * @throws RequestException	If the given text is not URL encoded.
+	 */
+	private static String decode(String text){
+		try{
+			return URLDecoder.decode(text, "UTF-8");
+		}catch(UnsupportedEncodingException | IllegalArgumentException e){
+			throw new RequestException(400, "The parameters are not URL encoded.");
+		}
+	}
+
+	/**
+	 * Reads the given stream to its end.
+	 * @param in	The stream that needs to be read.
+	 * @return	The bytes of the stream.
+	 * @throws IOException	If the stream can not be read.
+	 */
+	private static byte[] readAll(InputStream in) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while((read = in.read(buffer)) > 0)
+			bytes.write(buffer, 0, read);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Checks that the request that changes the system uses POST.
+	 * @param method	The HTTP method of the request.
+	 * @throws RequestException	If the method is not POST.
+	 */
+	private static void requirePost(String method){
+		if(!method.equals("POST"))
+			throw new RequestException(405, "This operation needs a POST.");
+	}
+
+	/**
+	 * Returns the value of the parameter with the given name.
+	 * @param parameters	The parameters of the request.
+	 * @param name			The name of the parameter.
+	 * @return	The value of the parameter.
+	 * @throws RequestException	If the parameter is missing.
+	 */
+	private static String require(Map<String, String> parameters, String name){
+		String value = parameters.get(name);
+		if(value == null)
+			throw new RequestException(400, "The parameter " + name + " is missing.");
+		return value;
+	}
+
+	/**
+	 * Returns the value of the parameter with the given name as a number.
+	 * @param parameters	The parameters of the request.
+	 * @param name			The name of the parameter.
+	 * @return	The value of the parameter.
+	 * @throws RequestException	If the parameter is missing or is not a number.
+	 */
+	private static int requireInt(Map<String, String> parameters, String name){
+		try{
+			return Integer.parseInt(require(parameters, name));
+		}catch(NumberFormatException e){
+			throw new RequestException(400, "The parameter " + name + " has to be a number.");
+		}
+	}
+
+	/**
+	 * Returns the error for an operation that does not exist.
+	 * @param operation	The HTTP method followed by the name of the operation.
+	 * @return	The error for the given operation.
+	 */
+	private static RequestException unknown(String operation){
+		return new RequestException(404, "Unknown operation " + operation + ".");
+	}
+
+	/**
+	 * Returns a new answer with the given value under the given key. More values can be put in the answer.
+	 * @param key	The key of the value.
+	 * @param value	The value.
+	 * @return	The answer.
+	 */
+	private static Map<String, Object> answer(String key, Object value){
+		Map<String, Object> answer = new LinkedHashMap<>();
+		answer.put(key, value);
+		return answer;
+	}
+
+	/**
+	 * An exception for a request that is not valid, with the HTTP status of its answer.
+	 */
+	private static class RequestException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The HTTP status of the answer.
+		 */
+		private final int status;
+
+		/**
+		 * Creates a new exception with the given status and message.
+		 * @param status	The HTTP status of the answer.
+		 * @param message	The message of the answer.
+		 */
+		private RequestException(int status, String message){
+			super(message);
+			this.status = status;
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package views;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A class used to write the answers of the HTTP interface as JSON. Only the values the controllers return are
+ * supported: null, booleans, numbers, strings, maps with string keys and collections of these values.
+ */
+public class Json {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private Json(){
+	}
+
+	/**
+	 * Returns the given value as JSON.
+	 * @param value	The value that needs to be written.
+	 * @return	The JSON text of the given value.
+	 * @throws IllegalArgumentException	If the given value, or a value in it, is not supported.
+	 */
+	public static String write(Object value){
+		StringBuilder json = new StringBuilder();
+		write(value, json);
+		return json.toString();
+	}
+
+	/**
+	 * Returns the string value of the given key in the given JSON object, which has to be written by this class.
+	 * Only the top level of the object is searched.
+	 * @param json	The JSON text of an object.
+	 * @param key	The key of the value.
+	 * @return	Null if the object has no string value for the given key.
+	 * 			The string value of the given key otherwise.
+	 */
+	public static String readString(String json, String key){
+		String search = quote(key) + ":";
+		int depth = 0;
+		for(int i = 0; i < json.length(); i++){
+			char c = json.charAt(i);
+			if(c == '"'){
+				if(depth == 1 && json.startsWith(search, i)){
+					int start = i + search.length();
+					if(start < json.length() && json.charAt(start) == '"')
+						return unquote(json, start);
+					return null;
+				}
+				i = endOfString(json, i);
+			}else if(c == '{' || c == '['){
+				depth++;
+			}else if(c == '}' || c == ']'){
+				depth--;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Appends the given value as JSON to the given builder.
+	 * @param value	The value that needs to be written.
+	 * @param json	The builder to which the JSON text is appended.
+	 * @throws IllegalArgumentException	If the given value, or a value in it, is not supported.
+	 */
+	private static void write(Object value, StringBuilder json){
+		if(value == null || value instanceof Boolean || value instanceof Number){
+			json.append(value);
+		}else if(value instanceof String){
+			json.append(quote((String) value));
+		}else if(value instanceof Map){
+			json.append('{');
+			Iterator<? extends Map.Entry<?, ?>> entries = ((Map<?, ?>) value).entrySet().iterator();
+			while(entries.hasNext()){
+				Map.Entry<?, ?> entry = entries.next();
+				json.append(quote(String.valueOf(entry.getKey()))).append(':');
+				write(entry.getValue(), json);
+				if(entries.hasNext())
+					json.append(',');
+			}
+			json.append('}');
+		}else if(value instanceof Collection){
+			json.append('[');
+			Iterator<?> elements = ((Collection<?>) value).iterator();
+			while(elements.hasNext()){
+				write(elements.next(), json);
+				if(elements.hasNext())
+					json.append(',');
+			}
+			json.append(']');
+		}else{
+			throw new IllegalArgumentException("A " + value.getClass().getSimpleName() + " can not be written as JSON.");
+		}
+	}
+
+	/**
+	 * Returns the given text as a JSON string.
+	 * @param text	The text that needs to be quoted.
+	 * @return	The given text between quotes, with the quotes, backslashes and control characters escaped.
+	 */
+	private static String quote(String text){
+		StringBuilder quoted = new StringBuilder(text.length() + 2);
+		quoted.append('"');
+		for(int i = 0; i < text.length(); i++){
+			char c = text.charAt(i);
+			switch(c){
+			case '"':
+				quoted.append("\\\"");
+				break;
+			case '\\':
+				quoted.append("\\\\");
+				break;
+			case '\n':
+				quoted.append("\\n");
+				break;
+			case '\r':
+				quoted.append("\\r");
+				break;
+			case '\t':
+				quoted.append("\\t");
+				break;
+			default:
+				if(c < 0x20)
+					quoted.append(String.format("\\u%04x", (int) c));
+				else
+					quoted.append(c);
+			}
+		}
+		quoted.append('"');
+		return quoted.toString();
+	}
+
+	/**
+	 * Returns the text of the JSON string that starts at the given index.
+	 * @param json	The JSON text.
+	 * @param start	The index of the opening quote.
+	 * @return	The text of the string, with the escapes undone.
+	 */
+	private static String unquote(String json, int start){
+		StringBuilder text = new StringBuilder();
+		for(int i = start + 1; i < json.length(); i++){
+			char c = json.charAt(i);
+			if(c == '"')
+				return text.toString();
+			if(c != '\\'){
+				text.append(c);
+				continue;
+			}
+			c = json.charAt(++i);
+			switch(c){
+			case 'n':
+				text.append('\n');
+				break;
+			case 'r':
+				text.append('\r');
+				break;
+			case 't':
+				text.append('\t');
+				break;
+			case 'u':
+				text.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+				i += 4;
+				break;
+			default:
+				text.append(c);
+			}
+		}
+		throw new IllegalArgumentException("The JSON string is not closed.");
+	}
+
+	/**
+	 * Returns the index of the closing quote of the JSON string that starts at the given index.
+	 * @param json	The JSON text.
+	 * @param start	The index of the opening quote.
+	 * @return	The index of the closing quote.
+	 */
+	private static int endOfString(String json, int start){
+		for(int i = start + 1; i < json.length(); i++){
+			char c = json.charAt(i);
+			if(c == '\\')
+				i++;
+			else if(c == '"')
+				return i;
+		}
+		return json.length();
+	}
+}
@@ -98,6 +98,7 @@ public class UI {
 			else if(userCont instanceof CustomsManagerController){
 				customsUI.run((CustomsManagerController)userCont);
 			}
+			controller.logOut(userCont.getSessionId());
 			try {
 				writer.write("\n\n");
 				writer.flush();